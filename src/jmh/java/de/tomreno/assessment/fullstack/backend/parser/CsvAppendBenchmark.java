@@ -0,0 +1,88 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps.Append.Policy;
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of {@link PersonCsvParser#saveToCsv(Person)} by concurrent threads for combinations of the
+ * flush and fsync policies, given as {@code <flush>/<fsync>}, compared to opening, appending to and closing the CSV file
+ * per save, which the appender replaced and which does not depend on the policies.
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="CsvAppendBenchmark -t 4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CsvAppendBenchmark {
+
+    @Param({"PER_WRITE/NEVER", "PER_WRITE/PER_WRITE", "SIZE/NEVER", "INTERVAL/INTERVAL"})
+    private String policies;
+
+    private Path directory;
+    private PersonCsvParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("persons");
+        AppCsvPersonProps props = new AppCsvPersonProps();
+        props.setDirectory(directory.toUri().toString());
+        String[] policy = policies.split("/");
+        props.getAppend().setFlushPolicy(Policy.valueOf(policy[0]));
+        props.getAppend().setFsyncPolicy(Policy.valueOf(policy[1]));
+        parser = new PersonCsvParser(props);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        parser.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Person saveToCsv() throws IOException, URISyntaxException {
+        return parser.saveToCsv(createPerson());
+    }
+
+    @Benchmark
+    public void openAppendClose() throws IOException {
+        Path csvFile = directory.resolve("per_save.csv");
+        synchronized (this) {
+            try (
+                    FileWriter fw = new FileWriter(csvFile.toFile(), true);
+                    BufferedWriter bw = new BufferedWriter(fw);
+                    PrintWriter writer = new PrintWriter(bw)
+            ) {
+                writer.println("Müller,Hans,67742 Lauterecken,1");
+            }
+        }
+    }
+
+    private static Person createPerson() {
+        Person person = new Person(1L);
+        person.setName("Hans");
+        person.setLastname("Müller");
+        person.setZipcode("67742");
+        person.setCity("Lauterecken");
+        person.setColor(Color.BLUE);
+        return person;
+    }
+
+}
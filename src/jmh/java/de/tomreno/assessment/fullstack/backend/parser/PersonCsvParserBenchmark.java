@@ -0,0 +1,72 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long {@link PersonCsvParser#readFromCsv()} takes to parse a CSV file of the given number of persons from
+ * a temporary directory by the given number of threads. Files of 1,000,000 persons exceed the size from which a file
+ * is split into chunks parsed in parallel. The file stays in the page cache, so this measures parsing rather than disk
+ * reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersonCsvParserBenchmark {
+
+    /**
+     * The entries of the sample input, including one spanning two lines, which are repeated to the requested size.
+     */
+    private static final String[] ENTRIES = {"Müller, Hans, 67742 Lauterecken, 1",
+            "Petersen, Peter, 18439 Stralsund, 2", "Johnson, Johnny, 88888 made up, 3",
+            "Millenium, Milly, 77777 made up too, 4", "Müller, Jonas, 32323 Hansstadt, 5",
+            "Fujitsu, Tastatur, 42342 Japan, 6", "Andersson, Anders, 32132 Schweden - ☀, 2",
+            "Bart, Bertram, \n12313 Wasweißich, 1 ", "Gerber, Gerda, 76535 Woanders, 3 ",
+            "Klaussen, Klaus, 43246 Hierach, 2"};
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private Path directory;
+    private PersonCsvParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("persons");
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            csv.append(ENTRIES[i % ENTRIES.length]).append('\n');
+        }
+        Files.writeString(directory.resolve("persons.csv"), csv, StandardCharsets.UTF_8);
+        AppCsvPersonProps props = new AppCsvPersonProps();
+        props.setDirectory(directory.toUri().toString().replaceAll("/$", ""));
+        props.setParallelism(parallelism);
+        parser = new PersonCsvParser(props);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<Person> readFromCsv() throws IOException {
+        return parser.readFromCsv();
+    }
+
+}
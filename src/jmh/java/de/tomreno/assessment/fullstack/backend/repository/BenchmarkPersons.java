@@ -0,0 +1,238 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.Application;
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import de.tomreno.assessment.fullstack.backend.parser.PersonCsvParser;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates reproducible person datasets for benchmarks and provides the repositories serving them.
+ */
+final class BenchmarkPersons {
+
+    private static final String[] NAMES = {"Hans", "Peter", "Anna", "Claudia", "Thomas", "Sabine", "Jürgen", "Monika",
+            "Stefan", "Ursula", "Michael", "Petra", "Andreas", "Karin", "Frank", "Birgit"};
+    private static final String[] LASTNAMES = {"Müller", "Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner",
+            "Becker", "Schulz", "Hoffmann", "Schäfer", "Koch", "Bauer", "Richter", "Klein", "Wolf"};
+    private static final String[] CITIES = {"Berlin", "Hamburg", "München", "Köln", "Frankfurt", "Stuttgart",
+            "Düsseldorf", "Leipzig", "Dortmund", "Essen", "Bremen", "Dresden", "Hannover", "Nürnberg", "Stralsund",
+            "Lauterecken"};
+
+    /**
+     * The 40 largest German cities with their population in thousands, approximately.
+     */
+    private static final String[] LARGE_CITIES = {"Berlin", "Hamburg", "München", "Köln", "Frankfurt am Main",
+            "Düsseldorf", "Stuttgart", "Leipzig", "Dortmund", "Bremen", "Essen", "Dresden", "Nürnberg", "Hannover",
+            "Duisburg", "Wuppertal", "Bochum", "Bielefeld", "Bonn", "Mannheim", "Karlsruhe", "Münster", "Augsburg",
+            "Wiesbaden", "Mönchengladbach", "Gelsenkirchen", "Aachen", "Braunschweig", "Kiel", "Chemnitz", "Halle",
+            "Magdeburg", "Freiburg im Breisgau", "Krefeld", "Mainz", "Lübeck", "Erfurt", "Oberhausen", "Rostock",
+            "Kassel"};
+    private static final int[] LARGE_CITY_POPULATIONS = {3755, 1892, 1512, 1084, 773, 631, 633, 616, 593, 577, 584,
+            563, 523, 545, 503, 358, 365, 338, 336, 316, 308, 320, 301, 283, 268, 263, 252, 251, 248, 250, 242, 241,
+            237, 228, 221, 218, 216, 210, 209, 201};
+
+    /**
+     * The colors persons are created with. The color type of the database schema does not know turquoise, so it is left
+     * out to serve the same dataset from every repository.
+     */
+    private static final Color[] COLORS = Stream.of(Color.values())
+            .filter(color -> color != Color.TURQUOISE)
+            .toArray(Color[]::new);
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    /**
+     * Creates the given number of persons. Like persons parsed from CSV files, every person gets its own string
+     * instances, so heap measurements are not flattered by shared constants.
+     */
+    static List<Person> create(int size) {
+        Random random = new Random(42);
+        List<Person> persons = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Person person = new Person(i);
+            person.setName(new String(NAMES[random.nextInt(NAMES.length)]));
+            person.setLastname(new String(LASTNAMES[random.nextInt(LASTNAMES.length)]));
+            person.setZipcode(String.format("%05d", random.nextInt(100_000)));
+            person.setCity(new String(CITIES[random.nextInt(CITIES.length)]));
+            person.setColor(COLORS[random.nextInt(COLORS.length)]);
+            persons.add(person);
+        }
+        return persons;
+    }
+
+    /**
+     * Creates the given number of persons like {@link #create(int)}, but living in the largest German cities in
+     * proportion to their population, while a third lives in small towns of distinct names. This resembles the
+     * repetition of city names in real address data.
+     */
+    static List<Person> createWithRealisticCities(int size) {
+        int totalPopulation = IntStream.of(LARGE_CITY_POPULATIONS).sum();
+        List<Person> persons = create(size);
+        Random random = new Random(7);
+        for (Person person : persons) {
+            if (random.nextInt(3) == 0) {
+                person.setCity("Kleinstadt" + (char) ('a' + random.nextInt(26)) + (char) ('a' + random.nextInt(26)) +
+                        (char) ('a' + random.nextInt(26)));
+                continue;
+            }
+            int resident = random.nextInt(totalPopulation);
+            int city = 0;
+            while (resident >= LARGE_CITY_POPULATIONS[city]) {
+                resident -= LARGE_CITY_POPULATIONS[city++];
+            }
+            person.setCity(new String(LARGE_CITIES[city]));
+        }
+        return persons;
+    }
+
+    /**
+     * Creates a person without id to be saved by a benchmark.
+     */
+    static Person createUnsaved(int seed) {
+        Person person = new Person();
+        person.setName(NAMES[seed & 15]);
+        person.setLastname(LASTNAMES[seed >>> 4 & 15]);
+        person.setZipcode(String.format("%05d", seed % 100_000));
+        person.setCity(CITIES[seed >>> 8 & 15]);
+        person.setColor(COLORS[seed % COLORS.length]);
+        return person;
+    }
+
+    static PersonCsvRepository csvRepository(List<Person> persons) {
+        PersonCsvParser parser = new PersonCsvParser(new AppCsvPersonProps()) {
+            @Override
+            public void readFromCsv(Consumer<? super Person> consumer) {
+                persons.forEach(consumer);
+            }
+        };
+        return new PersonCsvRepository(parser);
+    }
+
+    /**
+     * Writes the persons to a CSV file in a new temporary directory, which is returned.
+     */
+    static Path writeCsv(List<Person> persons) {
+        return writeCsv(persons, 1);
+    }
+
+    /**
+     * Writes the persons evenly to the given number of CSV files in a new temporary directory, which is returned. The
+     * files are named like the daily files of saved persons, so they are read in the order of the persons.
+     */
+    static Path writeCsv(List<Person> persons, int files) {
+        try {
+            Path directory = Files.createTempDirectory("persons");
+            for (int file = 0; file < files; file++) {
+                Path csvFile = directory.resolve("zzz_persons_%05d.csv".formatted(file));
+                try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+                    for (Person person : persons.subList(persons.size() * file / files,
+                            persons.size() * (file + 1) / files)) {
+                        writer.write(person.getLastname() + ", " + person.getName() + ", " + person.getZipcode() +
+                                " " + person.getCity() + ", " + person.getColor().getId());
+                        writer.newLine();
+                    }
+                }
+            }
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static PersonCsvParser csvParser(Path directory) {
+        return csvParser(directory, 1);
+    }
+
+    static PersonCsvParser csvParser(Path directory, int parallelism) {
+        return csvParser(directory, parallelism, new AppCsvPersonProps().getInternPoolSize());
+    }
+
+    static PersonCsvParser csvParser(Path directory, int parallelism, int internPoolSize) {
+        AppCsvPersonProps props = csvProps(directory, parallelism);
+        props.setInternPoolSize(internPoolSize);
+        return new PersonCsvParser(props);
+    }
+
+    static AppCsvPersonProps csvProps(Path directory, int parallelism) {
+        AppCsvPersonProps props = new AppCsvPersonProps();
+        props.setDirectory(directory.toUri().toString().replaceAll("/$", ""));
+        props.setParallelism(parallelism);
+        return props;
+    }
+
+    static void delete(Path directory) {
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Starts the application without web server on an in-memory database holding the given persons. The persons are
+     * inserted in JDBC batches, as saving them one by one takes minutes for large datasets, and their trigrams are
+     * inserted per batch like the repository does.
+     */
+    static ConfigurableApplicationContext jpaContext(List<Person> persons) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--app.database.enabled=true",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--spring.devtools.restart.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.de.tomreno=WARN");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int from = 0; from < persons.size(); from += INSERT_BATCH_SIZE) {
+            List<Person> chunk = persons.subList(from, Math.min(from + INSERT_BATCH_SIZE, persons.size()));
+            List<Object[]> batch = chunk.stream()
+                    .map(person -> new Object[]{person.getId(), person.getName(), person.getLastname(),
+                            person.getZipcode(), person.getCity(), person.getColor().name()})
+                    .toList();
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO person (id, name, lastname, zipcode, city, color) VALUES (?, ?, ?, ?, ?, ?)", batch);
+            jdbcTemplate.batchUpdate(PersonTrigrams.INSERT_SQL, PersonTrigrams.rowsOf(chunk));
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE person_seq RESTART WITH " + (persons.size() + 1));
+        return context;
+    }
+
+    /**
+     * Parses a sort spec of properties separated by {@code +}, each optionally followed by {@code :desc}, e.g.
+     * {@code lastname+name:desc}. The spec avoids commas, as JMH splits parameter values at commas.
+     */
+    static Sort sortOf(String spec) {
+        return Sort.by(Stream.of(spec.split("\\+"))
+                .map(order -> order.endsWith(":desc")
+                        ? Sort.Order.desc(order.substring(0, order.length() - ":desc".length()))
+                        : Sort.Order.asc(order))
+                .toList());
+    }
+
+    private BenchmarkPersons() {
+    }
+
+}
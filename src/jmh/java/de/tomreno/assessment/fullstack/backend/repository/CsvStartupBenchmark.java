@@ -0,0 +1,57 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.parser.PersonCsvParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the startup of the CSV repository, i.e. parsing all CSV files and building the columns and indexes, for the
+ * same persons spread over a varying number of files and parsed by a varying number of threads. With the snapshot
+ * enabled, the first startup writes the snapshot and all further ones read the persons from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CsvStartupBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"1", "100", "1000"})
+    private int files;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"false", "true"})
+    private boolean snapshot;
+
+    private Path directory;
+    private PersonCsvParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkPersons.writeCsv(BenchmarkPersons.create(size), files);
+        AppCsvPersonProps props = BenchmarkPersons.csvProps(directory, parallelism);
+        props.setSnapshotEnabled(snapshot);
+        parser = new PersonCsvParser(props);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkPersons.delete(directory);
+        BenchmarkPersons.delete(directory.resolveSibling(directory.getFileName() + ".snapshot"));
+    }
+
+    @Benchmark
+    public PersonCsvRepository startUp() {
+        return new PersonCsvRepository(parser, AppCsvPersonProps.Storage.HEAP);
+    }
+
+}
@@ -0,0 +1,52 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former linear scan of {@link PersonCsvRepository#findById(long)} with the lookup via the id hash index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindByIdBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<Person> persons;
+    private PersonCsvRepository repository;
+    private long[] ids;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        persons = BenchmarkPersons.create(size);
+        repository = BenchmarkPersons.csvRepository(persons);
+        ids = new Random(42).longs(1024, 1, size + 1).toArray();
+    }
+
+    @Benchmark
+    public Optional<Person> linearScan() {
+        long id = nextId();
+        return persons.stream().filter(person -> person.getId() == id).findAny();
+    }
+
+    @Benchmark
+    public Optional<Person> hashIndex() {
+        return repository.findById(nextId());
+    }
+
+    private long nextId() {
+        return ids[next++ & (ids.length - 1)];
+    }
+
+}
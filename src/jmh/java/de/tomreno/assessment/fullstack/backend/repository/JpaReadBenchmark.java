@@ -0,0 +1,81 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonDto;
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.mapper.PersonMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of the reads of a request on the in-memory database, from the query to the DTOs the service
+ * returns. Run it with the GC profiler to also get the bytes allocated per request:
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="JpaReadBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class JpaReadBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String SEARCH = "rostock";
+    private static final Color COLOR = Color.RED;
+
+    @Param({"100000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private PersonJpaRepository repository;
+    private PersonMapper mapper;
+    private Pageable pageable;
+    private long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkPersons.jpaContext(BenchmarkPersons.createWithRealisticCities(size));
+        repository = context.getBean(PersonJpaRepository.class);
+        mapper = Mappers.getMapper(PersonMapper.class);
+        pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("name"));
+        ids = new Random(42).longs(1024, 1, size + 1).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PersonDto> findAll() {
+        return repository.findAll(pageable).map(mapper::toDto).getContent();
+    }
+
+    @Benchmark
+    public List<PersonDto> findByColor() {
+        return repository.findByColor(COLOR, pageable).map(mapper::toDto).getContent();
+    }
+
+    @Benchmark
+    public List<PersonDto> findBySearch() {
+        return repository.findBySearch(SEARCH, pageable).map(mapper::toDto).getContent();
+    }
+
+    @Benchmark
+    public Optional<PersonDto> findById() {
+        return repository.findById(ids[next++ & (ids.length - 1)]).map(mapper::toDto);
+    }
+
+}
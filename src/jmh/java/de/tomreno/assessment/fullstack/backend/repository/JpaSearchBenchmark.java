@@ -0,0 +1,86 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of a search page of {@link PersonJpaRepository} on the in-memory database, looking up
+ * candidates in the trigram table compared to matching every person with the {@code LIKE} conditions alone, for
+ * frequent, rare and missing terms.
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="JpaSearchBenchmark -p size=1000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class JpaSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final String SCAN_FROM = "FROM person p WHERE " + PersonTrigrams.CONTAINS_CONDITION;
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    @Param({"chmi", "rostock", "kleinstadtqz", "xyz"})
+    private String search;
+
+    private ConfigurableApplicationContext context;
+    private PersonJpaRepository repository;
+    private EntityManager entityManager;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkPersons.jpaContext(BenchmarkPersons.createWithRealisticCities(size));
+        repository = context.getBean(PersonJpaRepository.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("id"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Person> trigramLookup() {
+        return repository.findBySearch(search, pageable);
+    }
+
+    /**
+     * Reads the same page by matching every person with the {@code LIKE} conditions of the search, counting the
+     * matches like the page of the trigram lookup.
+     */
+    @Benchmark
+    public Page<Person> likeScan() {
+        String pattern = PersonTrigrams.containsPattern(search);
+        @SuppressWarnings("unchecked")
+        List<Person> persons = PersonSearchQuery.createPersonQuery(entityManager, "SELECT p.* " + SCAN_FROM
+                        + " ORDER BY p.id")
+                .setParameter("pattern", pattern)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(persons, pageable, () -> ((Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) " + SCAN_FROM)
+                .setParameter("pattern", pattern)
+                .getSingleResult()).longValue());
+    }
+
+}
@@ -0,0 +1,106 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps.Storage;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Measures the retained heap and direct memory per person row of the former {@code List<Person>}, of the
+ * {@link PersonColumns} alone and of a complete {@link PersonStore} including all indexes, together with the pause of a
+ * full garbage collection while the data is alive. It also measures the persons parsed from a CSV file of realistic
+ * city names with and without sharing equal fields. JMH does not measure retained heap, so this is a plain program
+ * comparing the used memory after full garbage collections, e.g.
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.jvmArgs=-Xmx4g \
+ *     -Djmh.main=de.tomreno.assessment.fullstack.backend.repository.PersonFootprint -Djmh.args="1000000 10000000"
+ * </pre>
+ */
+public final class PersonFootprint {
+
+    private static final int GC_PAUSE_SAMPLES = 3;
+
+    public static void main(String[] args) {
+        for (String arg : args) {
+            int size = Integer.parseInt(arg);
+            System.out.printf("%,d rows           heap B/row  direct B/row  full GC ms%n", size);
+            measure("List<Person>", size, persons -> persons);
+            for (Storage storage : Storage.values()) {
+                measure("columns " + storage, size, persons -> {
+                    PersonColumns columns = PersonColumns.create(storage, persons.size());
+                    persons.forEach(columns::add);
+                    return columns;
+                });
+                measure("store " + storage, size, persons -> new PersonStore(persons, storage, 0));
+            }
+            Path directory = BenchmarkPersons.writeCsv(BenchmarkPersons.createWithRealisticCities(size));
+            try {
+                measure("parsed", size, () -> parse(directory, 0));
+                measure("parsed, interned", size,
+                        () -> parse(directory, new AppCsvPersonProps().getInternPoolSize()));
+            } finally {
+                BenchmarkPersons.delete(directory);
+            }
+        }
+    }
+
+    private static void measure(String name, int size, Function<List<Person>, Object> factory) {
+        measure(name, size, () -> factory.apply(BenchmarkPersons.create(size)));
+    }
+
+    private static void measure(String name, int size, Supplier<Object> factory) {
+        long heapBefore = usedHeap();
+        long directBefore = usedDirectMemory();
+        Object retained = factory.get();
+        long heapAfter = usedHeap();
+        long directAfter = usedDirectMemory();
+        long pause = Long.MAX_VALUE;
+        for (int i = 0; i < GC_PAUSE_SAMPLES; i++) {
+            long start = System.nanoTime();
+            System.gc();
+            pause = Math.min(pause, System.nanoTime() - start);
+        }
+        Reference.reachabilityFence(retained);
+        System.out.printf("  %-20s %10.1f  %12.1f  %10.1f%n", name, (heapAfter - heapBefore) / (double) size,
+                (directAfter - directBefore) / (double) size, pause / 1e6);
+    }
+
+    /**
+     * Parses the persons of the given CSV directory into a list, sharing equal fields up to the given number of
+     * distinct values.
+     */
+    private static List<Person> parse(Path directory, int internPoolSize) {
+        try {
+            return BenchmarkPersons.csvParser(directory, 1, internPoolSize).readFromCsv();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirectMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    private PersonFootprint() {
+    }
+
+}
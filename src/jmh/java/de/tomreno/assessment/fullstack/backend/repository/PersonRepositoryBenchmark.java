@@ -0,0 +1,121 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput and latency of every {@link PersonRepository} query and of saves for the CSV repository with
+ * either storage and for the JPA repository on the in-memory database, e.g. to compare one query across all datasets
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="PersonRepositoryBenchmark.findBySearch -p sort=name"
+ * </pre>
+ * The CSV repository reads its persons from a CSV file written to a temporary directory, so saves append to a real
+ * file. Saved persons stay in the dataset until the end of the trial, which adds a few thousand rows at most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersonRepositoryBenchmark {
+
+    public enum Implementation {
+        CSV_HEAP,
+        CSV_OFF_HEAP,
+        JPA
+    }
+
+    private static final int PAGE_SIZE = 20;
+    private static final String SEARCH = "chmi";
+    private static final Color COLOR = Color.RED;
+
+    @Param({"CSV_HEAP", "CSV_OFF_HEAP", "JPA"})
+    private Implementation implementation;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"id", "name", "lastname+name:desc", "city:desc+zipcode"})
+    private String sort;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private PersonRepository repository;
+    private Pageable pageable;
+    private long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Person> persons = BenchmarkPersons.create(size);
+        switch (implementation) {
+            case CSV_HEAP, CSV_OFF_HEAP -> {
+                directory = BenchmarkPersons.writeCsv(persons);
+                repository = new PersonCsvRepository(BenchmarkPersons.csvParser(directory),
+                        implementation == Implementation.CSV_HEAP
+                                ? AppCsvPersonProps.Storage.HEAP
+                                : AppCsvPersonProps.Storage.OFF_HEAP);
+            }
+            case JPA -> {
+                context = BenchmarkPersons.jpaContext(persons);
+                repository = context.getBean(PersonJpaRepository.class);
+            }
+        }
+        pageable = PageRequest.of(0, PAGE_SIZE, BenchmarkPersons.sortOf(sort));
+        ids = new Random(42).longs(1024, 1, size + 1).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (directory != null) {
+            BenchmarkPersons.delete(directory);
+        }
+    }
+
+    @Benchmark
+    public Page<Person> findAll() {
+        return repository.findAll(pageable);
+    }
+
+    @Benchmark
+    public Optional<Person> findById() {
+        return repository.findById(ids[next++ & (ids.length - 1)]);
+    }
+
+    @Benchmark
+    public Page<Person> findByColor() {
+        return repository.findByColor(COLOR, pageable);
+    }
+
+    @Benchmark
+    public Page<Person> findBySearch() {
+        return repository.findBySearch(SEARCH, pageable);
+    }
+
+    @Benchmark
+    public Page<Person> findBySearchAndColor() {
+        return repository.findBySearchAndColor(SEARCH, COLOR, pageable);
+    }
+
+    @Benchmark
+    public Person save() {
+        return repository.save(BenchmarkPersons.createUnsaved(next++));
+    }
+
+}
@@ -0,0 +1,97 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of a page of persons at increasing depths read with an offset compared to a window read from
+ * the keyset position of the preceding person, for the CSV repository and the JPA repository on the in-memory database.
+ * <pre>
+ * ./mvnw -Pjmh test-compile exec:exec -Djmh.args="WindowBenchmark -p implementation=JPA"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class WindowBenchmark {
+
+    public enum Implementation {
+        CSV_HEAP,
+        JPA
+    }
+
+    private static final int PAGE_SIZE = 20;
+    private static final int SIZE = 1_000_000;
+
+    @Param({"CSV_HEAP", "JPA"})
+    private Implementation implementation;
+
+    @Param({"1", "500", "25000"})
+    private int page;
+
+    @Param({"id", "city", "city+name:desc"})
+    private String sort;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private PersonRepository repository;
+    private Pageable pageable;
+    private Sort windowSort;
+    private KeysetScrollPosition position;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Person> persons = BenchmarkPersons.createWithRealisticCities(SIZE);
+        switch (implementation) {
+            case CSV_HEAP -> {
+                directory = BenchmarkPersons.writeCsv(persons);
+                repository = new PersonCsvRepository(BenchmarkPersons.csvParser(directory),
+                        AppCsvPersonProps.Storage.HEAP);
+            }
+            case JPA -> {
+                context = BenchmarkPersons.jpaContext(persons);
+                repository = context.getBean(PersonJpaRepository.class);
+            }
+        }
+        windowSort = BenchmarkPersons.sortOf(sort);
+        pageable = PageRequest.of(page, PAGE_SIZE, windowSort);
+        Person preceding = repository.findAll(PageRequest.of(page - 1, PAGE_SIZE, windowSort)).getContent().getLast();
+        position = PersonKeyset.positionOf(preceding, CompiledPersonSort.of(windowSort).getKeys());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+        if (directory != null) {
+            BenchmarkPersons.delete(directory);
+        }
+    }
+
+    @Benchmark
+    public Page<Person> offset() {
+        return repository.findAll(pageable);
+    }
+
+    @Benchmark
+    public Window<Person> keyset() {
+        return repository.findWindow(null, null, windowSort, position, PAGE_SIZE);
+    }
+
+}
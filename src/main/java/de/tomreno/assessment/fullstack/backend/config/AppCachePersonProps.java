@@ -0,0 +1,50 @@
+package de.tomreno.assessment.fullstack.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.person")
+public class AppCachePersonProps {
+
+    /**
+     * Whether the pages, slices and persons read from the repository are cached until a save affects them.
+     */
+    private boolean enabled = true;
+
+    /**
+     * The maximum number of cached results.
+     */
+    private int maximumSize = 10_000;
+
+    /**
+     * The maximum number of persons of all cached results, where a result weighs at least one person. Results of more
+     * persons are not cached.
+     */
+    private long maximumWeight = 500_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+}
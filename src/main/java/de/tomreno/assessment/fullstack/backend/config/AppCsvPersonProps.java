@@ -3,12 +3,132 @@ package de.tomreno.assessment.fullstack.backend.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "app.csv.person")
 public class AppCsvPersonProps {
 
+    /**
+     * Where the CSV repository keeps the person data. Off-heap storage keeps the rows in direct memory, which keeps the
+     * heap small for tens of millions of persons but decodes fields on every access.
+     */
+    public enum Storage {
+        HEAP,
+        OFF_HEAP
+    }
+
+    /**
+     * How saved persons are appended to today's CSV file. Saves append their lines to a buffer, which is written to the
+     * file and forced to the storage device according to the flush and fsync policies. Saves waiting for the same write
+     * are committed by a single write and force.
+     */
+    public static class Append {
+
+        /**
+         * When buffered lines are written or forced: after every save, which waits for it, periodically, once the given
+         * number of bytes is pending, or never. Forcing never leaves it to the operating system, while writing is not
+         * allowed to never happen. Buffered lines are written in any case before the CSV files are parsed, when the
+         * file rolls over to the next day and on shutdown.
+         */
+        public enum Policy {
+            PER_WRITE,
+            INTERVAL,
+            SIZE,
+            NEVER
+        }
+
+        private Policy flushPolicy = Policy.PER_WRITE;
+
+        private Duration flushInterval = Duration.ofMillis(100);
+
+        private int flushSize = 64 * 1024;
+
+        private Policy fsyncPolicy = Policy.NEVER;
+
+        private Duration fsyncInterval = Duration.ofSeconds(1);
+
+        private int fsyncSize = 1024 * 1024;
+
+        public Policy getFlushPolicy() {
+            return flushPolicy;
+        }
+
+        public void setFlushPolicy(Policy flushPolicy) {
+            this.flushPolicy = flushPolicy;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getFlushSize() {
+            return flushSize;
+        }
+
+        public void setFlushSize(int flushSize) {
+            this.flushSize = flushSize;
+        }
+
+        public Policy getFsyncPolicy() {
+            return fsyncPolicy;
+        }
+
+        public void setFsyncPolicy(Policy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+        }
+
+        public Duration getFsyncInterval() {
+            return fsyncInterval;
+        }
+
+        public void setFsyncInterval(Duration fsyncInterval) {
+            this.fsyncInterval = fsyncInterval;
+        }
+
+        public int getFsyncSize() {
+            return fsyncSize;
+        }
+
+        public void setFsyncSize(int fsyncSize) {
+            this.fsyncSize = fsyncSize;
+        }
+
+    }
+
     private String directory;
 
+    private Storage storage = Storage.HEAP;
+
+    /**
+     * The maximum number of CSV files parsed in parallel, which defaults to the number of available processors.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The maximum number of distinct values each CSV parsing thread shares between equal fields while loading, where 0
+     * disables sharing.
+     */
+    private int internPoolSize = 65536;
+
+    /**
+     * Whether the persons parsed from the CSV files are kept in a binary snapshot next to the CSV directory, so a
+     * restart only parses the CSV files changed since.
+     */
+    private boolean snapshotEnabled;
+
+    /**
+     * Whether the CSV directory is watched for changes, so entries appended to the CSV files by other processes are
+     * added without a restart.
+     */
+    private boolean watchEnabled;
+
+    private Append append = new Append();
+
     public String getDirectory() {
         return directory;
     }
@@ -17,4 +137,52 @@ public class AppCsvPersonProps {
         this.directory = directory;
     }
 
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public void setStorage(Storage storage) {
+        this.storage = storage;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getInternPoolSize() {
+        return internPoolSize;
+    }
+
+    public void setInternPoolSize(int internPoolSize) {
+        this.internPoolSize = internPoolSize;
+    }
+
+    public boolean isSnapshotEnabled() {
+        return snapshotEnabled;
+    }
+
+    public void setSnapshotEnabled(boolean snapshotEnabled) {
+        this.snapshotEnabled = snapshotEnabled;
+    }
+
+    public boolean isWatchEnabled() {
+        return watchEnabled;
+    }
+
+    public void setWatchEnabled(boolean watchEnabled) {
+        this.watchEnabled = watchEnabled;
+    }
+
+    public Append getAppend() {
+        return append;
+    }
+
+    public void setAppend(Append append) {
+        this.append = append;
+    }
+
 }
@@ -0,0 +1,40 @@
+package de.tomreno.assessment.fullstack.backend.config;
+
+import de.tomreno.assessment.fullstack.backend.repository.CachingPersonRepository;
+import de.tomreno.assessment.fullstack.backend.repository.PersonCacheMetrics;
+import de.tomreno.assessment.fullstack.backend.repository.PersonCsvRepository;
+import de.tomreno.assessment.fullstack.backend.repository.PersonJpaRepository;
+import de.tomreno.assessment.fullstack.backend.repository.PersonRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Places the {@link CachingPersonRepository} in front of the repository of the configured data source, unless
+ * {@code app.cache.person.enabled} is false.
+ */
+@Configuration
+@ConditionalOnProperty(value = "app.cache.person.enabled", havingValue = "true", matchIfMissing = true)
+public class PersonCacheConfig {
+
+    @Bean
+    @Primary
+    public CachingPersonRepository cachingPersonRepository(ObjectProvider<PersonCsvRepository> personCsvRepository,
+                                                           ObjectProvider<PersonJpaRepository> personJpaRepository,
+                                                           AppCachePersonProps personCacheProps) {
+        PersonRepository delegate = personCsvRepository.getIfAvailable();
+        if (delegate == null) {
+            delegate = personJpaRepository.getObject();
+        }
+        return new CachingPersonRepository(delegate, personCacheProps.getMaximumSize(),
+                personCacheProps.getMaximumWeight());
+    }
+
+    @Bean
+    public PersonCacheMetrics personCacheMetrics(CachingPersonRepository cachingPersonRepository) {
+        return new PersonCacheMetrics(cachingPersonRepository);
+    }
+
+}
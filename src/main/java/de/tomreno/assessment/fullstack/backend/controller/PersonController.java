@@ -1,23 +1,45 @@
 package de.tomreno.assessment.fullstack.backend.controller;
 
 import de.tomreno.assessment.fullstack.backend.domain.ColorDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonCursor;
 import de.tomreno.assessment.fullstack.backend.domain.person.PersonDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonImportReport;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonLineFormat;
 import de.tomreno.assessment.fullstack.backend.domain.person.PersonSaveDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonSliceDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonWindowDto;
 import de.tomreno.assessment.fullstack.backend.service.PersonService;
 import jakarta.validation.Valid;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping(PersonController.PATH)
 public class PersonController {
 
     static final String PATH = "persons";
+    static final String TEXT_CSV_VALUE = "text/csv";
+    static final String EXPORT_FILENAME = "persons";
 
     private final PersonService personService;
 
@@ -25,7 +47,7 @@ public class PersonController {
         this.personService = personService;
     }
 
-    @GetMapping(params = {"!search"})
+    @GetMapping(params = {"!search", "!cursor"})
     Page<PersonDto> getAll(@PageableDefault Pageable pageable) {
         return personService.retrieveAllPersons(pageable);
     }
@@ -35,7 +57,7 @@ public class PersonController {
         return personService.retrievePersonsByColor(color, pageable);
     }
 
-    @GetMapping(params = {"search"})
+    @GetMapping(params = {"search", "!cursor"})
     Page<PersonDto> getAllBySearch(
             @RequestParam("search") String search,
             @RequestParam(name = "color", required = false) ColorDto color,
@@ -44,6 +66,40 @@ public class PersonController {
         return personService.retrievePersonsBySearch(search, color, pageable);
     }
 
+    /**
+     * Returns a page of persons, optionally only those matching the search term and color, which tells whether a next
+     * page exists instead of counting all matching persons.
+     */
+    @GetMapping("slice")
+    PersonSliceDto getSlice(
+            @RequestParam(name = "search", required = false) String search,
+            @RequestParam(name = "color", required = false) ColorDto color,
+            @PageableDefault Pageable pageable
+    ) {
+        Slice<PersonDto> slice = personService.retrievePersonSlice(search, color, pageable);
+        return new PersonSliceDto(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
+
+    /**
+     * Returns a window of persons, optionally only those matching the search term and color. An empty cursor requests
+     * the first window, sorted like a page, and every window returns the cursor of the next one. The cursor carries the
+     * sort but not the filters, so the following windows have to pass the same search term and color.
+     */
+    @GetMapping(params = {"cursor"})
+    PersonWindowDto getWindow(
+            @RequestParam(name = "search", required = false) String search,
+            @RequestParam(name = "color", required = false) ColorDto color,
+            @RequestParam("cursor") String cursor,
+            @PageableDefault Pageable pageable
+    ) {
+        try {
+            PersonCursor position = cursor.isEmpty() ? null : PersonCursor.valueOf(cursor);
+            return personService.retrievePersonWindow(search, color, position, pageable);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
     @GetMapping("{id}")
     ResponseEntity<PersonDto> getById(@PathVariable long id) {
         return ResponseEntity.of(personService.retrievePersonById(id));
@@ -56,4 +112,42 @@ public class PersonController {
         return ResponseEntity.created(location).body(savedPerson);
     }
 
+    /**
+     * Imports the persons of a CSV or NDJSON body with one person per line, reading the body while saving the persons.
+     * The body is decoded with the charset of the content type, or UTF-8 by default.
+     */
+    @PostMapping(path = "import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    PersonImportReport postImport(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body)
+            throws IOException {
+        PersonLineFormat format = contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? PersonLineFormat.NDJSON
+                : PersonLineFormat.CSV;
+        Charset charset = Optional.ofNullable(contentType.getCharset()).orElse(StandardCharsets.UTF_8);
+        return personService.importPersons(format, new InputStreamReader(body, charset));
+    }
+
+    /**
+     * Exports all persons, optionally only those matching the search term and color, with one person per line. The
+     * lines are JSON if the accept header names NDJSON, and CSV otherwise. The body is written while the persons are
+     * read, after the handler has returned, so its size is not limited by the memory.
+     */
+    @GetMapping(path = "export", produces = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    ResponseEntity<StreamingResponseBody> getExport(
+            @RequestParam(name = "search", required = false) String search,
+            @RequestParam(name = "color", required = false) ColorDto color,
+            @RequestHeader(name = HttpHeaders.ACCEPT, defaultValue = TEXT_CSV_VALUE) List<MediaType> accept
+    ) {
+        boolean ndjson = accept.stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        PersonLineFormat format = ndjson ? PersonLineFormat.NDJSON : PersonLineFormat.CSV;
+        MediaType contentType = new MediaType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.valueOf(TEXT_CSV_VALUE),
+                StandardCharsets.UTF_8);
+        ContentDisposition contentDisposition = ContentDisposition.attachment()
+                .filename(ndjson ? EXPORT_FILENAME + ".ndjson" : EXPORT_FILENAME + ".csv")
+                .build();
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString())
+                .body(out -> personService.exportPersons(format, search, color, out));
+    }
+
 }
@@ -0,0 +1,101 @@
+package de.tomreno.assessment.fullstack.backend.domain.person;
+
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The position of a window of persons: the sort of the windows and the values of its keys of the last person of the
+ * previous window, by property name. Clients get it as an opaque URL-safe string, which carries the sort along, so a
+ * cursor always continues the order it was taken from.
+ *
+ * @param keys the key values, which are {@link Long} or {@link String} values
+ */
+public record PersonCursor(Sort sort, Map<String, Object> keys) {
+
+    private static final int VERSION = 1;
+    private static final int LONG_VALUE = 'L';
+    private static final int STRING_VALUE = 'S';
+
+    public PersonCursor {
+        keys = Collections.unmodifiableMap(new LinkedHashMap<>(keys));
+    }
+
+    /**
+     * Decodes a cursor from its string.
+     *
+     * @throws IllegalArgumentException if the string is not a cursor
+     */
+    public static PersonCursor valueOf(String cursor) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readUnsignedByte() != VERSION) {
+                throw new IllegalArgumentException("Unknown cursor version");
+            }
+            int orderCount = in.readUnsignedShort();
+            List<Sort.Order> orders = new ArrayList<>(orderCount);
+            for (int i = 0; i < orderCount; i++) {
+                String property = in.readUTF();
+                orders.add(new Sort.Order(in.readBoolean() ? Sort.Direction.ASC : Sort.Direction.DESC, property));
+            }
+            int keyCount = in.readUnsignedShort();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 0; i < keyCount; i++) {
+                String property = in.readUTF();
+                keys.put(property, switch (in.readUnsignedByte()) {
+                    case LONG_VALUE -> in.readLong();
+                    case STRING_VALUE -> in.readUTF();
+                    default -> throw new IllegalArgumentException("Unknown type of cursor key " + property);
+                });
+            }
+            if (in.read() != -1) {
+                throw new IllegalArgumentException("Unexpected data after cursor");
+            }
+            return new PersonCursor(Sort.by(orders), keys);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated cursor", e);
+        }
+    }
+
+    /**
+     * Encodes this cursor as a URL-safe Base64 string.
+     */
+    @Override
+    public String toString() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            List<Sort.Order> orders = sort.toList();
+            out.writeShort(orders.size());
+            for (Sort.Order order : orders) {
+                out.writeUTF(order.getProperty());
+                out.writeBoolean(order.isAscending());
+            }
+            out.writeShort(keys.size());
+            for (Map.Entry<String, Object> key : keys.entrySet()) {
+                out.writeUTF(key.getKey());
+                if (key.getValue() instanceof Long value) {
+                    out.writeByte(LONG_VALUE);
+                    out.writeLong(value);
+                } else {
+                    out.writeByte(STRING_VALUE);
+                    out.writeUTF(String.valueOf(key.getValue()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+}
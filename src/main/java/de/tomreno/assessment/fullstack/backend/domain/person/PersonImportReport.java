@@ -0,0 +1,80 @@
+package de.tomreno.assessment.fullstack.backend.domain.person;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of an import: how many rows were imported and failed, and why rows failed. Only the errors of the first
+ * {@link #MAX_REPORTED_ERRORS} failed rows are reported, so the report stays small for any number of rows.
+ */
+public class PersonImportReport {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /**
+     * The error of a row, given by its line number starting with 1.
+     */
+    public static class RowError {
+
+        private final long row;
+
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "RowError{" + "row=" + row + ", message='" + message + '\'' + '}';
+        }
+
+    }
+
+    private long imported;
+
+    private long failed;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void addImported(int rows) {
+        imported += rows;
+    }
+
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PersonImportReport{" + "imported=" + imported +
+                ", failed=" + failed +
+                ", errors=" + errors +
+                '}';
+    }
+
+}
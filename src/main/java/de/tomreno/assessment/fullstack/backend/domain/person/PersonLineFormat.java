@@ -0,0 +1,19 @@
+package de.tomreno.assessment.fullstack.backend.domain.person;
+
+/**
+ * The formats persons are imported from and exported to, one person per line.
+ */
+public enum PersonLineFormat {
+
+    /**
+     * Lines like those of the CSV files: lastname, name, zipcode and city separated by a space, and the color id, in
+     * columns separated by {@code ,}, {@code ;} or tabs.
+     */
+    CSV,
+
+    /**
+     * Lines holding a JSON object like the body of a single save.
+     */
+    NDJSON
+
+}
@@ -0,0 +1,51 @@
+package de.tomreno.assessment.fullstack.backend.domain.person;
+
+import java.util.List;
+
+/**
+ * A page of persons that tells whether a next page exists instead of the total number of persons, which is not
+ * counted.
+ */
+public class PersonSliceDto {
+
+    private final List<PersonDto> content;
+
+    private final int number;
+
+    private final int size;
+
+    private final boolean hasNext;
+
+    public PersonSliceDto(List<PersonDto> content, int number, int size, boolean hasNext) {
+        this.content = content;
+        this.number = number;
+        this.size = size;
+        this.hasNext = hasNext;
+    }
+
+    public List<PersonDto> getContent() {
+        return content;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public String toString() {
+        return "PersonSliceDto{" + "content=" + content +
+                ", number=" + number +
+                ", size=" + size +
+                ", hasNext=" + hasNext +
+                '}';
+    }
+
+}
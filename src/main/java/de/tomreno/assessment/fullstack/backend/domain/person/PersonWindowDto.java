@@ -0,0 +1,37 @@
+package de.tomreno.assessment.fullstack.backend.domain.person;
+
+import java.util.List;
+
+/**
+ * A window of persons and the cursor of the next window, which is null after the last window. Unlike a page, a window
+ * knows neither its number nor the total number of persons.
+ */
+public class PersonWindowDto {
+
+    private final List<PersonDto> content;
+
+    private final String nextCursor;
+
+    public PersonWindowDto(List<PersonDto> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<PersonDto> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return content.size();
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "PersonWindowDto{" + "content=" + content + ", nextCursor='" + nextCursor + '\'' + '}';
+    }
+
+}
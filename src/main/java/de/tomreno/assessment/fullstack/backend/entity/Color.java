@@ -12,6 +12,14 @@ public enum Color {
     TURQUOISE(6, "türkis"),
     WHITE(7, "weiß");
 
+    private static final Color[] BY_ID = new Color[values().length + 1];
+
+    static {
+        for (Color color : values()) {
+            BY_ID[color.id] = color;
+        }
+    }
+
     private final int id;
     private final String name;
 
@@ -29,8 +37,10 @@ public enum Color {
     }
 
     public static Color fromId(int id) {
-        return Stream.of(values()).filter(c -> c.getId() == id).findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Color id " + id + " does not exist"));
+        if (id < 0 || id >= BY_ID.length || BY_ID[id] == null) {
+            throw new IllegalArgumentException("Color id " + id + " does not exist");
+        }
+        return BY_ID[id];
     }
 
     public static Color fromName(String name) {
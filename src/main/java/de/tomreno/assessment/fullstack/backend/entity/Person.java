@@ -1,13 +1,29 @@
 package de.tomreno.assessment.fullstack.backend.entity;
 
 import jakarta.persistence.*;
-import org.springframework.data.domain.Sort;
 
 import java.util.Objects;
 
+/**
+ * A person. Besides as managed entities, the repository of the database reads persons through {@link #ROW_MAPPING}
+ * as plain objects, which are not tracked by the persistence context.
+ */
 @Entity
+@SqlResultSetMapping(name = Person.ROW_MAPPING, classes = @ConstructorResult(targetClass = Person.class, columns = {
+        @ColumnResult(name = "id", type = Long.class),
+        @ColumnResult(name = "name", type = String.class),
+        @ColumnResult(name = "lastname", type = String.class),
+        @ColumnResult(name = "zipcode", type = String.class),
+        @ColumnResult(name = "city", type = String.class),
+        @ColumnResult(name = "color", type = Color.class)
+}))
 public class Person {
 
+    /**
+     * The mapping of native query rows holding all columns of a person to unmanaged persons.
+     */
+    public static final String ROW_MAPPING = "PersonRow";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "personSeq")
     @SequenceGenerator(name = "personSeq", sequenceName = "person_seq", allocationSize = 1)
@@ -31,6 +47,15 @@ public class Person {
     public Person() {
     }
 
+    public Person(Long id, String name, String lastname, String zipcode, String city, Color color) {
+        this.id = id;
+        this.name = name;
+        this.lastname = lastname;
+        this.zipcode = zipcode;
+        this.city = city;
+        this.color = color;
+    }
+
     public Long getId() {
         return id;
     }
@@ -79,28 +104,6 @@ public class Person {
         this.color = color;
     }
 
-    public int compareWith(Person other, Sort.Order order) {
-        return switch (order.getProperty()) {
-            case "id" -> order.getDirection().isAscending() ? this.getId().compareTo(other.getId()) :
-                    other.getId().compareTo(this.getId());
-            case "name" -> order.getDirection().isAscending() ? this.getName().compareToIgnoreCase(other.getName()) :
-                    other.getName().compareToIgnoreCase(this.getName());
-            case "lastname" ->
-                    order.getDirection().isAscending() ? this.getLastname().compareToIgnoreCase(other.getLastname()) :
-                            other.getLastname().compareToIgnoreCase(this.getLastname());
-            case "zipcode" -> order.getDirection().isAscending() ? this.getZipcode().compareTo(other.getZipcode()) :
-                    other.getZipcode().compareTo(this.getZipcode());
-            case "city" -> order.getDirection().isAscending() ? this.getCity().compareToIgnoreCase(other.getCity()) :
-                    other.getCity().compareToIgnoreCase(this.getCity());
-            case "color" -> {
-                String color = this.getColor().getName();
-                yield order.getDirection().isAscending() ? color.compareToIgnoreCase(other.getColor().getName()) :
-                        other.getColor().getName().compareToIgnoreCase(color);
-            }
-            default -> 0;
-        };
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,384 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps.Append.Policy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Appends lines to the CSV file of the current day through a channel that stays open until the day changes, instead
+ * of opening and closing the file for every line.
+ * <p>
+ * Lines are appended to a buffer and written and forced according to the {@link AppCsvPersonProps.Append} policies. A
+ * thread awaiting its line does not write it alone: the first waiting thread writes all buffered lines with a single
+ * write and force, while the threads appending meanwhile wait for that write and then write the lines buffered since
+ * by the next one. This group commit lets a burst of saves share the cost of a write and a force.
+ * <p>
+ * If a write fails, its lines are removed from the file again, and they fail together with all lines appended after
+ * them, which are not written until {@link #discardFailed()} drops them. So the lines in the file are always the lines
+ * appended before the failure followed by those appended after the discard. A failed force only loses durability, as
+ * the lines are in the file, so it is logged instead.
+ */
+final class CsvAppender implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsvAppender.class);
+
+    private static final String FILE_PREFIX = "zzz_persons_";
+    private static final String FILE_SUFFIX = ".csv";
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    /**
+     * The lines after the given sequence number up to and including the last one, which failed because writing the
+     * first of them failed. The range of a failure not discarded yet is open and ends with {@link Long#MAX_VALUE}.
+     */
+    private record FailedLines(long after, long upTo, IOException cause) {
+
+        private boolean contains(long line) {
+            return line > after && line <= upTo;
+        }
+
+    }
+
+    private final Path directory;
+    private final AppCsvPersonProps.Append props;
+    private final Clock clock;
+    private final Supplier<CsvFileTails> tails;
+    private final ScheduledExecutorService timer;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private LocalDate date;
+    private Path file;
+    private FileChannel channel;
+    private boolean writing;
+    private long appendedLines;
+    private long writtenLines;
+    private long forcedLines;
+    private long unforcedBytes;
+    private final List<FailedLines> failedLines = new ArrayList<>();
+
+    /**
+     * Creates an appender to the given directory, which records the written lines in the tails currently returned by
+     * the given supplier.
+     */
+    CsvAppender(Path directory, AppCsvPersonProps.Append props, Clock clock, Supplier<CsvFileTails> tails) {
+        if (props.getFlushPolicy() == Policy.NEVER) {
+            throw new IllegalArgumentException("Buffered CSV lines must be flushed by some policy");
+        }
+        this.directory = directory;
+        this.props = props;
+        this.clock = clock;
+        this.tails = tails;
+        this.timer = props.getFlushPolicy() == Policy.INTERVAL || props.getFsyncPolicy() == Policy.INTERVAL
+                ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "csv-appender");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+        schedule(props.getFlushPolicy(), props.getFlushInterval(), false);
+        schedule(props.getFsyncPolicy(), props.getFsyncInterval(), true);
+    }
+
+    /**
+     * Returns the file lines appended at the given time are written to.
+     */
+    static Path fileOf(Path directory, LocalDate date) {
+        return directory.resolve(FILE_PREFIX + date + FILE_SUFFIX);
+    }
+
+    /**
+     * Buffers the given line, followed by a line separator, for the file of the current day, and returns its sequence
+     * number to await it by.
+     */
+    long append(String line) throws IOException {
+        return append(List.of(line));
+    }
+
+    /**
+     * Buffers the given lines like {@link #append(String)}, all of them at once, so they are written by the same write
+     * and either all or none of them fail, and returns the sequence number of the last one.
+     */
+    long append(List<String> lines) throws IOException {
+        byte[] bytes = lines.stream()
+                .map(line -> line + System.lineSeparator())
+                .collect(Collectors.joining())
+                .getBytes(Charset.defaultCharset());
+        lock.lock();
+        try {
+            LocalDate today = LocalDate.now(clock);
+            if (!today.equals(date)) {
+                rollOver(today);
+            }
+            if (buffer.remaining() < bytes.length) {
+                buffer = grow(buffer, bytes.length);
+            }
+            buffer.put(bytes);
+            appendedLines += lines.size();
+            return appendedLines;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the line of the given sequence number has been written, if the flush policy writes per line or
+     * enough bytes are pending, and forced, if the fsync policy forces per line or enough bytes are unforced.
+     *
+     * @throws IOException if writing the line failed, or writing a line appended before it and not discarded since
+     */
+    void await(long line) throws IOException {
+        lock.lock();
+        try {
+            while (true) {
+                for (FailedLines failed : failedLines) {
+                    if (failed.contains(line)) {
+                        throw new IOException("Failed to write appended CSV lines", failed.cause());
+                    }
+                }
+                boolean write = writtenLines < line && (props.getFlushPolicy() == Policy.PER_WRITE
+                        || props.getFlushPolicy() == Policy.SIZE && buffer.position() >= props.getFlushSize());
+                boolean force = forcedLines < line && (props.getFsyncPolicy() == Policy.PER_WRITE
+                        || props.getFsyncPolicy() == Policy.SIZE
+                        && unforcedBytes + buffer.position() >= props.getFsyncSize());
+                if (!write && !force) {
+                    return;
+                }
+                if (writing) {
+                    written.awaitUninterruptibly();
+                } else {
+                    writeBuffered(force);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits like {@link #await(long)} for all lines appended so far.
+     */
+    void awaitAppended() throws IOException {
+        long line;
+        lock.lock();
+        try {
+            line = appendedLines;
+        } finally {
+            lock.unlock();
+        }
+        await(line);
+    }
+
+    /**
+     * Returns the sequence number of the last appended line.
+     */
+    long appended() {
+        lock.lock();
+        try {
+            return appendedLines;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tells whether a write failed whose lines and the lines appended since have not been discarded yet.
+     */
+    boolean hasFailed() {
+        lock.lock();
+        try {
+            return isFailing();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the lines appended since a write failed, which keep failing when awaited, so that the lines appended from
+     * now on are written again.
+     *
+     * @return whether there were failed lines to drop
+     */
+    boolean discardFailed() {
+        lock.lock();
+        try {
+            awaitWriting();
+            if (!isFailing()) {
+                return false;
+            }
+            FailedLines failed = failedLines.removeLast();
+            failedLines.add(new FailedLines(failed.after(), appendedLines, failed.cause()));
+            buffer.clear();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes all buffered lines, and forces them if the fsync policy forces at all.
+     *
+     * @throws IOException if writing the lines failed
+     */
+    void flush() throws IOException {
+        flush(props.getFsyncPolicy() != Policy.NEVER);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        lock.lock();
+        try {
+            awaitWriting();
+            try {
+                writeBuffered(props.getFsyncPolicy() != Policy.NEVER);
+            } finally {
+                closeChannel();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush(boolean force) throws IOException {
+        lock.lock();
+        try {
+            awaitWriting();
+            if (buffer.position() > 0 || force && forcedLines < writtenLines) {
+                writeBuffered(force);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes all buffered lines to the channel and optionally forces them, releasing the lock meanwhile so that further
+     * lines can be buffered. Must be called with the lock held and no other write in progress. If the write fails, the
+     * lines and all lines appended after them fail until they are discarded, and no lines are written meanwhile.
+     */
+    private void writeBuffered(boolean force) throws IOException {
+        boolean failing = isFailing();
+        ByteBuffer bytes = failing ? EMPTY : buffer.flip();
+        if (!failing) {
+            buffer = spare.clear();
+            spare = bytes;
+        }
+        long lines = failing ? writtenLines : appendedLines;
+        writing = true;
+        IOException failed = null;
+        lock.unlock();
+        try {
+            try {
+                if (bytes.hasRemaining()) {
+                    if (channel == null) {
+                        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                StandardOpenOption.WRITE);
+                    }
+                    tails.get().append(file, channel, bytes);
+                }
+            } catch (IOException e) {
+                failed = e;
+            }
+            if (failed == null && force && channel != null) {
+                try {
+                    channel.force(false);
+                } catch (IOException e) {
+                    LOG.error("Failed to force appended CSV lines, which were written nevertheless", e);
+                }
+            }
+        } finally {
+            lock.lock();
+            writing = false;
+            written.signalAll();
+        }
+        if (failed != null) {
+            failedLines.add(new FailedLines(writtenLines, Long.MAX_VALUE, failed));
+            throw failed;
+        }
+        unforcedBytes += bytes.limit();
+        writtenLines = lines;
+        if (force) {
+            unforcedBytes = 0;
+            forcedLines = lines;
+        }
+    }
+
+    private boolean isFailing() {
+        return !failedLines.isEmpty() && failedLines.getLast().upTo() == Long.MAX_VALUE;
+    }
+
+    /**
+     * Writes the lines buffered for the previous day to its file, closes it and switches to the file of the given day.
+     * The file is created by the first write.
+     */
+    private void rollOver(LocalDate today) throws IOException {
+        awaitWriting();
+        if (date != null) {
+            writeBuffered(props.getFsyncPolicy() != Policy.NEVER);
+            closeChannel();
+        }
+        date = today;
+        file = fileOf(directory, today);
+    }
+
+    private void awaitWriting() {
+        while (writing) {
+            written.awaitUninterruptibly();
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            FileChannel closed = channel;
+            channel = null;
+            closed.close();
+        }
+    }
+
+    private void schedule(Policy policy, Duration interval, boolean force) {
+        if (policy != Policy.INTERVAL) {
+            return;
+        }
+        long millis = Math.max(1, interval.toMillis());
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                flush(force);
+            } catch (IOException | RuntimeException e) {
+                LOG.error("Failed to {} appended CSV lines", force ? "force" : "write", e);
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int required) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(2 * buffer.capacity(), buffer.position() + required));
+        return grown.put(buffer.flip());
+    }
+
+}
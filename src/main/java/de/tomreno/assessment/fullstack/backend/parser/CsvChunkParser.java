@@ -0,0 +1,220 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import de.tomreno.assessment.fullstack.backend.util.StringPool;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static de.tomreno.assessment.fullstack.backend.parser.PersonCsvParser.CSV_COLUMN_COUNT;
+
+/**
+ * Parses a single large UTF-8 CSV file in parallel with the same result as parsing it line by line.
+ * <p>
+ * The file is split into chunks ending at line feeds, so no line and no {@code \r\n} spans two chunks. The chunks are
+ * memory-mapped, decoded and split into their non-empty columns by a {@link CsvTokenizer} in parallel, stopping at the first empty line like the
+ * sequential parse does. As the fields of an entry may span lines, and therefore chunks, entries are then cut out of
+ * the columns of consecutive chunks: the entries starting within a chunk are created by the task of that chunk, reading
+ * the columns of following chunks if needed, and incomplete trailing columns are carried over to the next chunks.
+ * <p>
+ * Chunks are processed in windows of a fixed number of chunks, so only the columns and persons of one window are held
+ * in memory at a time.
+ */
+final class CsvChunkParser {
+
+    private static final int LINE_FEED_SEARCH_SIZE = 8192;
+
+    private final ExecutorService executor;
+    private final int window;
+    private final long chunkSize;
+    private final int internPoolSize;
+
+    /**
+     * @param executor       the executor parsing the chunks
+     * @param window         the number of chunks parsed at a time
+     * @param chunkSize      the minimum number of bytes of a chunk
+     * @param internPoolSize the capacity of the {@link StringPool} of each task creating persons
+     */
+    CsvChunkParser(ExecutorService executor, int window, long chunkSize, int internPoolSize) {
+        this.executor = executor;
+        this.window = window;
+        this.chunkSize = chunkSize;
+        this.internPoolSize = internPoolSize;
+    }
+
+    /**
+     * Parses the given number of bytes of the given file, passing the persons to the consumer with consecutive ids
+     * starting with the given one, and returns the next id.
+     */
+    long parse(Path file, long size, long firstId, Consumer<? super Person> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Long> bounds = chunkBounds(channel, size);
+            CsvColumns carry = new CsvColumns();
+            long nextId = firstId;
+            for (int first = 0; first < bounds.size() - 1; first += window) {
+                List<Future<Chunk>> tokenized = new ArrayList<>();
+                for (int chunk = first; chunk < Math.min(first + window, bounds.size() - 1); chunk++) {
+                    long start = bounds.get(chunk);
+                    long end = bounds.get(chunk + 1);
+                    tokenized.add(executor.submit(() -> tokenize(channel, start, end)));
+                }
+                List<CsvColumns> parts = new ArrayList<>();
+                parts.add(carry);
+                boolean stopped = false;
+                for (Future<Chunk> future : tokenized) {
+                    Chunk chunk = PersonCsvParser.await(future);
+                    parts.add(chunk.columns());
+                    if (chunk.stopped()) {
+                        stopped = true;
+                        break;
+                    }
+                }
+                for (Person person : createPersons(parts)) {
+                    person.setId(nextId++);
+                    consumer.accept(person);
+                }
+                if (stopped) {
+                    break;
+                }
+                carry = trailingColumns(parts);
+            }
+            return nextId;
+        }
+    }
+
+    /**
+     * The non-empty columns of a chunk's lines, and whether the chunk contains an empty line ending the file.
+     */
+    private record Chunk(CsvColumns columns, boolean stopped) {
+    }
+
+    /**
+     * Returns the offsets the chunks of the given number of bytes start at, followed by that number. Every chunk but
+     * the last ends right after a line feed.
+     */
+    private List<Long> chunkBounds(FileChannel channel, long size) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(LINE_FEED_SEARCH_SIZE);
+        long position = chunkSize;
+        while (position < size) {
+            long lineFeed = -1;
+            while (lineFeed < 0 && position < size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                for (int i = 0; i < read && lineFeed < 0; i++) {
+                    if (buffer.get(i) == '\n') {
+                        lineFeed = position + i;
+                    }
+                }
+                position += Math.max(read, 0);
+            }
+            if (lineFeed < 0 || lineFeed + 1 >= size) {
+                break;
+            }
+            bounds.add(lineFeed + 1);
+            position = lineFeed + 1 + chunkSize;
+        }
+        bounds.add(size);
+        return bounds;
+    }
+
+    /**
+     * Splits the lines of a chunk into their non-empty columns like the sequential parse. Lines end at {@code \n},
+     * {@code \r} or {@code \r\n}, and the first empty line ends the chunk and the file.
+     */
+    private static Chunk tokenize(FileChannel channel, long start, long end) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        CharBuffer chars = StandardCharsets.UTF_8.decode(buffer);
+        CsvTokenizer tokenizer = new CsvTokenizer(chars.array(), chars.limit());
+        CsvColumns columns = new CsvColumns();
+        while (tokenizer.next(columns)) {
+            // collects all columns of the chunk
+        }
+        return new Chunk(columns, tokenizer.endedAtEmptyLine());
+    }
+
+    /**
+     * Creates the persons of all complete entries of the given consecutive parts of columns in parallel. The task of
+     * each part creates the entries starting within it, and the persons come out in the order of the entries.
+     */
+    private List<Person> createPersons(List<CsvColumns> parts) throws IOException {
+        int[] offsets = offsetsOf(parts);
+        int entries = offsets[parts.size()] / CSV_COLUMN_COUNT;
+        List<Future<List<Person>>> created = new ArrayList<>();
+        for (int part = 0; part < parts.size(); part++) {
+            int firstEntry = (offsets[part] + CSV_COLUMN_COUNT - 1) / CSV_COLUMN_COUNT;
+            int lastEntry = Math.min(entries, (offsets[part + 1] + CSV_COLUMN_COUNT - 1) / CSV_COLUMN_COUNT);
+            if (firstEntry < lastEntry) {
+                int startPart = part;
+                created.add(executor.submit(() -> createPersons(parts, offsets, startPart, firstEntry, lastEntry,
+                        new StringPool(internPoolSize))));
+            }
+        }
+        List<Person> persons = new ArrayList<>();
+        for (Future<List<Person>> future : created) {
+            persons.addAll(PersonCsvParser.await(future));
+        }
+        return persons;
+    }
+
+    private static List<Person> createPersons(List<CsvColumns> parts, int[] offsets, int startPart, int firstEntry,
+                                              int lastEntry, StringPool pool) {
+        List<Person> persons = new ArrayList<>();
+        CsvColumns fields = new CsvColumns();
+        int part = startPart;
+        for (int column = firstEntry * CSV_COLUMN_COUNT; column < lastEntry * CSV_COLUMN_COUNT; column++) {
+            while (column >= offsets[part + 1]) {
+                part++;
+            }
+            fields.add(parts.get(part), column - offsets[part]);
+            if (fields.size() == CSV_COLUMN_COUNT) {
+                Person person = PersonCsvParser.parsePerson(0, fields, pool);
+                if (person != null) {
+                    persons.add(person);
+                }
+                fields.clear();
+            }
+        }
+        return persons;
+    }
+
+    /**
+     * Returns the columns following the last complete entry of the given parts.
+     */
+    private static CsvColumns trailingColumns(List<CsvColumns> parts) {
+        int[] offsets = offsetsOf(parts);
+        int total = offsets[parts.size()];
+        CsvColumns trailing = new CsvColumns();
+        int part = 0;
+        for (int column = total / CSV_COLUMN_COUNT * CSV_COLUMN_COUNT; column < total; column++) {
+            while (column >= offsets[part + 1]) {
+                part++;
+            }
+            trailing.add(parts.get(part), column - offsets[part]);
+        }
+        return trailing;
+    }
+
+    /**
+     * Returns the index of the first column of every part within all parts, followed by the number of all columns.
+     */
+    private static int[] offsetsOf(List<CsvColumns> parts) {
+        int[] offsets = new int[parts.size() + 1];
+        for (int part = 0; part < parts.size(); part++) {
+            offsets[part + 1] = offsets[part] + parts.get(part).size();
+        }
+        return offsets;
+    }
+
+}
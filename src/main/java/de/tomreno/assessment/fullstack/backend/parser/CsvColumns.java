@@ -0,0 +1,81 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of CSV columns. The characters of all columns are copied into one growing array, so collecting
+ * columns does not create a string per column, and the buffer can be cleared and refilled without allocating.
+ */
+final class CsvColumns {
+
+    private char[] chars = new char[64];
+    private int length;
+    private int[] ends = new int[8];
+    private int size;
+
+    /**
+     * Appends the characters of the given range as the next column.
+     */
+    void add(char[] source, int start, int end) {
+        int columnLength = end - start;
+        if (length + columnLength > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(length + columnLength, 2 * chars.length));
+        }
+        System.arraycopy(source, start, chars, length, columnLength);
+        length += columnLength;
+        if (size == ends.length) {
+            ends = Arrays.copyOf(ends, 2 * size);
+        }
+        ends[size++] = length;
+    }
+
+    /**
+     * Appends a column of another buffer as the next column.
+     */
+    void add(CsvColumns source, int column) {
+        add(source.chars, source.start(column), source.end(column));
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        length = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the characters of all columns. The array is replaced when the buffer grows, so it is only valid until the
+     * next column is added.
+     */
+    char[] chars() {
+        return chars;
+    }
+
+    int start(int column) {
+        return column == 0 ? 0 : ends[column - 1];
+    }
+
+    int end(int column) {
+        return ends[column];
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given character within the given column, or -1 if there is
+     * none. The index refers to {@link #chars()}.
+     */
+    int indexOf(int column, char c) {
+        for (int i = start(column); i < end(column); i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    String toString(int column) {
+        return new String(chars, start(column), end(column) - start(column));
+    }
+
+}
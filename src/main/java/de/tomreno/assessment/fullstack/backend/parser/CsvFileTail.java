@@ -0,0 +1,196 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import de.tomreno.assessment.fullstack.backend.util.StringPool;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import static de.tomreno.assessment.fullstack.backend.parser.PersonCsvParser.CSV_COLUMN_COUNT;
+
+/**
+ * The parse state of a CSV file that grows by appended lines: the offset up to which the file has been parsed, and the
+ * fields of an incomplete entry at that offset, which are completed by the appended lines.
+ * <p>
+ * The file is only expected to grow. It is considered modified otherwise if it was replaced, is shorter than the offset
+ * or the bytes right before the offset changed. Lines written by saves are recorded as own ranges, which are skipped
+ * when parsing the appended lines, as their persons are already held in memory.
+ */
+final class CsvFileTail {
+
+    private static final int ANCHOR_SIZE = 4096;
+
+    private final Path file;
+    private final Object fileKey;
+    private long offset;
+    private int anchor;
+    private CsvColumns pending;
+    private boolean stopped;
+    private final List<FileRangeInputStream.Range> ownRanges = new ArrayList<>();
+
+    private CsvFileTail(Path file, Object fileKey, long offset, int anchor) {
+        this.file = file;
+        this.fileKey = fileKey;
+        this.offset = offset;
+        this.anchor = anchor;
+    }
+
+    /**
+     * Creates the tail of a file whose first bytes up to the given offset have been parsed completely.
+     */
+    static CsvFileTail parsed(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            return new CsvFileTail(file, fileKeyOf(file), offset, anchorOf(channel, offset));
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Tells whether the file still starts with the bytes parsed so far.
+     */
+    boolean isUnchanged(FileChannel channel) throws IOException {
+        return Objects.equals(fileKey, fileKeyOf(file)) && channel.size() >= offset &&
+                anchorOf(channel, offset) == anchor;
+    }
+
+    /**
+     * Tells whether complete lines not written by saves were appended since the last call of
+     * {@link #readAppended(FileChannel, long, StringPool, Consumer)}.
+     */
+    boolean hasAppendedLines(FileChannel channel) throws IOException {
+        long end = endOfLastLine(channel, offset, channel.size());
+        long position = offset;
+        for (FileRangeInputStream.Range range : ownRanges) {
+            if (range.end() <= position) {
+                continue;
+            }
+            if (range.start() > position) {
+                return true;
+            }
+            position = range.end();
+        }
+        return position < end;
+    }
+
+    /**
+     * Records the given range of bytes as written by a save, whose persons must not be parsed again.
+     */
+    void written(FileChannel channel, long start, long end) throws IOException {
+        derivePending(channel);
+        ownRanges.add(new FileRangeInputStream.Range(start, end));
+    }
+
+    /**
+     * Parses the complete lines appended since the last call, passing the persons of the completed entries to the
+     * consumer with consecutive ids starting with the given one, and returns the next id. Lines written by saves are
+     * skipped, and so are all lines following an empty line, as parsing the whole file would end there.
+     */
+    long readAppended(FileChannel channel, long firstId, StringPool pool, Consumer<? super Person> consumer)
+            throws IOException {
+        long end = endOfLastLine(channel, offset, channel.size());
+        if (end == offset) {
+            return firstId;
+        }
+        derivePending(channel);
+        long nextId = firstId;
+        if (!stopped) {
+            long start = offset > 0 && byteAt(channel, offset - 1) == '\r' && byteAt(channel, offset) == '\n'
+                    ? offset + 1
+                    : offset;
+            try (Reader reader = new InputStreamReader(new FileRangeInputStream(channel, start, end, ownRanges))) {
+                CsvTokenizer tokenizer = new CsvTokenizer(reader);
+                nextId = PersonCsvParser.readFromCsv(tokenizer, pending, firstId, pool, consumer);
+                stopped = tokenizer.endedAtEmptyLine();
+            }
+        }
+        offset = end;
+        anchor = anchorOf(channel, end);
+        ownRanges.removeIf(range -> range.end() <= end);
+        return nextId;
+    }
+
+    /**
+     * Determines the fields of the incomplete entry at the offset, unless done before, by splitting the parsed bytes
+     * into columns again.
+     */
+    private void derivePending(FileChannel channel) throws IOException {
+        if (pending != null) {
+            return;
+        }
+        pending = new CsvColumns();
+        if (offset == 0) {
+            return;
+        }
+        try (Reader reader = new InputStreamReader(new FileRangeInputStream(channel, 0, offset, ownRanges))) {
+            CsvTokenizer tokenizer = new CsvTokenizer(reader);
+            while (tokenizer.next(pending)) {
+                if (pending.size() == CSV_COLUMN_COUNT) {
+                    pending.clear();
+                }
+            }
+            stopped = tokenizer.endedAtEmptyLine();
+        }
+    }
+
+    /**
+     * Returns the position after the last line end within the given range, or its start if it contains none.
+     */
+    private static long endOfLastLine(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ANCHOR_SIZE);
+        for (long blockEnd = end; blockEnd > start; blockEnd -= buffer.capacity()) {
+            long blockStart = Math.max(start, blockEnd - buffer.capacity());
+            buffer.clear().limit((int) (blockEnd - blockStart));
+            readFully(channel, buffer, blockStart);
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n' || buffer.get(i) == '\r') {
+                    return blockStart + i + 1;
+                }
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Returns a checksum of the bytes right before the given offset, which detects files rewritten in place.
+     */
+    private static int anchorOf(FileChannel channel, long offset) throws IOException {
+        long start = Math.max(0, offset - ANCHOR_SIZE);
+        ByteBuffer buffer = ByteBuffer.allocate((int) (offset - start));
+        readFully(channel, buffer, start);
+        CRC32C checksum = new CRC32C();
+        checksum.update(buffer.flip());
+        return (int) checksum.getValue();
+    }
+
+    private static int byteAt(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        return channel.read(buffer, position) == 1 ? buffer.get(0) : -1;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+    }
+
+    private static Object fileKeyOf(Path file) throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+}
@@ -0,0 +1,131 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import de.tomreno.assessment.fullstack.backend.util.StringPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The {@link CsvFileTail}s of the CSV files of the last complete parse. While the CSV files are parsed, the parsed
+ * size of every local file is recorded, possibly by several threads. The tails are created once the parse is complete,
+ * and are then only accessed under the lock of this object.
+ */
+final class CsvFileTails {
+
+    private final Map<Path, Long> parsedSizes = new ConcurrentHashMap<>();
+    private final Map<Path, CsvFileTail> tails = new HashMap<>();
+
+    /**
+     * Records that the given file has been parsed up to the given size.
+     */
+    void parsed(Path file, long size) {
+        parsedSizes.put(file, size);
+    }
+
+    /**
+     * Creates the tails of all parsed files.
+     */
+    synchronized void completeParse() throws IOException {
+        for (Map.Entry<Path, Long> parsed : parsedSizes.entrySet()) {
+            try {
+                tails.put(parsed.getKey(), CsvFileTail.parsed(parsed.getKey(), parsed.getValue()));
+            } catch (NoSuchFileException e) {
+                // deleted since, which a reload takes into account
+            }
+        }
+        parsedSizes.clear();
+    }
+
+    /**
+     * Appends the given bytes to the given file through the given channel, which must be readable, and records them as
+     * written by a save. Appending and recording happen at once, so the bytes are never mistaken for appended by another
+     * process. A file not parsed before is tracked from its start. If the write fails, the file is truncated to its
+     * previous size again, so no fragment of the bytes merges with the lines appended later.
+     */
+    synchronized void append(Path file, FileChannel channel, ByteBuffer bytes) throws IOException {
+        CsvFileTail tail = tails.get(file);
+        if (tail == null) {
+            tail = CsvFileTail.parsed(file, 0);
+            tails.put(file, tail);
+        }
+        long start = channel.size();
+        long position = start;
+        try {
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+        } catch (IOException e) {
+            try {
+                channel.truncate(start);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        tail.written(channel, start, position);
+    }
+
+    /**
+     * Parses the lines appended to the given files in the order of their names, or returns false without passing any
+     * person if one of the files was modified otherwise or deleted, or if lines were appended to a file whose name sorts
+     * before the name of the last tracked file.
+     *
+     * @see PersonCsvParser#readAppended(Collection, long, Consumer)
+     */
+    synchronized boolean readAppended(Collection<Path> files, long firstId, StringPool pool,
+                                      Consumer<? super Person> consumer) throws IOException {
+        Path last = tails.keySet().stream().max(Comparator.naturalOrder()).orElse(null);
+        List<FileChannel> channels = new ArrayList<>();
+        try {
+            List<CsvFileTail> appended = new ArrayList<>();
+            for (Path file : new TreeSet<>(files)) {
+                CsvFileTail tail = tails.get(file);
+                FileChannel channel;
+                try {
+                    channel = FileChannel.open(file);
+                } catch (NoSuchFileException e) {
+                    if (tail != null) {
+                        return false;
+                    }
+                    continue;
+                }
+                channels.add(channel);
+                if (tail == null) {
+                    tail = CsvFileTail.parsed(file, 0);
+                } else if (!tail.isUnchanged(channel)) {
+                    return false;
+                }
+                if (last != null && file.compareTo(last) < 0 && tail.hasAppendedLines(channel)) {
+                    // the persons of a re-read would precede those of later files, shifting their ids
+                    return false;
+                }
+                appended.add(tail);
+            }
+            long nextId = firstId;
+            for (int i = 0; i < appended.size(); i++) {
+                CsvFileTail tail = appended.get(i);
+                nextId = tail.readAppended(channels.get(i), nextId, pool, consumer);
+                tails.put(tail.file(), tail);
+            }
+            return true;
+        } finally {
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,399 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A binary snapshot of the persons parsed from the CSV files of a directory, kept in a file next to the directory, so a
+ * restart only parses the CSV files that changed since the snapshot was written.
+ * <p>
+ * The snapshot holds a segment of persons per CSV file, fingerprinted by the file's name, size, modification time and
+ * CRC32C checksum. A segment is only used if the fingerprint of the current file equals it, and the snapshot is only
+ * rewritten if a file changed, was added or was removed. An unreadable snapshot is ignored, and a failure to write it
+ * only skips writing it, so the snapshot never prevents loading the CSV files.
+ * <p>
+ * The file consists of a header, the segments, an index of the segments and a footer with the offset of the index and
+ * a checksum of the whole file. Within a segment, every string is written once and then referenced by its code, which
+ * keeps the file compact and shares equal strings of the persons read back.
+ */
+final class CsvSnapshot {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsvSnapshot.class);
+
+    private static final int MAGIC = 0x50435356;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int FOOTER_SIZE = 12;
+    private static final String FILE_SUFFIX = ".snapshot";
+    private static final int CHECKSUM_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Identifies the content of a CSV file.
+     */
+    record Fingerprint(String name, long size, long modified, int checksum) {
+    }
+
+    private final Path file;
+    private final Fingerprint[] fingerprints;
+    private final Segment[] segments;
+    private final boolean stale;
+
+    private CsvSnapshot(Path file, Fingerprint[] fingerprints, Segment[] segments, boolean stale) {
+        this.file = file;
+        this.fingerprints = fingerprints;
+        this.segments = segments;
+        this.stale = stale;
+    }
+
+    /**
+     * Returns a snapshot providing no segments and writing nothing.
+     */
+    static CsvSnapshot disabled(int files) {
+        return new CsvSnapshot(null, new Fingerprint[files], new Segment[files], false);
+    }
+
+    /**
+     * Reads the snapshot of the given directory and matches its segments with the given CSV files of the directory. The
+     * snapshot is disabled if a CSV file is not a local file.
+     */
+    static CsvSnapshot open(Path directory, Resource[] csvResources) throws IOException {
+        Fingerprint[] fingerprints = new Fingerprint[csvResources.length];
+        for (int i = 0; i < csvResources.length; i++) {
+            if (!csvResources[i].isFile()) {
+                return disabled(csvResources.length);
+            }
+            fingerprints[i] = fingerprint(csvResources[i].getFile().toPath());
+        }
+        Path file = directory.resolveSibling(directory.getFileName() + FILE_SUFFIX);
+        Map<String, Segment> cached = read(file);
+        Segment[] segments = new Segment[csvResources.length];
+        int matched = 0;
+        for (int i = 0; i < fingerprints.length; i++) {
+            Segment segment = cached.get(fingerprints[i].name());
+            if (segment != null && segment.fingerprint().equals(fingerprints[i])) {
+                segments[i] = segment;
+                matched++;
+            }
+        }
+        LOG.info("Found {} of {} CSV files unchanged in snapshot {}", matched, csvResources.length, file);
+        return new CsvSnapshot(file, fingerprints, segments,
+                matched < csvResources.length || cached.size() > csvResources.length);
+    }
+
+    /**
+     * Returns the segment of the CSV file with the given index, or null if the file must be parsed.
+     */
+    Segment segment(int file) {
+        return segments[file];
+    }
+
+    /**
+     * Returns a writer of a new snapshot, which writes nothing if the snapshot is disabled or up-to-date.
+     */
+    Writer writer() {
+        return new Writer(stale ? file : null);
+    }
+
+    static Fingerprint fingerprint(Path csvFile) throws IOException {
+        CRC32C checksum = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_SIZE);
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(csvFile, StandardOpenOption.READ)) {
+            while (channel.read(buffer.clear()) >= 0) {
+                size += buffer.flip().remaining();
+                checksum.update(buffer);
+            }
+        }
+        return new Fingerprint(csvFile.getFileName().toString(), size,
+                Files.getLastModifiedTime(csvFile).toMillis(), (int) checksum.getValue());
+    }
+
+    /**
+     * Returns the segments of the snapshot file by the names of their CSV files, or no segments if the file does not
+     * exist or is not a valid snapshot.
+     */
+    private static Map<String, Segment> read(Path file) {
+        Map<String, Segment> segments = new HashMap<>();
+        if (!Files.isRegularFile(file)) {
+            return segments;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            int limit = buffer.limit();
+            if (limit < HEADER_SIZE + FOOTER_SIZE || buffer.getInt(0) != MAGIC ||
+                    buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(limit - 4) != MAGIC) {
+                throw new IOException("Not a snapshot of format version " + FORMAT_VERSION);
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.array(), 0, limit - 8);
+            if ((int) checksum.getValue() != buffer.getInt(limit - 8)) {
+                throw new IOException("Checksum mismatch");
+            }
+            buffer.position(buffer.getInt(limit - FOOTER_SIZE));
+            int count = readVarInt(buffer);
+            for (int i = 0; i < count; i++) {
+                Fingerprint fingerprint = new Fingerprint(readString(buffer), buffer.getLong(), buffer.getLong(),
+                        buffer.getInt());
+                int persons = buffer.getInt();
+                int offset = buffer.getInt();
+                int length = buffer.getInt();
+                segments.put(fingerprint.name(), new Segment(fingerprint, persons, buffer.slice(offset, length)));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Ignoring unreadable CSV snapshot {}: {}", file, e.toString());
+            segments.clear();
+        }
+        return segments;
+    }
+
+    /**
+     * The persons of a single CSV file.
+     */
+    record Segment(Fingerprint fingerprint, int persons, ByteBuffer payload) {
+
+        /**
+         * Returns the persons of the segment without ids. It may be called by several threads at a time.
+         */
+        List<Person> read() {
+            ByteBuffer buffer = payload.duplicate();
+            List<String> dictionary = new ArrayList<>();
+            List<Person> result = new ArrayList<>(persons);
+            for (int i = 0; i < persons; i++) {
+                Person person = new Person(0);
+                person.setLastname(readString(buffer, dictionary));
+                person.setName(readString(buffer, dictionary));
+                person.setZipcode(readString(buffer, dictionary));
+                person.setCity(readString(buffer, dictionary));
+                person.setColor(Color.fromId(buffer.get()));
+                result.add(person);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Writes the segments of all CSV files in order to a temporary file, which replaces the snapshot when committed.
+     * Errors are logged and stop writing, but never fail the parse.
+     */
+    static final class Writer implements Closeable {
+
+        private final Path target;
+        private Path temporary;
+        private CRC32C checksum;
+        private DataOutputStream out;
+        private final List<IndexEntry> index = new ArrayList<>();
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private Fingerprint fingerprint;
+        private int offset;
+        private int persons;
+
+        private record IndexEntry(Fingerprint fingerprint, int persons, int offset, int length) {
+        }
+
+        private Writer(Path target) {
+            this.target = target;
+            if (target != null) {
+                try {
+                    temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+                    checksum = new CRC32C();
+                    out = new DataOutputStream(new CheckedOutputStream(
+                            new BufferedOutputStream(Files.newOutputStream(temporary)), checksum));
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+        }
+
+        /**
+         * Starts the segment of the given CSV file of the snapshot and returns a consumer writing the persons passed to
+         * it to the segment before passing them on to the given consumer.
+         */
+        Consumer<Person> beginFile(CsvSnapshot snapshot, int file, Consumer<? super Person> consumer) {
+            if (out == null) {
+                return consumer::accept;
+            }
+            fingerprint = snapshot.fingerprints[file];
+            offset = out.size();
+            persons = 0;
+            dictionary.clear();
+            return person -> {
+                write(person);
+                consumer.accept(person);
+            };
+        }
+
+        void endFile() {
+            if (out != null) {
+                index.add(new IndexEntry(fingerprint, persons, offset, out.size() - offset));
+            }
+        }
+
+        /**
+         * Completes the snapshot and replaces the former one.
+         */
+        void commit() {
+            if (out == null) {
+                return;
+            }
+            try {
+                int indexOffset = out.size();
+                writeVarInt(index.size());
+                for (IndexEntry entry : index) {
+                    writeString(entry.fingerprint().name());
+                    out.writeLong(entry.fingerprint().size());
+                    out.writeLong(entry.fingerprint().modified());
+                    out.writeInt(entry.fingerprint().checksum());
+                    out.writeInt(entry.persons());
+                    out.writeInt(entry.offset());
+                    out.writeInt(entry.length());
+                }
+                out.writeInt(indexOffset);
+                out.writeInt((int) checksum.getValue());
+                out.writeInt(MAGIC);
+                checkSize();
+                out.close();
+                out = null;
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                temporary = null;
+                LOG.info("Wrote CSV snapshot {} of {} CSV files", target, index.size());
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    LOG.debug("Failed to close CSV snapshot", e);
+                }
+                out = null;
+            }
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    LOG.warn("Failed to delete temporary CSV snapshot {}", temporary, e);
+                }
+                temporary = null;
+            }
+        }
+
+        private void write(Person person) {
+            if (out == null) {
+                return;
+            }
+            try {
+                writeReference(person.getLastname());
+                writeReference(person.getName());
+                writeReference(person.getZipcode());
+                writeReference(person.getCity());
+                out.writeByte(person.getColor().getId());
+                persons++;
+                checkSize();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * Writes the code of the given string within the segment, followed by the string itself if it is new.
+         */
+        private void writeReference(String value) throws IOException {
+            Integer code = dictionary.get(value);
+            if (code != null) {
+                writeVarInt(code);
+                return;
+            }
+            writeVarInt(dictionary.size());
+            dictionary.put(value, dictionary.size());
+            writeString(value);
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte(value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+
+        /**
+         * Fails if the snapshot reaches the size up to which {@link DataOutputStream#size()} counts.
+         */
+        private void checkSize() throws IOException {
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IOException("CSV snapshot exceeds " + Integer.MAX_VALUE + " bytes");
+            }
+        }
+
+        private void fail(IOException e) {
+            LOG.warn("Failed to write CSV snapshot {}", target, e);
+            close();
+        }
+
+    }
+
+    private static String readString(ByteBuffer buffer, List<String> dictionary) {
+        int code = readVarInt(buffer);
+        if (code < dictionary.size()) {
+            return dictionary.get(code);
+        }
+        String value = readString(buffer);
+        dictionary.add(value);
+        return value;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits CSV text into its non-empty columns without creating strings. It yields the same columns as reading the text
+ * with {@link java.io.BufferedReader#readLine()}, stripping each line, splitting it at {@code ,}, {@code ;} and tabs and
+ * stripping each column, and it ends at the first line that is empty after stripping.
+ * <p>
+ * Lines end at {@code \n}, {@code \r} or {@code \r\n}. Whitespace is stripped as by {@link Character#isWhitespace(char)}.
+ * Text is either read from a reader into a buffer that grows to the longest line, or given as a complete array.
+ */
+final class CsvTokenizer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private char[] chars;
+    private int limit;
+    private int position;
+    private int lineEnd = -1;
+    private boolean skipLineFeed;
+    private boolean ended;
+    private boolean endedAtEmptyLine;
+
+    CsvTokenizer(Reader reader) {
+        this.reader = reader;
+        this.chars = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Creates a tokenizer of the first {@code length} characters of the given array.
+     */
+    CsvTokenizer(char[] chars, int length) {
+        this.reader = null;
+        this.chars = chars;
+        this.limit = length;
+    }
+
+    /**
+     * Appends the next non-empty column to the given columns, or returns false if the text has ended.
+     */
+    boolean next(CsvColumns columns) throws IOException {
+        while (!ended) {
+            if (lineEnd < 0 && !openLine()) {
+                ended = true;
+                return false;
+            }
+            while (position < lineEnd) {
+                int start = position;
+                int end = start;
+                while (end < lineEnd && !isSeparator(chars[end])) {
+                    end++;
+                }
+                position = end + 1;
+                while (start < end && Character.isWhitespace(chars[start])) {
+                    start++;
+                }
+                while (end > start && Character.isWhitespace(chars[end - 1])) {
+                    end--;
+                }
+                if (start < end) {
+                    columns.add(chars, start, end);
+                    return true;
+                }
+            }
+            closeLine();
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether the text has ended at an empty line rather than at its end.
+     */
+    boolean endedAtEmptyLine() {
+        return endedAtEmptyLine;
+    }
+
+    /**
+     * Finds the end of the line starting at the current position, reading more text if needed. Returns false if there
+     * is no further line or the line is empty after stripping.
+     */
+    private boolean openLine() throws IOException {
+        if (skipLineFeed) {
+            if (position == limit && !fill()) {
+                return false;
+            }
+            if (chars[position] == '\n') {
+                position++;
+            }
+            skipLineFeed = false;
+        }
+        int scanned = 0;
+        while (true) {
+            int i = position + scanned;
+            while (i < limit && chars[i] != '\n' && chars[i] != '\r') {
+                i++;
+            }
+            if (i < limit) {
+                lineEnd = i;
+                break;
+            }
+            scanned = limit - position;
+            if (!fill()) {
+                if (position == limit) {
+                    return false;
+                }
+                lineEnd = limit;
+                break;
+            }
+        }
+        for (int i = position; i < lineEnd; i++) {
+            if (!Character.isWhitespace(chars[i])) {
+                return true;
+            }
+        }
+        endedAtEmptyLine = true;
+        return false;
+    }
+
+    private void closeLine() {
+        if (lineEnd < limit) {
+            skipLineFeed = chars[lineEnd] == '\r';
+            position = lineEnd + 1;
+        } else {
+            position = lineEnd;
+        }
+        lineEnd = -1;
+    }
+
+    /**
+     * Moves the unread text to the start of the buffer, grows the buffer if it is full and reads more text into it.
+     * Returns false at the end of the text.
+     */
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(chars, position, chars, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == chars.length) {
+            chars = Arrays.copyOf(chars, 2 * chars.length);
+        }
+        int read = reader.read(chars, limit, chars.length - limit);
+        if (read < 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ';' || c == '\t';
+    }
+
+}
@@ -0,0 +1,62 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * Reads a range of bytes of a file, leaving out the given ranges within it. The channel is read at absolute positions,
+ * so its position is not changed, and it is not closed with the stream.
+ */
+final class FileRangeInputStream extends InputStream {
+
+    /**
+     * A range of bytes from {@code start} inclusive to {@code end} exclusive.
+     */
+    record Range(long start, long end) {
+    }
+
+    private final FileChannel channel;
+    private final long end;
+    private final List<Range> excluded;
+    private long position;
+    private int nextExcluded;
+
+    /**
+     * @param excluded the ranges to leave out, ordered by their start
+     */
+    FileRangeInputStream(FileChannel channel, long start, long end, List<Range> excluded) {
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+        this.excluded = excluded;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        while (nextExcluded < excluded.size() && excluded.get(nextExcluded).start() <= position) {
+            position = Math.max(position, excluded.get(nextExcluded++).end());
+        }
+        long limit = nextExcluded < excluded.size() ? Math.min(end, excluded.get(nextExcluded).start()) : end;
+        if (position >= limit) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+        int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, limit - position)), position);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
+    }
+
+}
@@ -3,37 +3,59 @@ package de.tomreno.assessment.fullstack.backend.parser;
 import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
 import de.tomreno.assessment.fullstack.backend.entity.Color;
 import de.tomreno.assessment.fullstack.backend.entity.Person;
-import org.apache.commons.lang3.StringUtils;
+import de.tomreno.assessment.fullstack.backend.util.StringPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Component;
 
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDate;
+import java.time.Clock;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import static de.tomreno.assessment.fullstack.backend.util.StringSanitizer.sanitizeAlphabeticString;
 import static de.tomreno.assessment.fullstack.backend.util.StringSanitizer.sanitizeNumericString;
 
 @Component
-public class PersonCsvParser {
+public class PersonCsvParser implements Closeable {
 
     private static final Logger LOG = LoggerFactory.getLogger(PersonCsvParser.class);
 
-    private static final String CSV_FILE_PATTERN = "/*.csv";
+    private static final String CSV_FILE_EXTENSION = ".csv";
+    private static final String CSV_FILE_PATTERN = "/*" + CSV_FILE_EXTENSION;
     private static final String CSV_SEPARATOR = ",";
-    private static final String CSV_SEPARATOR_PATTERN = "[,;\\t]";
-    private static final int CSV_COLUMN_COUNT = 4;
+    static final int CSV_COLUMN_COUNT = 4;
+
+    /**
+     * The size of the chunks large CSV files are split into, and the minimum size of files split into chunks.
+     */
+    private static final long CHUNK_SIZE = 16L << 20;
+    private static final long MIN_CHUNKED_FILE_SIZE = 2 * CHUNK_SIZE;
 
     private final AppCsvPersonProps personCsvProps;
 
+    private volatile CsvFileTails tails = new CsvFileTails();
+    private volatile CsvAppender appender;
+
     public PersonCsvParser(AppCsvPersonProps personCsvProps) {
         this.personCsvProps = personCsvProps;
     }
@@ -46,68 +68,484 @@ public class PersonCsvParser {
      *
      * @return the list of persons parsed from the CSV files
      * @throws IOException if reading CSV files failed
+     * @see #readFromCsv(Consumer)
      */
     public List<Person> readFromCsv() throws IOException {
+        List<Person> persons = new ArrayList<>();
+        readFromCsv(persons::add);
+        return persons;
+    }
+
+    /**
+     * Parses the person CSV files like {@link #readFromCsv()}, but passes every person to the given consumer as soon as
+     * its entry is complete instead of collecting all persons in a list. The consumer is called on the calling thread
+     * in the order of the entries.
+     * <p>
+     * Several CSV files are parsed in parallel by up to the configured number of threads. Each file is parsed on its
+     * own, and the persons of the files are passed on in the order of the files, so the ids come out exactly as if the
+     * files were parsed one after another. Parsing reads at most two files per thread ahead of the consumer. Files of
+     * at least {@link #MIN_CHUNKED_FILE_SIZE} bytes are split into chunks parsed in parallel by a {@link CsvChunkParser}
+     * instead.
+     * <p>
+     * If the snapshot is enabled, the persons of CSV files unchanged since the last parse are read from the
+     * {@link CsvSnapshot} instead of being parsed, and the snapshot is rewritten if any file changed. Entries appended
+     * by {@link #appendToCsv(Person)} but not written yet are written first.
+     *
+     * @param consumer the consumer of the persons parsed from the CSV files
+     * @throws IOException if reading CSV files failed
+     */
+    public void readFromCsv(Consumer<? super Person> consumer) throws IOException {
+        CsvAppender current = appender;
+        if (current != null) {
+            current.flush();
+        }
         PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
         Resource[] csvResources = resolver.getResources(personCsvProps.getDirectory() + CSV_FILE_PATTERN);
+        CsvSnapshot snapshot = openSnapshot(resolver, csvResources);
 
-        List<Person> persons = new ArrayList<>();
-        for (Resource resource : csvResources) {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream()))) {
-                List<String> fields = new ArrayList<>();
-                String line;
-                while ((line = StringUtils.strip(reader.readLine())) != null && !line.isEmpty()) {
-                    String[] columns = line.split(CSV_SEPARATOR_PATTERN);
-                    for (String column : columns) {
-                        column = StringUtils.strip(column);
-                        if (StringUtils.isEmpty(column)) {
-                            continue;
-                        }
-                        fields.add(column);
-                        if (fields.size() == CSV_COLUMN_COUNT) {
-                            try {
-                                persons.add(createPerson(persons.size() + 1, fields));
-                            } catch (IllegalArgumentException e) {
-                                LOG.warn("Failed to parse CSV entry: {}", e.getMessage());
-                            }
-                            fields.clear();
-                        }
+        CsvFileTails parsedTails = new CsvFileTails();
+        try (CsvSnapshot.Writer writer = snapshot.writer()) {
+            int parallelism = Math.max(1, personCsvProps.getParallelism());
+            if (parallelism == 1 || csvResources.length == 1 && !isChunked(csvResources[0])) {
+                readFromCsv(csvResources, snapshot, writer, parsedTails, consumer);
+            } else {
+                readFromCsv(csvResources, snapshot, writer, parsedTails, parallelism, consumer);
+            }
+            writer.commit();
+        }
+        parsedTails.completeParse();
+        tails = parsedTails;
+    }
+
+    /**
+     * Parses the CSV files one after another, taking the persons of unchanged files from the snapshot.
+     */
+    private void readFromCsv(Resource[] csvResources, CsvSnapshot snapshot, CsvSnapshot.Writer writer,
+                             CsvFileTails parsedTails, Consumer<? super Person> consumer) throws IOException {
+        StringPool pool = new StringPool(personCsvProps.getInternPoolSize());
+        long nextId = 1;
+        for (int file = 0; file < csvResources.length; file++) {
+            Consumer<Person> fileConsumer = writer.beginFile(snapshot, file, consumer);
+            CsvSnapshot.Segment segment = snapshot.segment(file);
+            nextId = segment != null
+                    ? accept(readSegment(segment, csvResources[file], parsedTails), nextId, fileConsumer)
+                    : readFromCsv(csvResources[file], nextId, pool, parsedTails, fileConsumer);
+            writer.endFile();
+        }
+    }
+
+    /**
+     * Parses the CSV files in parallel, taking the persons of unchanged files from the snapshot, which are read in
+     * parallel as well.
+     */
+    private void readFromCsv(Resource[] csvResources, CsvSnapshot snapshot, CsvSnapshot.Writer writer,
+                             CsvFileTails parsedTails, int parallelism, Consumer<? super Person> consumer)
+            throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            CsvChunkParser chunkParser = new CsvChunkParser(executor, 2 * parallelism, CHUNK_SIZE,
+                    personCsvProps.getInternPoolSize());
+            Deque<ParsedFile> parsedFiles = new ArrayDeque<>();
+            long nextId = 1;
+            for (int file = 0; file < csvResources.length; file++) {
+                Resource resource = csvResources[file];
+                CsvSnapshot.Segment segment = snapshot.segment(file);
+                if (segment == null && isChunked(resource)) {
+                    while (!parsedFiles.isEmpty()) {
+                        nextId = parsedFiles.removeFirst().accept(snapshot, writer, nextId, consumer);
                     }
+                    Consumer<Person> fileConsumer = writer.beginFile(snapshot, file, consumer);
+                    Path path = resource.getFile().toPath();
+                    long size = Files.size(path);
+                    nextId = chunkParser.parse(path, size, nextId, fileConsumer);
+                    parsedTails.parsed(path, size);
+                    writer.endFile();
+                    continue;
                 }
+                if (parsedFiles.size() == 2 * parallelism) {
+                    nextId = parsedFiles.removeFirst().accept(snapshot, writer, nextId, consumer);
+                }
+                parsedFiles.add(new ParsedFile(file, executor.submit(() -> {
+                    if (segment != null) {
+                        return readSegment(segment, resource, parsedTails);
+                    }
+                    List<Person> persons = new ArrayList<>();
+                    readFromCsv(resource, 1, new StringPool(personCsvProps.getInternPoolSize()), parsedTails,
+                            persons::add);
+                    return persons;
+                })));
+            }
+            while (!parsedFiles.isEmpty()) {
+                nextId = parsedFiles.removeFirst().accept(snapshot, writer, nextId, consumer);
             }
+        } finally {
+            executor.shutdownNow();
         }
-        return persons;
     }
 
-    public void saveToCsv(Person person) throws IOException, URISyntaxException {
-        String filename = personCsvProps.getDirectory() + "/zzz_persons_" + LocalDate.now() + ".csv";
-        Path csvFilePath = Path.of(new URI(filename));
-        if (!Files.exists(csvFilePath)) {
-            Files.createFile(csvFilePath);
+    /**
+     * The persons of a CSV file being parsed or read from the snapshot by another thread.
+     */
+    private record ParsedFile(int file, Future<List<Person>> persons) {
+
+        /**
+         * Passes the persons to the consumer and the snapshot writer with consecutive ids starting with the given one,
+         * and returns the next id.
+         */
+        long accept(CsvSnapshot snapshot, CsvSnapshot.Writer writer, long firstId, Consumer<? super Person> consumer)
+                throws IOException {
+            List<Person> parsed = await(persons);
+            long nextId = PersonCsvParser.accept(parsed, firstId, writer.beginFile(snapshot, file, consumer));
+            writer.endFile();
+            return nextId;
         }
-        StringBuilder sb = new StringBuilder();
-        sb.append(person.getLastname()).append(CSV_SEPARATOR);
-        sb.append(person.getName()).append(CSV_SEPARATOR);
-        sb.append(person.getZipcode()).append(" ").append(person.getCity()).append(CSV_SEPARATOR);
-        sb.append(person.getColor().getId());
-        try (
-                FileWriter fw = new FileWriter(csvFilePath.toFile(), true);
-                BufferedWriter bw = new BufferedWriter(fw);
-                PrintWriter writer = new PrintWriter(bw)
-        ) {
-            writer.println(sb);
+
+    }
+
+    /**
+     * Opens the snapshot of the CSV directory if it is enabled and the directory is a local directory.
+     */
+    private CsvSnapshot openSnapshot(ResourceLoader resourceLoader, Resource[] csvResources) throws IOException {
+        if (personCsvProps.isSnapshotEnabled()) {
+            Resource directory = resourceLoader.getResource(personCsvProps.getDirectory());
+            if (directory.isFile() && directory.getFile().isDirectory()) {
+                return CsvSnapshot.open(directory.getFile().toPath(), csvResources);
+            }
         }
+        return CsvSnapshot.disabled(csvResources.length);
     }
 
-    private static Person createPerson(long id, List<String> fields) {
+    /**
+     * Returns the persons of the given snapshot segment, recording the size of the CSV file they were parsed from.
+     */
+    private static List<Person> readSegment(CsvSnapshot.Segment segment, Resource resource, CsvFileTails parsedTails)
+            throws IOException {
+        parsedTails.parsed(resource.getFile().toPath(), segment.fingerprint().size());
+        return segment.read();
+    }
+
+    /**
+     * Parses a single CSV file, assigning consecutive ids starting with the given one, and returns the next id. The
+     * parsed size of a local file is recorded in the given tails.
+     */
+    private static long readFromCsv(Resource resource, long firstId, StringPool pool, CsvFileTails parsedTails,
+                                    Consumer<? super Person> consumer) throws IOException {
+        if (!resource.isFile()) {
+            try (Reader reader = new InputStreamReader(resource.getInputStream())) {
+                return readFromCsv(new CsvTokenizer(reader), new CsvColumns(), firstId, pool, consumer);
+            }
+        }
+        Path file = resource.getFile().toPath();
+        try (FileChannel channel = FileChannel.open(file)) {
+            long size = channel.size();
+            long nextId;
+            try (Reader reader = new InputStreamReader(new FileRangeInputStream(channel, 0, size, List.of()))) {
+                nextId = readFromCsv(new CsvTokenizer(reader), new CsvColumns(), firstId, pool, consumer);
+            }
+            parsedTails.parsed(file, size);
+            return nextId;
+        }
+    }
+
+    /**
+     * Cuts the columns of the tokenizer into entries of the given fields, which may already hold the first fields of an
+     * entry, passing the persons of the valid entries to the consumer with consecutive ids starting with the given one.
+     * Returns the next id, leaving the fields of an incomplete last entry in the given fields.
+     */
+    static long readFromCsv(CsvTokenizer tokenizer, CsvColumns fields, long firstId, StringPool pool,
+                            Consumer<? super Person> consumer) throws IOException {
+        long nextId = firstId;
+        while (tokenizer.next(fields)) {
+            if (fields.size() == CSV_COLUMN_COUNT) {
+                Person person = parsePerson(nextId, fields, pool);
+                if (person != null) {
+                    nextId++;
+                    consumer.accept(person);
+                }
+                fields.clear();
+            }
+        }
+        return nextId;
+    }
+
+    /**
+     * Parses the complete lines appended to the given CSV files since they were parsed by the last call of
+     * {@link #readFromCsv(Consumer)} or of this method, in the order of the file names. New CSV files are parsed from
+     * their start. Entries continue the incomplete last entry of a file, and lines written by
+     * {@link #saveToCsv(Person)} are skipped, as their persons are already known.
+     * <p>
+     * Files are only expected to grow. If a file was modified otherwise or deleted, no person is passed to the consumer
+     * and false is returned, and the CSV files have to be parsed again completely. The same applies if lines were
+     * appended to a file, or a file was created, whose name sorts before the name of the last parsed file, as the ids of
+     * its persons would then differ from the ids a complete parse assigns.
+     *
+     * @param files    the changed files, which may include files other than CSV files
+     * @param firstId  the id of the first person passed to the consumer
+     * @param consumer the consumer of the persons of the appended entries
+     * @return whether the appended lines were parsed, or false if the CSV files have to be parsed again
+     * @throws IOException if reading a CSV file failed
+     */
+    public boolean readAppended(Collection<Path> files, long firstId, Consumer<? super Person> consumer)
+            throws IOException {
+        List<Path> csvFiles = files.stream()
+                .filter(file -> file.getFileName().toString().endsWith(CSV_FILE_EXTENSION))
+                .toList();
+        return tails.readAppended(csvFiles, firstId, new StringPool(personCsvProps.getInternPoolSize()), consumer);
+    }
+
+    /**
+     * Returns the CSV directory if it is a local directory, which can be watched for changes.
+     *
+     * @throws IOException if resolving the directory failed
+     */
+    public Optional<Path> csvDirectory() throws IOException {
+        Resource directory = new PathMatchingResourcePatternResolver().getResource(personCsvProps.getDirectory());
+        return directory.isFile() && directory.getFile().isDirectory()
+                ? Optional.of(directory.getFile().toPath())
+                : Optional.empty();
+    }
+
+    /**
+     * Tells whether the resource is a local file large enough to be parsed in chunks. Chunks are split at line feeds,
+     * which requires an ASCII compatible charset like UTF-8.
+     */
+    private static boolean isChunked(Resource resource) throws IOException {
+        return resource.isFile() && resource.contentLength() >= MIN_CHUNKED_FILE_SIZE &&
+                Charset.defaultCharset().equals(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Passes the persons of a file to the consumer with consecutive ids starting with the given one, and returns the
+     * next id.
+     */
+    static long accept(List<Person> persons, long firstId, Consumer<? super Person> consumer) {
+        long nextId = firstId;
+        for (Person person : persons) {
+            person.setId(nextId++);
+            consumer.accept(person);
+        }
+        return nextId;
+    }
+
+    static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while parsing CSV files");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to parse CSV file", e.getCause());
+        }
+    }
+
+    /**
+     * Appends the given person as a CSV entry to today's CSV file and waits until it is written and forced as the
+     * append policies require.
+     *
+     * @param person the person to save, having its id already assigned
+     * @return the person as it is read back from the CSV entry
+     * @throws IllegalArgumentException if the person cannot be written as a single valid CSV entry
+     * @throws IOException if writing the CSV file failed
+     * @throws URISyntaxException if the CSV directory is not a valid URI
+     * @see #appendToCsv(Person)
+     */
+    public Person saveToCsv(Person person) throws IOException, URISyntaxException {
+        Person savedPerson = appendToCsv(person);
+        awaitAppended();
+        return savedPerson;
+    }
+
+    /**
+     * Appends the given person as a CSV entry to today's CSV file without waiting for it to be written, which
+     * {@link #awaitAppended()} does. The entry is validated beforehand by parsing it the same way {@link #readFromCsv()}
+     * would, so the returned person equals the one a later re-read would produce for this entry, including the person's
+     * id. Entries are written in the order they are appended, and the file rolls over to the next day's file at
+     * midnight.
+     *
+     * @param person the person to save, having its id already assigned
+     * @return the person as it is read back from the CSV entry
+     * @throws IllegalArgumentException if the person cannot be written as a single valid CSV entry
+     * @throws IOException if writing the entries buffered for the previous day failed
+     * @throws URISyntaxException if the CSV directory is not a valid URI
+     */
+    public Person appendToCsv(Person person) throws IOException, URISyntaxException {
+        return appendAllToCsv(List.of(person)).getFirst();
+    }
+
+    /**
+     * Appends the given persons like {@link #appendToCsv(Person)}, but validates all of them before appending any, so
+     * either all or none of them are appended.
+     *
+     * @param persons the persons to save, having their ids already assigned
+     * @return the persons as they are read back from the CSV entries
+     * @throws IllegalArgumentException if a person cannot be written as a single valid CSV entry
+     * @throws IOException if writing the entries buffered for the previous day failed
+     * @throws URISyntaxException if the CSV directory is not a valid URI
+     */
+    public List<Person> appendAllToCsv(List<Person> persons) throws IOException, URISyntaxException {
+        List<String> lines = new ArrayList<>(persons.size());
+        List<Person> savedPersons = new ArrayList<>(persons.size());
+        for (Person person : persons) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(person.getLastname()).append(CSV_SEPARATOR);
+            sb.append(person.getName()).append(CSV_SEPARATOR);
+            sb.append(person.getZipcode()).append(" ").append(person.getCity()).append(CSV_SEPARATOR);
+            sb.append(person.getColor().getId());
+            savedPersons.add(readBack(person.getId(), sb.toString()));
+            lines.add(sb.toString());
+        }
+        appender().append(lines);
+        return savedPersons;
+    }
+
+    /**
+     * Returns the number of entries appended so far, which is the sequence number of the last one.
+     */
+    public long appendedEntries() {
+        CsvAppender current = appender;
+        return current == null ? 0 : current.appended();
+    }
+
+    /**
+     * Waits until the entries appended so far are written and forced as the append policies require. Concurrent
+     * callers share a single write and force of all entries appended until then.
+     *
+     * @throws IOException if writing an awaited entry failed, which is then missing from the CSV file
+     */
+    public void awaitAppended() throws IOException {
+        CsvAppender current = appender;
+        if (current != null) {
+            current.awaitAppended();
+        }
+    }
+
+    /**
+     * Waits like {@link #awaitAppended()} for the entry of the given sequence number only, as returned by
+     * {@link #appendedEntries()} right after appending it.
+     *
+     * @throws IOException if writing the entry failed, which is then missing from the CSV file. Once writing entries
+     *                     failed, all entries appended since fail as well until {@link #discardFailedAppends()}.
+     */
+    public void awaitAppended(long entry) throws IOException {
+        CsvAppender current = appender;
+        if (current != null) {
+            current.await(entry);
+        }
+    }
+
+    /**
+     * Tells whether writing appended entries failed, whose persons then have to be discarded by parsing the CSV files
+     * again before {@link #discardFailedAppends()}.
+     */
+    public boolean hasFailedAppends() {
+        CsvAppender current = appender;
+        return current != null && current.hasFailed();
+    }
+
+    /**
+     * Drops the entries appended since writing entries failed, which are not in the CSV file, so that entries appended
+     * from now on are written again. Must not be called concurrently with appending.
+     *
+     * @return whether there were failed entries to drop
+     */
+    public boolean discardFailedAppends() {
+        CsvAppender current = appender;
+        return current != null && current.discardFailed();
+    }
+
+    /**
+     * Writes the buffered entries and closes today's CSV file.
+     */
+    @Override
+    public void close() throws IOException {
+        CsvAppender current = appender;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private synchronized CsvAppender appender() throws URISyntaxException {
+        if (appender == null) {
+            appender = new CsvAppender(Path.of(new URI(personCsvProps.getDirectory())), personCsvProps.getAppend(),
+                    Clock.systemDefaultZone(), () -> tails);
+        }
+        return appender;
+    }
+
+    private static Person readBack(long id, String line) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(line.toCharArray(), line.length());
+        CsvColumns fields = new CsvColumns();
+        while (tokenizer.next(fields)) {
+            if (fields.size() > CSV_COLUMN_COUNT) {
+                break;
+            }
+        }
+        if (fields.size() != CSV_COLUMN_COUNT || fields.indexOf(2, ' ') < 0) {
+            throw new IllegalArgumentException("Person cannot be written as a single CSV entry: " + line);
+        }
+        return createPerson(id, fields, new StringPool(0));
+    }
+
+    /**
+     * Returns the person of a complete CSV entry, or null if the entry is invalid.
+     */
+    static Person parsePerson(long id, CsvColumns fields, StringPool pool) {
+        try {
+            return createPerson(id, fields, pool);
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Failed to parse CSV entry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Creates the person of the four columns of a CSV entry. Only the sanitized fields become strings, which are shared
+     * with equal fields of former entries through the given pool.
+     *
+     * @throws IllegalArgumentException if zipcode and city are not separated by a space, or the color is invalid
+     */
+    private static Person createPerson(long id, CsvColumns fields, StringPool pool) {
+        char[] chars = fields.chars();
+        int zipcodeAndCityStart = fields.start(2);
+        int zipcodeAndCityEnd = fields.end(2);
+        int space = fields.indexOf(2, ' ');
+        if (space < 0) {
+            throw new IllegalArgumentException("Zipcode and city are not separated by a space: " + fields.toString(2));
+        }
         Person person = new Person(id);
-        person.setLastname(sanitizeAlphabeticString(fields.get(0)));
-        person.setName(sanitizeAlphabeticString(fields.get(1)));
-        String[] zipcodeAndStreet = fields.get(2).split(" ", 2);
-        person.setZipcode(sanitizeNumericString(zipcodeAndStreet[0]));
-        person.setCity(sanitizeAlphabeticString(zipcodeAndStreet[1]));
-        person.setColor(Color.fromId(Integer.parseInt(sanitizeNumericString(fields.get(3)))));
+        person.setLastname(sanitizeAlphabeticString(chars, fields.start(0), fields.end(0), pool));
+        person.setName(sanitizeAlphabeticString(chars, fields.start(1), fields.end(1), pool));
+        person.setZipcode(sanitizeNumericString(chars, zipcodeAndCityStart, space, pool));
+        person.setCity(sanitizeAlphabeticString(chars, space + 1, zipcodeAndCityEnd, pool));
+        person.setColor(Color.fromId(parseDigits(chars, fields.start(3), fields.end(3))));
         return person;
     }
 
+    /**
+     * Parses the digits within the given characters as a number, ignoring all other characters.
+     *
+     * @throws NumberFormatException if there are no digits or the number exceeds the int range
+     */
+    private static int parseDigits(char[] chars, int start, int end) {
+        long number = -1;
+        for (int i = start; i < end; i++) {
+            if (chars[i] >= '0' && chars[i] <= '9') {
+                number = Math.max(number, 0) * 10 + chars[i] - '0';
+                if (number > Integer.MAX_VALUE) {
+                    throw new NumberFormatException("Number out of range: " + new String(chars, start, end - start));
+                }
+            }
+        }
+        if (number < 0) {
+            throw new NumberFormatException("No digits: " + new String(chars, start, end - start));
+        }
+        return (int) number;
+    }
+
 }
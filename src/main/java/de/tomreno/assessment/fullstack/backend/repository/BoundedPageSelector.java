@@ -0,0 +1,109 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.function.IntFunction;
+
+/**
+ * Selects a single page out of an unsorted sequence of rows without sorting the whole sequence. Only the first
+ * {@code offset + pageSize} rows in sort order are kept in a bounded max-heap while the total number of rows is
+ * counted, so a page costs O(n log k) comparisons and O(k) memory instead of O(n log n) and O(n).
+ */
+final class BoundedPageSelector {
+
+    private static final int INITIAL_HEAP_CAPACITY = 1024;
+
+    /**
+     * Selects the page of the given pageable out of the given unsorted rows in the order of the given comparator, and
+     * counts all rows as the total of the page. The first {@code offset + pageSize} rows in sort order are kept in a
+     * primitive max-heap, so the first page costs about one comparison per row, and only the rows of the returned page
+     * are materialized. Unpaged requests sort and materialize all rows.
+     */
+    static <T> Page<T> selectRows(PrimitiveIterator.OfInt rows, IntArrays.IntComparator comparator, Pageable pageable,
+                                  IntFunction<T> materializer) {
+        if (!pageable.isPaged()) {
+            int[] all = new int[INITIAL_HEAP_CAPACITY];
+            int count = 0;
+            while (rows.hasNext()) {
+                if (count == all.length) {
+                    all = Arrays.copyOf(all, count * 2);
+                }
+                all[count++] = rows.nextInt();
+            }
+            IntArrays.sort(all, 0, count, comparator);
+            return new PageImpl<>(materialize(all, 0, count, materializer), pageable, count);
+        }
+
+        long offset = pageable.getOffset();
+        int limit = (int) Math.min(offset + pageable.getPageSize(), Integer.MAX_VALUE - 8);
+        int[] heap = new int[Math.min(limit, INITIAL_HEAP_CAPACITY)];
+        int heapSize = 0;
+        long total = 0;
+        while (rows.hasNext()) {
+            int row = rows.nextInt();
+            total++;
+            if (heapSize < limit) {
+                if (heapSize == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min((long) heapSize * 2, limit));
+                }
+                siftUp(heap, heapSize++, row, comparator);
+            } else if (comparator.compare(row, heap[0]) < 0) {
+                siftDown(heap, heapSize, row, comparator);
+            }
+        }
+
+        IntArrays.sort(heap, 0, heapSize, comparator);
+        int from = (int) Math.min(offset, heapSize);
+        return new PageImpl<>(materialize(heap, from, heapSize, materializer), pageable, total);
+    }
+
+    private static void siftUp(int[] heap, int index, int row, IntArrays.IntComparator comparator) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(heap[parent], row) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    /**
+     * Replaces the greatest row at the root of the heap by the given row and restores the heap order.
+     */
+    private static void siftDown(int[] heap, int size, int row, IntArrays.IntComparator comparator) {
+        int index = 0;
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(row, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private static <T> List<T> materialize(int[] rows, int from, int to, IntFunction<T> materializer) {
+        List<T> content = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            content.add(materializer.apply(rows[i]));
+        }
+        return content;
+    }
+
+    private BoundedPageSelector() {
+    }
+
+}
@@ -0,0 +1,239 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Caches the pages, slices and persons read from another repository in a {@link TinyLfuCache}, bounded by the number
+ * of results and by the number of persons they hold. Results are keyed by the normalized query: pages of all persons,
+ * of a color, of a search and of both are pages of an optional search term and color, the search term is lowercased
+ * like the repositories match it, and unsorted pageables are sorted by id like the repositories sort them.
+ * <p>
+ * Saves remove only the results they may change: the person of the saved id, and the pages and slices whose search
+ * term and color the saved person matches, as their content or total may change. Saves of persons that already have
+ * an id may change any result and clear the cache, like the CSV files being read again. Within a transaction, the
+ * results are removed again once it has completed, as results read meanwhile may not see the saved persons yet. Windows
+ * and exports are passed through. Missing persons are not cached, so looking up many unknown ids does not displace
+ * the cached results.
+ */
+public class CachingPersonRepository implements PersonRepository {
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.ASC, "id");
+
+    private enum Kind {
+        PAGE,
+        SLICE,
+        PERSON
+    }
+
+    /**
+     * The normalized query of a cached result, where the offset of a person query is its id and an unpaged query has a
+     * size of zero.
+     */
+    private record Query(Kind kind, String search, Color color, long offset, int size, Sort sort) {
+
+        static Query person(long id) {
+            return new Query(Kind.PERSON, null, null, id, 0, Sort.unsorted());
+        }
+
+        static Query of(Kind kind, String search, Color color, Pageable pageable) {
+            return new Query(kind, search == null ? null : search.toLowerCase(), color,
+                    pageable.isPaged() ? pageable.getOffset() : 0, pageable.isPaged() ? pageable.getPageSize() : 0,
+                    pageable.getSortOr(DEFAULT_SORT));
+        }
+
+    }
+
+    /**
+     * Saved or appended persons, which tell whether the result of a query may have changed. The colors of the persons
+     * containing a search term are determined once per term, as many cached pages share their term.
+     */
+    private static final class Change {
+
+        private final Set<Long> ids = new HashSet<>();
+        private final Set<Color> colors = EnumSet.noneOf(Color.class);
+        private final List<Person> persons;
+        private final List<String[]> lowercaseValues = new ArrayList<>();
+        private final Map<String, Set<Color>> colorsBySearch = new HashMap<>();
+
+        private Change(List<Person> persons) {
+            this.persons = persons;
+            for (Person person : persons) {
+                ids.add(person.getId());
+                colors.add(person.getColor());
+                lowercaseValues.add(new String[]{lowercase(person.getName()), lowercase(person.getLastname()),
+                        lowercase(person.getZipcode()), lowercase(person.getCity())});
+            }
+        }
+
+        private boolean affects(Query query) {
+            if (query.kind() == Kind.PERSON) {
+                return ids.contains(query.offset());
+            }
+            Set<Color> matching = query.search() == null
+                    ? colors
+                    : colorsBySearch.computeIfAbsent(query.search(), this::colorsContaining);
+            return query.color() == null ? !matching.isEmpty() : matching.contains(query.color());
+        }
+
+        private Set<Color> colorsContaining(String search) {
+            Set<Color> containing = EnumSet.noneOf(Color.class);
+            for (int i = 0; i < persons.size(); i++) {
+                for (String value : lowercaseValues.get(i)) {
+                    if (value != null && value.contains(search)) {
+                        containing.add(persons.get(i).getColor());
+                        break;
+                    }
+                }
+            }
+            return containing;
+        }
+
+        private static String lowercase(String value) {
+            return value == null ? null : value.toLowerCase();
+        }
+
+    }
+
+    private final PersonRepository delegate;
+    private final TinyLfuCache<Query, Object> cache;
+
+    /**
+     * @param maximumSize the maximum number of cached results
+     * @param maximumWeight the maximum number of persons of all cached results, where a result weighs at least one
+     *                      person
+     */
+    public CachingPersonRepository(PersonRepository delegate, int maximumSize, long maximumWeight) {
+        this.delegate = delegate;
+        this.cache = new TinyLfuCache<>(maximumSize, maximumWeight, CachingPersonRepository::weightOf);
+    }
+
+    @Override
+    public Page<Person> findAll(Pageable pageable) {
+        return cached(Query.of(Kind.PAGE, null, null, pageable), () -> delegate.findAll(pageable));
+    }
+
+    @Override
+    public Page<Person> findByColor(Color color, Pageable pageable) {
+        return cached(Query.of(Kind.PAGE, null, color, pageable), () -> delegate.findByColor(color, pageable));
+    }
+
+    @Override
+    public Optional<Person> findById(long id) {
+        return cached(Query.person(id), () -> delegate.findById(id));
+    }
+
+    @Override
+    public Page<Person> findBySearch(String search, Pageable pageable) {
+        return cached(Query.of(Kind.PAGE, search, null, pageable), () -> delegate.findBySearch(search, pageable));
+    }
+
+    @Override
+    public Page<Person> findBySearchAndColor(String search, Color color, Pageable pageable) {
+        return cached(Query.of(Kind.PAGE, search, color, pageable),
+                () -> delegate.findBySearchAndColor(search, color, pageable));
+    }
+
+    @Override
+    public Slice<Person> findSlice(String search, Color color, Pageable pageable) {
+        return cached(Query.of(Kind.SLICE, search, color, pageable),
+                () -> delegate.findSlice(search, color, pageable));
+    }
+
+    @Override
+    public Window<Person> findWindow(String search, Color color, Sort sort, KeysetScrollPosition position, int limit) {
+        return delegate.findWindow(search, color, sort, position, limit);
+    }
+
+    @Override
+    public Person save(Person entity) {
+        boolean update = entity.getId() != null;
+        Person saved = delegate.save(entity);
+        invalidate(update ? null : new Change(List.of(saved)));
+        return saved;
+    }
+
+    @Override
+    public List<Person> saveBatch(List<Person> entities) {
+        boolean update = entities.stream().anyMatch(entity -> entity.getId() != null);
+        List<Person> saved = delegate.saveBatch(entities);
+        invalidate(update ? null : new Change(saved));
+        return saved;
+    }
+
+    @Override
+    public void exportAll(String search, Color color, Consumer<? super Person> action) {
+        delegate.exportAll(search, color, action);
+    }
+
+    @EventListener
+    void onPersonsChanged(PersonsChangedEvent event) {
+        remove(event.appended() == null ? null : new Change(event.appended()));
+    }
+
+    TinyLfuCache<?, ?> cache() {
+        return cache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(Query query, Supplier<T> loader) {
+        Object cached = cache.get(query);
+        if (cached != null) {
+            return (T) cached;
+        }
+        long generation = cache.generation();
+        T loaded = loader.get();
+        if (!(loaded instanceof Optional<?> person) || person.isPresent()) {
+            cache.put(query, loaded, generation);
+        }
+        return loaded;
+    }
+
+    private void invalidate(Change change) {
+        remove(change);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(change);
+                }
+            });
+        }
+    }
+
+    /**
+     * Removes the results the given change may affect, or all results if the change is null.
+     */
+    private void remove(Change change) {
+        if (change == null) {
+            cache.clear();
+        } else {
+            cache.removeIf((query, result) -> change.affects(query));
+        }
+    }
+
+    private static int weightOf(Object result) {
+        return result instanceof Slice<?> slice ? Math.max(1, slice.getNumberOfElements()) : 1;
+    }
+
+}
@@ -0,0 +1,125 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * One bitmap of row positions per {@link Color}. As there are only seven colors, a color filter is answered by
+ * enumerating the set bits of a single bitmap instead of comparing the color of every row.
+ * <p>
+ * Rows are added by a single writer, while readers work on a {@link View} of the rows published so far. Adding a row
+ * only sets a bit beyond the rows of every existing view, so views never observe rows added after them.
+ */
+final class ColorBitmapIndex {
+
+    private static final int INITIAL_WORDS = 16;
+
+    private final long[][] bitmaps = new long[Color.values().length][INITIAL_WORDS];
+    private final int[] cardinalities = new int[Color.values().length];
+
+    void add(int row, Color color) {
+        int ordinal = color.ordinal();
+        int word = row >>> 6;
+        if (word >= bitmaps[ordinal].length) {
+            bitmaps[ordinal] = Arrays.copyOf(bitmaps[ordinal], Math.max(word + 1, bitmaps[ordinal].length * 2));
+        }
+        long bit = 1L << row;
+        if ((bitmaps[ordinal][word] & bit) == 0) {
+            bitmaps[ordinal][word] |= bit;
+            cardinalities[ordinal]++;
+        }
+    }
+
+    /**
+     * Returns a view of all rows below the given size, which must not exceed the number of rows added so far.
+     */
+    View view(int size) {
+        return new View(bitmaps.clone(), cardinalities.clone(), size);
+    }
+
+    static final class View {
+
+        private final long[][] bitmaps;
+        private final int[] cardinalities;
+        private final int size;
+
+        private View(long[][] bitmaps, int[] cardinalities, int size) {
+            this.bitmaps = bitmaps;
+            this.cardinalities = cardinalities;
+            this.size = size;
+        }
+
+        boolean contains(int row, Color color) {
+            long[] bitmap = bitmaps[color.ordinal()];
+            int word = row >>> 6;
+            return row < size && word < bitmap.length && (bitmap[word] & (1L << row)) != 0;
+        }
+
+        int cardinality(Color color) {
+            return cardinalities[color.ordinal()];
+        }
+
+        /**
+         * Returns the rows of the given color in ascending order.
+         */
+        IntStream rows(Color color) {
+            int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED |
+                    Spliterator.NONNULL;
+            Spliterator.OfInt spliterator = Spliterators.spliterator(
+                    new RowIterator(bitmaps[color.ordinal()], size), cardinality(color), characteristics);
+            return StreamSupport.intStream(spliterator, false);
+        }
+
+    }
+
+    private static final class RowIterator implements PrimitiveIterator.OfInt {
+
+        private final long[] bitmap;
+        private final int words;
+        private final int size;
+        private int wordIndex;
+        private long word;
+
+        private RowIterator(long[] bitmap, int size) {
+            this.bitmap = bitmap;
+            this.words = Math.min(bitmap.length, (size + 63) >>> 6);
+            this.size = size;
+            this.word = words > 0 ? maskedWord(0) : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (word == 0) {
+                if (++wordIndex >= words) {
+                    return false;
+                }
+                word = maskedWord(wordIndex);
+            }
+            return true;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int row = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            word &= word - 1;
+            return row;
+        }
+
+        private long maskedWord(int index) {
+            int remaining = size - (index << 6);
+            return remaining >= 64 ? bitmap[index] : bitmap[index] & ((1L << remaining) - 1);
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * The encodings of person properties shared by all {@link PersonColumns} implementations. Zipcodes of up to nine digits
+ * are encoded as their numeric value plus their number of digits to keep leading zeros, and colors as their ordinal.
+ */
+final class ColumnEncoding {
+
+    static final int MAX_NUMERIC_ZIPCODE_LENGTH = 9;
+    static final Color[] COLORS = Color.values();
+
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000,
+            100_000_000, 1_000_000_000};
+    private static final int[] COLOR_RANKS = colorRanks();
+
+    /**
+     * Tells whether the given zipcode can be encoded numerically, which is the case for up to nine digits.
+     */
+    static boolean isNumericZipcode(String zipcode) {
+        if (zipcode.length() > MAX_NUMERIC_ZIPCODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < zipcode.length(); i++) {
+            if (zipcode.charAt(i) < '0' || zipcode.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int zipcodeValue(String numericZipcode) {
+        return numericZipcode.isEmpty() ? 0 : Integer.parseInt(numericZipcode);
+    }
+
+    static String zipcodeOf(int value, int length) {
+        char[] digits = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Compares two numeric zipcodes like {@link String#compareTo(String)} compares their digits. The longer one is cut
+     * down to the length of the shorter one, and if both are equal then, the shorter one comes first.
+     */
+    static int compareZipcodes(int valueA, int lengthA, int valueB, int lengthB) {
+        if (lengthA == lengthB) {
+            return Integer.compare(valueA, valueB);
+        }
+        if (lengthA < lengthB) {
+            int result = Integer.compare(valueA, valueB / POWERS_OF_TEN[lengthB - lengthA]);
+            return result != 0 ? result : -1;
+        }
+        int result = Integer.compare(valueA / POWERS_OF_TEN[lengthA - lengthB], valueB);
+        return result != 0 ? result : 1;
+    }
+
+    /**
+     * Returns the rank of the color with the given ordinal when ordering colors by name ignoring case.
+     */
+    static int colorRank(int ordinal) {
+        return COLOR_RANKS[ordinal];
+    }
+
+    private static int[] colorRanks() {
+        Color[] sorted = Stream.of(COLORS)
+                .sorted(Comparator.comparing(Color::getName, String.CASE_INSENSITIVE_ORDER))
+                .toArray(Color[]::new);
+        int[] ranks = new int[sorted.length];
+        for (int rank = 0; rank < sorted.length; rank++) {
+            ranks[sorted[rank].ordinal()] = rank;
+        }
+        return ranks;
+    }
+
+    private ColumnEncoding() {
+    }
+
+}
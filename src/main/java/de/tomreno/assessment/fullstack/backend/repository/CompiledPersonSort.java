@@ -0,0 +1,116 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link Sort} specification compiled into a single multi-key comparator. The first order is the primary key and
+ * every following order only breaks ties of the previous ones. Unknown and repeated properties are dropped, and the id
+ * is appended as the final tie-breaker in the direction of the last order, so the resulting order is total and a
+ * single-property sort can be read from a presorted index in either direction.
+ * <p>
+ * Compiled sorts are cached per {@link Sort}, as the frontend only ever sends a handful of different specifications.
+ */
+final class CompiledPersonSort {
+
+    private static final int MAX_CACHED_SORTS = 1024;
+    private static final Map<Sort, CompiledPersonSort> CACHE = new ConcurrentHashMap<>();
+
+    record SortKey(PersonProperty property, Sort.Direction direction) {
+
+        Comparator<Person> comparator() {
+            return direction.isAscending() ? property.getComparator() : property.getComparator().reversed();
+        }
+
+        IntArrays.IntComparator comparator(PersonColumns.View columns) {
+            IntArrays.IntComparator ascending = columns.comparator(property);
+            return direction.isAscending() ? ascending : (a, b) -> ascending.compare(b, a);
+        }
+
+    }
+
+    private final List<SortKey> keys;
+    private final Comparator<Person> comparator;
+
+    private CompiledPersonSort(List<SortKey> keys) {
+        this.keys = List.copyOf(keys);
+        Comparator<Person> compiled = keys.getFirst().comparator();
+        for (SortKey key : keys.subList(1, keys.size())) {
+            compiled = compiled.thenComparing(key.comparator());
+        }
+        this.comparator = compiled;
+    }
+
+    static CompiledPersonSort of(Sort sort) {
+        CompiledPersonSort compiled = CACHE.get(sort);
+        if (compiled == null) {
+            compiled = compile(sort);
+            if (CACHE.size() < MAX_CACHED_SORTS) {
+                CACHE.putIfAbsent(sort, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    private static CompiledPersonSort compile(Sort sort) {
+        List<SortKey> keys = new ArrayList<>();
+        Set<PersonProperty> seen = EnumSet.noneOf(PersonProperty.class);
+        for (Sort.Order order : sort) {
+            PersonProperty.fromProperty(order.getProperty())
+                    .filter(seen::add)
+                    .ifPresent(property -> keys.add(new SortKey(property, order.getDirection())));
+        }
+        if (!seen.contains(PersonProperty.ID)) {
+            Sort.Direction direction = keys.isEmpty() ? Sort.Direction.ASC : keys.getLast().direction();
+            keys.add(new SortKey(PersonProperty.ID, direction));
+        }
+        return new CompiledPersonSort(keys);
+    }
+
+    List<SortKey> getKeys() {
+        return keys;
+    }
+
+    Comparator<Person> getComparator() {
+        return comparator;
+    }
+
+    /**
+     * Returns a comparator of rows of the given columns that orders them like {@link #getComparator()} orders their
+     * materialized persons.
+     */
+    IntArrays.IntComparator getComparator(PersonColumns.View columns) {
+        IntArrays.IntComparator[] comparators = keys.stream().map(key -> key.comparator(columns))
+                .toArray(IntArrays.IntComparator[]::new);
+        return (a, b) -> {
+            for (IntArrays.IntComparator comparator : comparators) {
+                int result = comparator.compare(a, b);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Returns the primary key if this sort is fully described by it, which is the case when it is the id or when only an
+     * id tie-breaker in the same direction follows it. Such sorts can be served by a presorted index.
+     */
+    Optional<SortKey> getIndexedKey() {
+        SortKey primary = keys.getFirst();
+        boolean indexed = primary.property() == PersonProperty.ID || keys.size() == 2 &&
+                keys.get(1).direction() == primary.direction();
+        return indexed ? Optional.of(primary) : Optional.empty();
+    }
+
+}
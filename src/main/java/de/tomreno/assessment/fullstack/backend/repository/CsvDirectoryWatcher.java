@@ -0,0 +1,134 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.parser.PersonCsvParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the local CSV directory and passes the changed files to {@link PersonCsvRepository#ingest}, so entries
+ * appended by other processes become visible without a restart. Changes are collected until the directory has been
+ * quiet for a short while, so a file written in several steps is read once. If the watch service lost events, all CSV
+ * files are read again.
+ */
+@Component
+@ConditionalOnExpression("${app.csv.person.watch-enabled:false} and !${app.database.enabled:false}")
+public class CsvDirectoryWatcher implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CsvDirectoryWatcher.class);
+
+    private static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final PersonCsvParser personCsvParser;
+    private final PersonCsvRepository personCsvRepository;
+
+    private volatile WatchService watchService;
+    private volatile Thread thread;
+
+    public CsvDirectoryWatcher(PersonCsvParser personCsvParser, PersonCsvRepository personCsvRepository) {
+        this.personCsvParser = personCsvParser;
+        this.personCsvRepository = personCsvRepository;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (isRunning()) {
+            return;
+        }
+        try {
+            Optional<Path> directory = personCsvParser.csvDirectory();
+            if (directory.isEmpty()) {
+                LOG.info("Not watching the CSV directory, as it is not a local directory");
+                return;
+            }
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.get().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            thread = new Thread(() -> watch(watchService), "csv-directory-watcher");
+            thread.setDaemon(true);
+            thread.start();
+            LOG.info("Watching CSV directory {}", directory.get());
+        } catch (IOException e) {
+            LOG.warn("Failed to watch the CSV directory", e);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!isRunning()) {
+            return;
+        }
+        try {
+            watchService.close();
+            thread.join();
+        } catch (IOException e) {
+            LOG.warn("Failed to stop watching the CSV directory", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            thread = null;
+            watchService = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Set<Path> changed = new HashSet<>();
+                boolean overflow = false;
+                while (key != null) {
+                    Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true;
+                        } else {
+                            changed.add(directory.resolve((Path) event.context()));
+                        }
+                    }
+                    key.reset();
+                    key = service.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                apply(changed, overflow);
+            }
+        } catch (ClosedWatchServiceException e) {
+            // stopped
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void apply(Set<Path> changed, boolean overflow) {
+        try {
+            if (overflow) {
+                LOG.info("Reloading CSV files, as changes of the CSV directory were lost");
+                personCsvRepository.reload();
+            } else {
+                personCsvRepository.ingest(changed);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Failed to apply changes of CSV files {}", changed, e);
+        }
+    }
+
+}
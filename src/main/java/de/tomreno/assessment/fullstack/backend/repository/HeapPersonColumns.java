@@ -0,0 +1,195 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * {@link PersonColumns} stored as one primitive array per property on the heap. Ids are stored as longs and colors as
+ * their ordinal. Names, lastnames and cities are dictionary-encoded, and zipcodes are encoded numerically as described
+ * in {@link ColumnEncoding}, falling back to a dictionary for any other zipcode.
+ */
+final class HeapPersonColumns implements PersonColumns {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final byte DICTIONARY_ZIPCODE = -1;
+
+    private final StringDictionary nameDictionary = new StringDictionary();
+    private final StringDictionary lastnameDictionary = new StringDictionary();
+    private final StringDictionary cityDictionary = new StringDictionary();
+    private final StringDictionary zipcodeDictionary = new StringDictionary();
+
+    private long[] ids;
+    private int[] names;
+    private int[] lastnames;
+    private int[] cities;
+    private int[] zipcodes;
+    private byte[] zipcodeLengths;
+    private byte[] colors;
+    private int size;
+
+    HeapPersonColumns(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        ids = new long[capacity];
+        names = new int[capacity];
+        lastnames = new int[capacity];
+        cities = new int[capacity];
+        zipcodes = new int[capacity];
+        zipcodeLengths = new byte[capacity];
+        colors = new byte[capacity];
+    }
+
+    @Override
+    public int add(Person person) {
+        int row = size;
+        if (row == ids.length) {
+            grow(row + (row >> 1));
+        }
+        ids[row] = person.getId();
+        names[row] = nameDictionary.encode(person.getName());
+        lastnames[row] = lastnameDictionary.encode(person.getLastname());
+        cities[row] = cityDictionary.encode(person.getCity());
+        String zipcode = person.getZipcode();
+        if (ColumnEncoding.isNumericZipcode(zipcode)) {
+            zipcodes[row] = ColumnEncoding.zipcodeValue(zipcode);
+            zipcodeLengths[row] = (byte) zipcode.length();
+        } else {
+            zipcodes[row] = zipcodeDictionary.encode(zipcode);
+            zipcodeLengths[row] = DICTIONARY_ZIPCODE;
+        }
+        colors[row] = (byte) person.getColor().ordinal();
+        size++;
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public View view(int size) {
+        return new HeapView(this, size);
+    }
+
+    private static final class HeapView implements View {
+
+        private final int size;
+        private final long[] ids;
+        private final int[] names;
+        private final int[] lastnames;
+        private final int[] cities;
+        private final int[] zipcodes;
+        private final byte[] zipcodeLengths;
+        private final byte[] colors;
+        private final String[] nameValues;
+        private final String[] lastnameValues;
+        private final String[] cityValues;
+        private final String[] zipcodeValues;
+        private final String[] lowercaseNameValues;
+        private final String[] lowercaseLastnameValues;
+        private final String[] lowercaseCityValues;
+
+        private HeapView(HeapPersonColumns columns, int size) {
+            this.size = size;
+            this.ids = columns.ids;
+            this.names = columns.names;
+            this.lastnames = columns.lastnames;
+            this.cities = columns.cities;
+            this.zipcodes = columns.zipcodes;
+            this.zipcodeLengths = columns.zipcodeLengths;
+            this.colors = columns.colors;
+            this.nameValues = columns.nameDictionary.values();
+            this.lastnameValues = columns.lastnameDictionary.values();
+            this.cityValues = columns.cityDictionary.values();
+            this.zipcodeValues = columns.zipcodeDictionary.values();
+            this.lowercaseNameValues = columns.nameDictionary.lowercaseValues();
+            this.lowercaseLastnameValues = columns.lastnameDictionary.lowercaseValues();
+            this.lowercaseCityValues = columns.cityDictionary.lowercaseValues();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long id(int row) {
+            return ids[row];
+        }
+
+        @Override
+        public Color color(int row) {
+            return ColumnEncoding.COLORS[colors[row]];
+        }
+
+        @Override
+        public Person person(int row) {
+            Person person = new Person(ids[row]);
+            person.setName(nameValues[names[row]]);
+            person.setLastname(lastnameValues[lastnames[row]]);
+            person.setZipcode(zipcode(row));
+            person.setCity(cityValues[cities[row]]);
+            person.setColor(color(row));
+            return person;
+        }
+
+        @Override
+        public IntPredicate matcher(String lowercaseTerm) {
+            boolean numericTerm = ColumnEncoding.isNumericZipcode(lowercaseTerm);
+            return row -> lowercaseNameValues[names[row]].contains(lowercaseTerm) ||
+                    lowercaseLastnameValues[lastnames[row]].contains(lowercaseTerm) ||
+                    lowercaseCityValues[cities[row]].contains(lowercaseTerm) ||
+                    (numericTerm || zipcodeLengths[row] == DICTIONARY_ZIPCODE) &&
+                            zipcode(row).contains(lowercaseTerm);
+        }
+
+        @Override
+        public IntArrays.IntComparator comparator(PersonProperty property) {
+            return switch (property) {
+                case ID -> (a, b) -> Long.compare(ids[a], ids[b]);
+                case NAME -> dictionaryComparator(names, nameValues);
+                case LASTNAME -> dictionaryComparator(lastnames, lastnameValues);
+                case ZIPCODE -> this::compareZipcodes;
+                case CITY -> dictionaryComparator(cities, cityValues);
+                case COLOR -> (a, b) -> Integer.compare(ColumnEncoding.colorRank(colors[a]),
+                        ColumnEncoding.colorRank(colors[b]));
+            };
+        }
+
+        private String zipcode(int row) {
+            int length = zipcodeLengths[row];
+            return length == DICTIONARY_ZIPCODE
+                    ? zipcodeValues[zipcodes[row]]
+                    : ColumnEncoding.zipcodeOf(zipcodes[row], length);
+        }
+
+        private int compareZipcodes(int a, int b) {
+            int lengthA = zipcodeLengths[a];
+            int lengthB = zipcodeLengths[b];
+            if (lengthA == DICTIONARY_ZIPCODE || lengthB == DICTIONARY_ZIPCODE) {
+                return zipcode(a).compareTo(zipcode(b));
+            }
+            return ColumnEncoding.compareZipcodes(zipcodes[a], lengthA, zipcodes[b], lengthB);
+        }
+
+        private static IntArrays.IntComparator dictionaryComparator(int[] codes, String[] values) {
+            return (a, b) -> codes[a] == codes[b] ? 0 : String.CASE_INSENSITIVE_ORDER.compare(values[codes[a]],
+                    values[codes[b]]);
+        }
+
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        lastnames = Arrays.copyOf(lastnames, capacity);
+        cities = Arrays.copyOf(cities, capacity);
+        zipcodes = Arrays.copyOf(zipcodes, capacity);
+        zipcodeLengths = Arrays.copyOf(zipcodeLengths, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+    }
+
+}
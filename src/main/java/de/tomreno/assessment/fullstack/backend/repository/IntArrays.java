@@ -0,0 +1,69 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+/**
+ * Sorting of primitive int arrays with a custom order, used for row index arrays that must not be boxed.
+ */
+final class IntArrays {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    @FunctionalInterface
+    interface IntComparator {
+
+        int compare(int a, int b);
+
+    }
+
+    /**
+     * Sorts the given array with a stable merge sort.
+     */
+    static void sort(int[] values, IntComparator comparator) {
+        sort(values, 0, values.length, comparator);
+    }
+
+    static void sort(int[] values, int from, int to, IntComparator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int[] buffer = new int[to - from];
+        mergeSort(values, buffer, from, to, comparator);
+    }
+
+    private static void mergeSort(int[] values, int[] buffer, int from, int to, IntComparator comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(values, from, to, comparator);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(values, buffer, from, middle, comparator);
+        mergeSort(values, buffer, middle, to, comparator);
+        if (comparator.compare(values[middle - 1], values[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(values, from, buffer, 0, middle - from);
+        int left = 0;
+        int leftEnd = middle - from;
+        int right = middle;
+        int target = from;
+        while (left < leftEnd && right < to) {
+            values[target++] = comparator.compare(values[right], buffer[left]) < 0 ? values[right++] : buffer[left++];
+        }
+        System.arraycopy(buffer, left, values, target, leftEnd - left);
+    }
+
+    private static void insertionSort(int[] values, int from, int to, IntComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int value = values[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(values[j], value) > 0) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = value;
+        }
+    }
+
+    private IntArrays() {
+    }
+
+}
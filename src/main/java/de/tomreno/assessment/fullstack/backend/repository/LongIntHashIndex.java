@@ -0,0 +1,123 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from primitive long keys to non-negative int values, typically row positions. Keys and
+ * values are kept in parallel arrays probed linearly, so neither lookups nor insertions box or allocate, except for
+ * growing the arrays once the load factor of one half is exceeded.
+ * <p>
+ * The map supports a single writer and any number of concurrent readers. A slot only ever changes from empty to
+ * occupied, and growing swaps in a completely filled new table, so a concurrent {@link #get(long)} finds every mapping
+ * put before it started and at most sees some mappings put concurrently. Callers that need a consistent view have to
+ * ignore values that were not yet published to them, such as rows beyond a snapshot's size.
+ */
+final class LongIntHashIndex {
+
+    static final int NOT_FOUND = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private record Table(long[] keys, int[] values, int mask) {
+
+        Table(int capacity) {
+            this(new long[capacity], filledValues(capacity), capacity - 1);
+        }
+
+        private static int[] filledValues(int capacity) {
+            int[] values = new int[capacity];
+            Arrays.fill(values, NOT_FOUND);
+            return values;
+        }
+
+    }
+
+    private volatile Table table;
+    private int size;
+
+    LongIntHashIndex() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    LongIntHashIndex(int expectedSize) {
+        table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the value mapped to the given key or {@link #NOT_FOUND}.
+     */
+    int get(long key) {
+        Table current = table;
+        int slot = slot(key, current.mask());
+        int value;
+        while ((value = current.values()[slot]) != NOT_FOUND) {
+            if (current.keys()[slot] == key) {
+                return value;
+            }
+            slot = (slot + 1) & current.mask();
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Maps the given key to the given value. Keys must not be put twice, as mappings are never replaced.
+     */
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        Table current = table;
+        if ((size + 1) * 2L > current.values().length) {
+            current = rehash(current, current.values().length * 2);
+            table = current;
+        }
+        int slot = slot(key, current.mask());
+        while (current.values()[slot] != NOT_FOUND) {
+            if (current.keys()[slot] == key) {
+                throw new IllegalArgumentException("Key is already mapped: " + key);
+            }
+            slot = (slot + 1) & current.mask();
+        }
+        current.keys()[slot] = key;
+        current.values()[slot] = value;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int slot(long key, int mask) {
+        // Finalizer of MurmurHash3 to spread sequential ids over the whole table
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private static Table rehash(Table old, int capacity) {
+        Table rehashed = new Table(capacity);
+        for (int i = 0; i < old.values().length; i++) {
+            if (old.values()[i] != NOT_FOUND) {
+                int slot = slot(old.keys()[i], rehashed.mask());
+                while (rehashed.values()[slot] != NOT_FOUND) {
+                    slot = (slot + 1) & rehashed.mask();
+                }
+                rehashed.keys()[slot] = old.keys()[i];
+                rehashed.values()[slot] = old.values()[i];
+            }
+        }
+        return rehashed;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+}
@@ -0,0 +1,181 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * {@link PersonColumns} stored in direct memory outside of the heap, so millions of rows neither grow the heap nor
+ * the work of the garbage collector. Every row is a fixed-width record in one of several direct buffers of
+ * {@link #CHUNK_ROWS} rows each. Names, lastnames and cities are stored as codes of {@link OffHeapStringDictionary}s
+ * holding their UTF-8 bytes, and zipcodes are encoded numerically as described in {@link ColumnEncoding}, falling back
+ * to a dictionary for any other zipcode. Fields are only decoded when a row is compared, matched or materialized.
+ * <p>
+ * Direct memory is released by the garbage collector once neither the columns nor any view of them are reachable.
+ */
+final class OffHeapPersonColumns implements PersonColumns {
+
+    static final int CHUNK_ROWS = 1 << 16;
+
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(CHUNK_ROWS);
+    private static final int ROW_MASK = CHUNK_ROWS - 1;
+    private static final int ID = 0;
+    private static final int NAME = 8;
+    private static final int LASTNAME = 12;
+    private static final int CITY = 16;
+    private static final int ZIPCODE = 20;
+    private static final int ZIPCODE_LENGTH = 24;
+    private static final int COLOR = 25;
+    private static final int ROW_BYTES = 26;
+    private static final byte DICTIONARY_ZIPCODE = -1;
+
+    private final OffHeapStringDictionary nameDictionary = new OffHeapStringDictionary();
+    private final OffHeapStringDictionary lastnameDictionary = new OffHeapStringDictionary();
+    private final OffHeapStringDictionary cityDictionary = new OffHeapStringDictionary();
+    private final OffHeapStringDictionary zipcodeDictionary = new OffHeapStringDictionary();
+
+    private ByteBuffer[] chunks;
+    private int size;
+
+    OffHeapPersonColumns(int expectedSize) {
+        chunks = new ByteBuffer[Math.max(1, (expectedSize + CHUNK_ROWS - 1) >>> CHUNK_SHIFT)];
+    }
+
+    @Override
+    public int add(Person person) {
+        int row = size;
+        int chunk = row >>> CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk * 2);
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = ByteBuffer.allocateDirect(CHUNK_ROWS * ROW_BYTES).order(ByteOrder.nativeOrder());
+        }
+        ByteBuffer buffer = chunks[chunk];
+        int offset = (row & ROW_MASK) * ROW_BYTES;
+        buffer.putLong(offset + ID, person.getId());
+        buffer.putInt(offset + NAME, nameDictionary.encode(person.getName()));
+        buffer.putInt(offset + LASTNAME, lastnameDictionary.encode(person.getLastname()));
+        buffer.putInt(offset + CITY, cityDictionary.encode(person.getCity()));
+        String zipcode = person.getZipcode();
+        if (ColumnEncoding.isNumericZipcode(zipcode)) {
+            buffer.putInt(offset + ZIPCODE, ColumnEncoding.zipcodeValue(zipcode));
+            buffer.put(offset + ZIPCODE_LENGTH, (byte) zipcode.length());
+        } else {
+            buffer.putInt(offset + ZIPCODE, zipcodeDictionary.encode(zipcode));
+            buffer.put(offset + ZIPCODE_LENGTH, DICTIONARY_ZIPCODE);
+        }
+        buffer.put(offset + COLOR, (byte) person.getColor().ordinal());
+        size++;
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public View view(int size) {
+        return new OffHeapView(chunks.clone(), size, nameDictionary.view(), lastnameDictionary.view(),
+                cityDictionary.view(), zipcodeDictionary.view());
+    }
+
+    private record OffHeapView(ByteBuffer[] chunks,
+                               int size,
+                               OffHeapStringDictionary.View names,
+                               OffHeapStringDictionary.View lastnames,
+                               OffHeapStringDictionary.View cities,
+                               OffHeapStringDictionary.View zipcodes) implements View {
+
+        @Override
+        public long id(int row) {
+            return chunk(row).getLong(offset(row) + ID);
+        }
+
+        @Override
+        public Color color(int row) {
+            return ColumnEncoding.COLORS[chunk(row).get(offset(row) + COLOR)];
+        }
+
+        @Override
+        public Person person(int row) {
+            ByteBuffer chunk = chunk(row);
+            int offset = offset(row);
+            Person person = new Person(chunk.getLong(offset + ID));
+            person.setName(names.value(chunk.getInt(offset + NAME)));
+            person.setLastname(lastnames.value(chunk.getInt(offset + LASTNAME)));
+            person.setZipcode(zipcode(row));
+            person.setCity(cities.value(chunk.getInt(offset + CITY)));
+            person.setColor(ColumnEncoding.COLORS[chunk.get(offset + COLOR)]);
+            return person;
+        }
+
+        @Override
+        public IntPredicate matcher(String lowercaseTerm) {
+            boolean[] nameMatches = names.matches(lowercaseTerm);
+            boolean[] lastnameMatches = lastnames.matches(lowercaseTerm);
+            boolean[] cityMatches = cities.matches(lowercaseTerm);
+            boolean numericTerm = ColumnEncoding.isNumericZipcode(lowercaseTerm);
+            return row -> {
+                ByteBuffer chunk = chunk(row);
+                int offset = offset(row);
+                return nameMatches[chunk.getInt(offset + NAME)] || lastnameMatches[chunk.getInt(offset + LASTNAME)] ||
+                        cityMatches[chunk.getInt(offset + CITY)] ||
+                        (numericTerm || chunk.get(offset + ZIPCODE_LENGTH) == DICTIONARY_ZIPCODE) &&
+                                zipcode(row).contains(lowercaseTerm);
+            };
+        }
+
+        @Override
+        public IntArrays.IntComparator comparator(PersonProperty property) {
+            return switch (property) {
+                case ID -> (a, b) -> Long.compare(id(a), id(b));
+                case NAME -> rankComparator(NAME, names);
+                case LASTNAME -> rankComparator(LASTNAME, lastnames);
+                case ZIPCODE -> this::compareZipcodes;
+                case CITY -> rankComparator(CITY, cities);
+                case COLOR -> (a, b) -> Integer.compare(ColumnEncoding.colorRank(chunk(a).get(offset(a) + COLOR)),
+                        ColumnEncoding.colorRank(chunk(b).get(offset(b) + COLOR)));
+            };
+        }
+
+        private IntArrays.IntComparator rankComparator(int field, OffHeapStringDictionary.View dictionary) {
+            return (a, b) -> Integer.compare(dictionary.rank(chunk(a).getInt(offset(a) + field)),
+                    dictionary.rank(chunk(b).getInt(offset(b) + field)));
+        }
+
+        private String zipcode(int row) {
+            ByteBuffer chunk = chunk(row);
+            int offset = offset(row);
+            int length = chunk.get(offset + ZIPCODE_LENGTH);
+            return length == DICTIONARY_ZIPCODE
+                    ? zipcodes.value(chunk.getInt(offset + ZIPCODE))
+                    : ColumnEncoding.zipcodeOf(chunk.getInt(offset + ZIPCODE), length);
+        }
+
+        private int compareZipcodes(int a, int b) {
+            int lengthA = chunk(a).get(offset(a) + ZIPCODE_LENGTH);
+            int lengthB = chunk(b).get(offset(b) + ZIPCODE_LENGTH);
+            if (lengthA == DICTIONARY_ZIPCODE || lengthB == DICTIONARY_ZIPCODE) {
+                return zipcode(a).compareTo(zipcode(b));
+            }
+            return ColumnEncoding.compareZipcodes(chunk(a).getInt(offset(a) + ZIPCODE), lengthA,
+                    chunk(b).getInt(offset(b) + ZIPCODE), lengthB);
+        }
+
+        private ByteBuffer chunk(int row) {
+            return chunks[row >>> CHUNK_SHIFT];
+        }
+
+        private static int offset(int row) {
+            return (row & ROW_MASK) * ROW_BYTES;
+        }
+
+    }
+
+}
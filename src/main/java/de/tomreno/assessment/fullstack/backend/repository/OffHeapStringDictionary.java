@@ -0,0 +1,198 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Assigns dense int codes to distinct strings like {@link StringDictionary}, but keeps the values as UTF-8 bytes in
+ * direct memory and decodes them on demand. Distinct values are found via a 64-bit hash of their characters. In the
+ * unlikely case of a hash collision, the value is simply stored a second time under a new code.
+ * <p>
+ * For sorting without decoding, every code has a rank in the case-insensitive order of all values, and values that are
+ * equal ignoring case share their rank. Codes are assigned by a single writer, while readers use a {@link View}.
+ */
+final class OffHeapStringDictionary {
+
+    private static final int ENTRY_BYTES = 8;
+    private static final int MIN_CODE_CAPACITY = 256;
+    private static final int MIN_DATA_CAPACITY = 4096;
+
+    private final LongIntHashIndex codesByHash = new LongIntHashIndex();
+    private ByteBuffer entries = allocate(MIN_CODE_CAPACITY * ENTRY_BYTES);
+    private ByteBuffer data = allocate(MIN_DATA_CAPACITY);
+    private int dataSize;
+    private int size;
+
+    private int[] sortedCodes = new int[0];
+    private int[] ranks = new int[0];
+
+    /**
+     * Returns the code of the given value, assigning the next code if the value is new.
+     */
+    int encode(String value) {
+        long hash = hash(value);
+        int existing = codesByHash.get(hash);
+        if (existing != LongIntHashIndex.NOT_FOUND && decode(data, entries, existing).equals(value)) {
+            return existing;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if ((size + 1L) * ENTRY_BYTES > entries.capacity()) {
+            entries = grow(entries, (size + 1L) * ENTRY_BYTES);
+        }
+        if ((long) dataSize + bytes.length > data.capacity()) {
+            data = grow(data, (long) dataSize + bytes.length);
+        }
+        data.put(dataSize, bytes);
+        entries.putInt(size * ENTRY_BYTES, dataSize);
+        entries.putInt(size * ENTRY_BYTES + 4, bytes.length);
+        dataSize += bytes.length;
+        int code = size++;
+        if (existing == LongIntHashIndex.NOT_FOUND) {
+            codesByHash.put(hash, code);
+        }
+        return code;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a view of all codes assigned so far, ranking new codes first.
+     */
+    View view() {
+        rankNewCodes();
+        return new View(data, entries, ranks, size);
+    }
+
+    record View(ByteBuffer data, ByteBuffer entries, int[] ranks, int size) {
+
+        String value(int code) {
+            return decode(data, entries, code);
+        }
+
+        int rank(int code) {
+            return ranks[code];
+        }
+
+        /**
+         * Returns by code whether the lowercased value contains the given lowercased term.
+         */
+        boolean[] matches(String lowercaseTerm) {
+            boolean[] matches = new boolean[size];
+            for (int code = 0; code < size; code++) {
+                matches[code] = value(code).toLowerCase().contains(lowercaseTerm);
+            }
+            return matches;
+        }
+
+    }
+
+    /**
+     * Ranks all codes assigned since the last view. A few new codes are inserted into the existing order, while a bulk of
+     * new codes, such as after loading, is ranked by sorting all codes once.
+     */
+    private void rankNewCodes() {
+        int ranked = sortedCodes.length;
+        if (ranked == size) {
+            return;
+        }
+        if (size - ranked > Math.max(16, ranked >> 4)) {
+            rankAllCodes();
+            return;
+        }
+        for (int code = ranked; code < size; code++) {
+            insertRank(code);
+        }
+    }
+
+    private void rankAllCodes() {
+        String[] values = new String[size];
+        int[] codes = new int[size];
+        for (int code = 0; code < size; code++) {
+            values[code] = decode(data, entries, code);
+            codes[code] = code;
+        }
+        IntArrays.sort(codes, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(values[a], values[b]));
+        int[] newRanks = new int[size];
+        int rank = 0;
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && String.CASE_INSENSITIVE_ORDER.compare(values[codes[i - 1]], values[codes[i]]) != 0) {
+                rank++;
+            }
+            newRanks[codes[i]] = rank;
+        }
+        sortedCodes = codes;
+        ranks = newRanks;
+    }
+
+    private void insertRank(int code) {
+        String value = decode(data, entries, code);
+        int low = 0;
+        int high = sortedCodes.length;
+        int equal = -1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int result = String.CASE_INSENSITIVE_ORDER.compare(decode(data, entries, sortedCodes[middle]), value);
+            if (result < 0) {
+                low = middle + 1;
+            } else {
+                if (result == 0) {
+                    equal = sortedCodes[middle];
+                }
+                high = middle;
+            }
+        }
+        int[] newRanks = Arrays.copyOf(ranks, code + 1);
+        if (equal >= 0) {
+            newRanks[code] = ranks[equal];
+        } else {
+            int rank = low == 0 ? 0 : ranks[sortedCodes[low - 1]] + 1;
+            for (int other = 0; other < code; other++) {
+                if (newRanks[other] >= rank) {
+                    newRanks[other]++;
+                }
+            }
+            newRanks[code] = rank;
+        }
+        int[] newSortedCodes = new int[sortedCodes.length + 1];
+        System.arraycopy(sortedCodes, 0, newSortedCodes, 0, low);
+        newSortedCodes[low] = code;
+        System.arraycopy(sortedCodes, low, newSortedCodes, low + 1, sortedCodes.length - low);
+        sortedCodes = newSortedCodes;
+        ranks = newRanks;
+    }
+
+    private static String decode(ByteBuffer data, ByteBuffer entries, int code) {
+        byte[] bytes = new byte[entries.getInt(code * ENTRY_BYTES + 4)];
+        data.get(entries.getInt(code * ENTRY_BYTES), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long hash(String value) {
+        // FNV-1a over the characters
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, long minCapacity) {
+        long capacity = Math.max(minCapacity, buffer.capacity() * 2L);
+        if (capacity > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Dictionary exceeds maximum capacity");
+        }
+        ByteBuffer grown = allocate((int) capacity);
+        grown.put(0, buffer, 0, buffer.capacity());
+        return grown;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+}
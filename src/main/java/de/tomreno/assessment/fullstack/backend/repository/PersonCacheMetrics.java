@@ -0,0 +1,74 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Binds the common cache metrics of the {@link CachingPersonRepository}, like {@code cache.gets} by hit and miss, to
+ * the cache name {@code persons}, together with the hit ratio since startup, the weight in persons and the number of
+ * results removed by saves.
+ */
+public class PersonCacheMetrics extends CacheMeterBinder<TinyLfuCache<?, ?>> {
+
+    public PersonCacheMetrics(CachingPersonRepository repository) {
+        super(repository.cache(), "persons", Tags.empty());
+    }
+
+    @Override
+    protected Long size() {
+        TinyLfuCache<?, ?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        TinyLfuCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.hitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        TinyLfuCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TinyLfuCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        TinyLfuCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TinyLfuCache<?, ?> cache = getCache();
+        Gauge.builder("cache.hit.ratio", cache, PersonCacheMetrics::hitRatio)
+                .tags(getTagsWithCacheName())
+                .description("The share of cache gets that were hits since startup")
+                .register(registry);
+        Gauge.builder("cache.weight", cache, TinyLfuCache::weight)
+                .tags(getTagsWithCacheName())
+                .description("The number of persons of all cached results")
+                .baseUnit("persons")
+                .register(registry);
+        FunctionCounter.builder("cache.removals", cache, TinyLfuCache::removalCount)
+                .tags(getTagsWithCacheName())
+                .description("The number of cached results removed as saves may have changed them")
+                .register(registry);
+    }
+
+    private static double hitRatio(TinyLfuCache<?, ?> cache) {
+        long hits = cache.hitCount();
+        long gets = hits + cache.missCount();
+        return gets == 0 ? Double.NaN : (double) hits / gets;
+    }
+
+}
@@ -0,0 +1,62 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+import java.util.function.IntPredicate;
+
+/**
+ * The CSV persons stored as columns of rows instead of one {@link Person} object per row. {@link Person} objects are
+ * only materialized for the rows that are actually returned.
+ * <p>
+ * Rows are appended by a single writer, while readers work on a {@link View} of the rows published so far.
+ */
+interface PersonColumns {
+
+    static PersonColumns create(AppCsvPersonProps.Storage storage, int expectedSize) {
+        return switch (storage) {
+            case HEAP -> new HeapPersonColumns(expectedSize);
+            case OFF_HEAP -> new OffHeapPersonColumns(expectedSize);
+        };
+    }
+
+    /**
+     * Appends the given person as the next row and returns the row.
+     */
+    int add(Person person);
+
+    int size();
+
+    /**
+     * Returns a view of all rows below the given size, which must not exceed the number of rows added so far.
+     */
+    View view(int size);
+
+    interface View {
+
+        int size();
+
+        long id(int row);
+
+        Color color(int row);
+
+        /**
+         * Materializes the person of the given row.
+         */
+        Person person(int row);
+
+        /**
+         * Returns a predicate telling whether one of the searchable fields of a row contains the given lowercased term.
+         */
+        IntPredicate matcher(String lowercaseTerm);
+
+        /**
+         * Returns a comparator of rows that orders them ascending exactly like {@link PersonProperty#getComparator()}
+         * orders their materialized persons.
+         */
+        IntArrays.IntComparator comparator(PersonProperty property);
+
+    }
+
+}
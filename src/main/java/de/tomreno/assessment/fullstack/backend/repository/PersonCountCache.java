@@ -0,0 +1,79 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The numbers of persons in the database matching a search pattern and color, so paging through the same search does
+ * not count all matching persons for every page. Saves invalidate all counts, both right away and once their
+ * transaction has completed, as counts taken meanwhile may not see the saved persons yet.
+ * <p>
+ * Every count is tagged with the generation it was taken in, and only counts of the current generation are returned,
+ * so a count taken before an invalidation and stored after it is never used. Like compiled sorts, at most
+ * {@link #MAX_CACHED_COUNTS} counts are cached until the next invalidation.
+ */
+@Component
+@ConditionalOnProperty(value = "app.database.enabled", havingValue = "true")
+class PersonCountCache {
+
+    static final int MAX_CACHED_COUNTS = 1024;
+
+    private record Key(String pattern, Color color) {
+    }
+
+    private record Count(long generation, long value) {
+    }
+
+    private final Map<Key, Count> counts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Returns the cached count of the given pattern and color, or counts and caches it.
+     *
+     * @param pattern the pattern of {@link PersonTrigrams#containsPattern}, or null for persons regardless of their
+     *                fields
+     * @param color the color, or null for persons of all colors
+     */
+    long count(String pattern, Color color, LongSupplier counter) {
+        Key key = new Key(pattern, color);
+        long current = generation.get();
+        Count count = counts.get(key);
+        if (count != null && count.generation() == current) {
+            return count.value();
+        }
+        long value = counter.getAsLong();
+        if (counts.size() < MAX_CACHED_COUNTS || counts.containsKey(key)) {
+            counts.put(key, new Count(current, value));
+        }
+        return value;
+    }
+
+    /**
+     * Drops all counts, and again after the current transaction, if any, has completed.
+     */
+    void invalidate() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+
+}
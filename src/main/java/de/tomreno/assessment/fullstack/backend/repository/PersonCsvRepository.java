@@ -1,38 +1,77 @@
 package de.tomreno.assessment.fullstack.backend.repository;
 
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
 import de.tomreno.assessment.fullstack.backend.entity.Color;
 import de.tomreno.assessment.fullstack.backend.entity.Person;
 import de.tomreno.assessment.fullstack.backend.exception.BackendCsvException;
 import de.tomreno.assessment.fullstack.backend.exception.BackendInitializationException;
 import de.tomreno.assessment.fullstack.backend.parser.PersonCsvParser;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Repository;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
 
 /**
  * This repository holds and manages persons from CSV sources.
+ * <p>
+ * Queries read the current {@link PersonSnapshot} without locking, while saves, ingests and reloads are serialized and
+ * publish a new snapshot once they are completely applied. Reloads and ingests publish a {@link PersonsChangedEvent}.
  */
 @Repository
 @ConditionalOnProperty(value = "app.database.enabled", havingValue = "false", matchIfMissing = true)
 public class PersonCsvRepository implements PersonRepository {
 
-    private static List<Person> persons;
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.ASC, "id");
 
     private final PersonCsvParser personCsvParser;
+    private final AppCsvPersonProps.Storage storage;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile PersonStore store;
 
     public PersonCsvRepository(PersonCsvParser personCsvParser) {
+        this(personCsvParser, AppCsvPersonProps.Storage.HEAP);
+    }
+
+    @Autowired
+    public PersonCsvRepository(PersonCsvParser personCsvParser, AppCsvPersonProps personCsvProps,
+                               ApplicationEventPublisher eventPublisher) {
+        this(personCsvParser, personCsvProps.getStorage(), eventPublisher);
+    }
+
+    PersonCsvRepository(PersonCsvParser personCsvParser, AppCsvPersonProps.Storage storage) {
+        this(personCsvParser, storage, event -> {
+        });
+    }
+
+    PersonCsvRepository(PersonCsvParser personCsvParser, AppCsvPersonProps.Storage storage,
+                        ApplicationEventPublisher eventPublisher) {
         this.personCsvParser = personCsvParser;
+        this.storage = storage;
+        this.eventPublisher = eventPublisher;
         try {
-            persons = personCsvParser.readFromCsv();
+            this.store = PersonStore.load(personCsvParser::readFromCsv, storage, 0);
         } catch (IOException e) {
             throw new BackendInitializationException("Failed to load CSV files", e);
         }
@@ -40,58 +79,263 @@ public class PersonCsvRepository implements PersonRepository {
 
     @Override
     public Page<Person> findAll(Pageable pageable) {
-        return retrievePersonPageSorted(persons.stream(), pageable);
+        PersonSnapshot snapshot = snapshot();
+        CompiledPersonSort sort = compiledSortOf(pageable);
+        return sort.getIndexedKey()
+                .map(key -> snapshot.sortIndex().page(key, pageable, snapshot.columns()))
+                .orElseGet(() -> retrievePersonPageSorted(snapshot, IntStream.range(0, snapshot.size()), pageable));
     }
 
     @Override
     public Page<Person> findByColor(Color color, Pageable pageable) {
-        Stream<Person> personStream = persons.stream().filter(person -> person.getColor() == color);
-        return retrievePersonPageSorted(personStream, pageable);
+        PersonSnapshot snapshot = snapshot();
+        ColorBitmapIndex.View colorIndex = snapshot.colorIndex();
+        CompiledPersonSort sort = compiledSortOf(pageable);
+        return sort.getIndexedKey()
+                .map(key -> snapshot.sortIndex().page(key, pageable, row -> colorIndex.contains(row, color),
+                        colorIndex.cardinality(color), snapshot.columns()))
+                .orElseGet(() -> retrievePersonPageSorted(snapshot, colorIndex.rows(color), pageable));
     }
 
     @Override
     public Optional<Person> findById(long id) {
-        return persons.stream().filter(person -> person.getId() == id).findAny();
+        PersonSnapshot snapshot = snapshot();
+        int row = snapshot.rowOf(id);
+        return row == LongIntHashIndex.NOT_FOUND ? Optional.empty() : Optional.of(snapshot.person(row));
     }
 
     @Override
     public Page<Person> findBySearch(String search, Pageable pageable) {
-        Stream<Person> personStream = persons.stream().filter(person -> containsSearch(search, person));
-        return retrievePersonPageSorted(personStream, pageable);
+        PersonSnapshot snapshot = snapshot();
+        return retrievePersonPageSorted(snapshot, snapshot.trigramIndex().rows(search), pageable);
     }
 
     @Override
     public Page<Person> findBySearchAndColor(String search, Color color, Pageable pageable) {
-        Stream<Person> personStream = persons.stream()
-                .filter(person -> containsSearch(search, person) && person.getColor() == color);
-        return retrievePersonPageSorted(personStream, pageable);
+        PersonSnapshot snapshot = snapshot();
+        return retrievePersonPageSorted(snapshot, rowsOf(snapshot, search, color), pageable);
+    }
+
+    /**
+     * Selecting a page counts all matching rows anyway, as they are either scanned or counted by an index, so the slice
+     * is taken from the page.
+     */
+    @Override
+    public Slice<Person> findSlice(String search, Color color, Pageable pageable) {
+        Page<Person> page;
+        if (search != null) {
+            page = color == null ? findBySearch(search, pageable) : findBySearchAndColor(search, color, pageable);
+        } else {
+            page = color == null ? findAll(pageable) : findByColor(color, pageable);
+        }
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+
+    /**
+     * Seeks in the presorted order of the sort key if the sort is served by the sort index and there is no search, and
+     * otherwise selects the first rows following the position out of all matching rows, like a first page is selected.
+     */
+    @Override
+    public Window<Person> findWindow(String search, Color color, Sort sort, KeysetScrollPosition position, int limit) {
+        PersonSnapshot snapshot = snapshot();
+        PersonColumns.View columns = snapshot.columns();
+        CompiledPersonSort compiled = CompiledPersonSort.of(sort.isSorted() ? sort : DEFAULT_SORT);
+        IntUnaryOperator toCursor = position.isInitial()
+                ? null
+                : cursorComparison(snapshot, compiled, PersonKeyset.personOf(position, compiled.getKeys()));
+        Optional<CompiledPersonSort.SortKey> indexedKey = compiled.getIndexedKey();
+        List<Person> persons;
+        if (search == null && indexedKey.isPresent()) {
+            ColorBitmapIndex.View colorIndex = snapshot.colorIndex();
+            IntPredicate filter = color == null ? row -> true : row -> colorIndex.contains(row, color);
+            persons = snapshot.sortIndex().window(indexedKey.get(), toCursor, filter, limit + 1, columns);
+        } else {
+            IntStream rows = rowsOf(snapshot, search, color);
+            if (toCursor != null) {
+                rows = rows.filter(row -> toCursor.applyAsInt(row) > 0);
+            }
+            persons = BoundedPageSelector.selectRows(rows.iterator(), compiled.getComparator(columns),
+                    PageRequest.ofSize(limit + 1), columns::person).getContent();
+        }
+        return PersonKeyset.windowOf(persons, limit, compiled.getKeys());
     }
 
+    /**
+     * Decodes the matching rows of the current snapshot one at a time, so only the person passed to the action is
+     * materialized. Rows are in the order of the ids, and persons saved meanwhile are not exported.
+     */
+    @Override
+    public void exportAll(String search, Color color, Consumer<? super Person> action) {
+        PersonSnapshot snapshot = snapshot();
+        PersonColumns.View columns = snapshot.columns();
+        rowsOf(snapshot, search, color).forEach(row -> action.accept(columns.person(row)));
+    }
+
+    /**
+     * Appends the given person to today's CSV file and to the in-memory persons with the id a re-read of the CSV files
+     * would assign, updating all indexes in place instead of re-reading the CSV directory.
+     * <p>
+     * Only appending is serialized. Waiting for the CSV entry to be written happens afterwards, so concurrent saves are
+     * written together. If writing fails, the saves appended since fail as well, as their entries are not written
+     * either, and all their persons are dropped from memory again by {@link #discardFailedSaves()}. The id is assigned
+     * to the given person only once it is saved.
+     */
     @Override
     public Person save(Person entity) {
+        Person savedPerson;
+        long entry;
+        synchronized (this) {
+            try {
+                savedPerson = personCsvParser.appendToCsv(withId(entity, store.snapshot().size() + 1L));
+                entry = personCsvParser.appendedEntries();
+                store.append(savedPerson);
+            } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+                throw new BackendCsvException("Failed to save CSV entry", e);
+            }
+        }
         try {
-            personCsvParser.saveToCsv(entity);
-            persons = personCsvParser.readFromCsv();
-            return persons.getLast();
-        } catch (IOException | URISyntaxException e) {
+            personCsvParser.awaitAppended(entry);
+        } catch (IOException e) {
+            discardFailedSaves();
             throw new BackendCsvException("Failed to save CSV entry", e);
         }
+        entity.setId(savedPerson.getId());
+        return savedPerson;
     }
 
-    private static boolean containsSearch(String search, Person person) {
-        return person.getName().toLowerCase().contains(search.toLowerCase()) ||
-                person.getLastname().toLowerCase().contains(search.toLowerCase()) ||
-                person.getZipcode().toLowerCase().contains(search.toLowerCase()) ||
-                person.getCity().toLowerCase().contains(search.toLowerCase());
+    /**
+     * Saves the given persons like {@link #save(Person)}, but appends them to the CSV file and publishes them together,
+     * and waits for a single write of all of them.
+     */
+    @Override
+    public List<Person> saveBatch(List<Person> entities) {
+        List<Person> savedPersons;
+        long entry;
+        synchronized (this) {
+            try {
+                long nextId = store.snapshot().size() + 1L;
+                List<Person> persons = new ArrayList<>(entities.size());
+                for (Person entity : entities) {
+                    persons.add(withId(entity, nextId++));
+                }
+                savedPersons = personCsvParser.appendAllToCsv(persons);
+                entry = personCsvParser.appendedEntries();
+                store.appendAll(savedPersons);
+            } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+                throw new BackendCsvException("Failed to save CSV entries", e);
+            }
+        }
+        try {
+            personCsvParser.awaitAppended(entry);
+        } catch (IOException e) {
+            discardFailedSaves();
+            throw new BackendCsvException("Failed to save CSV entries", e);
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            entities.get(i).setId(savedPersons.get(i).getId());
+        }
+        return savedPersons;
     }
 
-    private static PageImpl<Person> retrievePersonPageSorted(Stream<Person> personStream, Pageable pageable) {
-        Sort sort = pageable.getSortOr(Sort.by(Sort.Direction.ASC, "id"));
-        for (Sort.Order order : sort.toList()) {
-            personStream = personStream.sorted((o1, o2) -> o1.compareWith(o2, order));
+    /**
+     * Drops the persons of the saves whose CSV entries failed to be written by re-reading the CSV files, which no
+     * longer contain any of the failed entries, and then lets the saves from now on write their entries again. Saves
+     * appended meanwhile fail as well, so no save returns an id the re-read assigns to another person. Does nothing if
+     * another failed save has done so already.
+     */
+    private synchronized void discardFailedSaves() {
+        if (personCsvParser.hasFailedAppends()) {
+            reload();
+            personCsvParser.discardFailedAppends();
         }
-        List<Person> persons = personStream.toList();
-        return new PageImpl<>(persons, pageable, persons.size());
+    }
+
+    /**
+     * Re-reads all CSV files of the CSV directory and replaces the in-memory persons and indexes.
+     */
+    public synchronized void reload() {
+        try {
+            store = PersonStore.load(personCsvParser::readFromCsv, storage, store.snapshot().version() + 1);
+        } catch (IOException e) {
+            throw new BackendCsvException("Failed to reload CSV files", e);
+        }
+        eventPublisher.publishEvent(new PersonsChangedEvent(null));
+    }
+
+    /**
+     * Adds the persons of the entries appended to the given changed files of the CSV directory with the ids a re-read
+     * of the CSV files would assign. Re-reads all CSV files instead if one of them was modified otherwise or deleted, or
+     * if entries were appended to a file sorting before the last CSV file, as they would shift the ids of the later
+     * files.
+     */
+    public synchronized void ingest(Collection<Path> files) {
+        try {
+            List<Person> appended = new ArrayList<>();
+            if (!personCsvParser.readAppended(files, store.snapshot().size() + 1L, appended::add)) {
+                reload();
+            } else if (!appended.isEmpty()) {
+                store.appendAll(appended);
+                eventPublisher.publishEvent(new PersonsChangedEvent(appended));
+            }
+        } catch (IOException e) {
+            throw new BackendCsvException("Failed to read appended CSV entries", e);
+        }
+    }
+
+    /**
+     * Returns the current consistent state of all persons and indexes.
+     */
+    PersonSnapshot snapshot() {
+        return store.snapshot();
+    }
+
+    /**
+     * Returns the rows of the given snapshot matching the optional search term and color in ascending order. Searches
+     * too short for the trigram index are matched against the rows of the color only.
+     */
+    private static IntStream rowsOf(PersonSnapshot snapshot, String search, Color color) {
+        TrigramIndex.View trigramIndex = snapshot.trigramIndex();
+        ColorBitmapIndex.View colorIndex = snapshot.colorIndex();
+        if (search == null) {
+            return color == null ? IntStream.range(0, snapshot.size()) : colorIndex.rows(color);
+        }
+        if (color == null) {
+            return trigramIndex.rows(search);
+        }
+        return trigramIndex.isIndexed(search)
+                ? trigramIndex.rows(search).filter(row -> colorIndex.contains(row, color))
+                : colorIndex.rows(color).filter(trigramIndex.matcher(search));
+    }
+
+    /**
+     * Returns a comparison of rows to the person of a position in the order of the given sort. Rows are compared to the
+     * row of the person as long as it still has the values of the position, and to the person itself otherwise.
+     */
+    private static IntUnaryOperator cursorComparison(PersonSnapshot snapshot, CompiledPersonSort sort, Person cursor) {
+        PersonColumns.View columns = snapshot.columns();
+        int cursorRow = snapshot.rowOf(cursor.getId());
+        if (cursorRow != LongIntHashIndex.NOT_FOUND
+                && sort.getComparator().compare(columns.person(cursorRow), cursor) == 0) {
+            IntArrays.IntComparator comparator = sort.getComparator(columns);
+            return row -> comparator.compare(row, cursorRow);
+        }
+        Comparator<Person> comparator = sort.getComparator();
+        return row -> comparator.compare(columns.person(row), cursor);
+    }
+
+    private static Person withId(Person person, long id) {
+        return new Person(id, person.getName(), person.getLastname(), person.getZipcode(), person.getCity(),
+                person.getColor());
+    }
+
+    private static Page<Person> retrievePersonPageSorted(PersonSnapshot snapshot, IntStream rows, Pageable pageable) {
+        PersonColumns.View columns = snapshot.columns();
+        return BoundedPageSelector.selectRows(rows.iterator(), compiledSortOf(pageable).getComparator(columns),
+                pageable, columns::person);
+    }
+
+    private static CompiledPersonSort compiledSortOf(Pageable pageable) {
+        return CompiledPersonSort.of(pageable.getSortOr(DEFAULT_SORT));
     }
 
 }
@@ -0,0 +1,16 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+import java.util.function.Consumer;
+
+/**
+ * The part of {@link PersonJpaRepository} that needs the entity manager itself, implemented by
+ * {@link PersonJpaExportImpl}.
+ */
+public interface PersonJpaExport {
+
+    void exportAll(String search, Color color, Consumer<? super Person> action);
+
+}
@@ -0,0 +1,39 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Exports persons through a forward-only result stream, which fetches {@link #FETCH_SIZE} rows per round trip instead
+ * of loading all persons before the first one is passed on. The persons are selected by {@link PersonSearchQuery} as
+ * unmanaged persons, so the persistence context does not grow with the number of exported persons.
+ */
+class PersonJpaExportImpl implements PersonJpaExport {
+
+    static final int FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public void exportAll(String search, Color color, Consumer<? super Person> action) {
+        PersonSearchQuery searchQuery = new PersonSearchQuery(search, color);
+        Query query = searchQuery.bind(PersonSearchQuery
+                .createPersonQuery(entityManager, "SELECT p.* " + searchQuery.from() + " ORDER BY p.id")
+                .setHint(AvailableHints.HINT_FETCH_SIZE, FETCH_SIZE));
+        try (Stream<Person> persons = query.getResultStream()) {
+            persons.forEach(action);
+        }
+    }
+
+}
@@ -6,30 +6,55 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
+/**
+ * The repository of persons in the database. Searches for terms of at least three characters look up the matching
+ * values in the {@code person_term_trigram} table, which {@link PersonJpaSave} keeps in sync, and then the persons
+ * having them by index, while shorter terms are matched against every person.
+ * <p>
+ * Pages are read as slices of one more person than requested, and their totals are counted only if the slice does not
+ * tell them, at most once per search and color between saves. Pages, windows and exports construct unmanaged persons
+ * instead of managed entities, which the persistence context would track for dirty checking.
+ */
 @Repository
 @ConditionalOnProperty(value = "app.database.enabled", havingValue = "true")
-public interface PersonJpaRepository extends PersonRepository, JpaRepository<Person, Long> {
-
-    @Query(
-            "SELECT p from Person p " +
-                    "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', ?1,'%')) " +
-                    "OR LOWER(p.lastname) LIKE LOWER(CONCAT('%', ?1,'%')) " +
-                    "OR p.zipcode LIKE %?1% " +
-                    "OR LOWER(p.city) LIKE LOWER(CONCAT('%', ?1,'%'))"
-    )
-    Page<Person> findBySearch(String search, Pageable pageable);
-
-    @Query(
-            "SELECT p from Person p " +
-                    "WHERE (LOWER(p.name) LIKE LOWER(CONCAT('%', ?1,'%')) " +
-                    "OR LOWER(p.lastname) LIKE LOWER(CONCAT('%', ?1,'%')) " +
-                    "OR p.zipcode LIKE %?1% " +
-                    "OR LOWER(p.city) LIKE LOWER(CONCAT('%', ?1,'%'))) " +
-                    "AND p.color = ?2"
-    )
-    Page<Person> findBySearchAndColor(String search, Color color, Pageable pageable);
+public interface PersonJpaRepository extends PersonRepository, PersonJpaExport, PersonJpaSave, PersonJpaSlice,
+        PersonJpaWindow, JpaRepository<Person, Long> {
+
+    @Override
+    default Page<Person> findAll(Pageable pageable) {
+        return PageableExecutionUtils.getPage(findSlice(null, null, pageable).getContent(), pageable,
+                () -> countMatching(null, null));
+    }
+
+    @Override
+    default Page<Person> findByColor(Color color, Pageable pageable) {
+        return PageableExecutionUtils.getPage(findSlice(null, color, pageable).getContent(), pageable,
+                () -> countMatching(null, color));
+    }
+
+    @Override
+    default Page<Person> findBySearch(String search, Pageable pageable) {
+        return PageableExecutionUtils.getPage(findSlice(search, null, pageable).getContent(), pageable,
+                () -> countMatching(search, null));
+    }
+
+    @Override
+    default Page<Person> findBySearchAndColor(String search, Color color, Pageable pageable) {
+        return PageableExecutionUtils.getPage(findSlice(search, color, pageable).getContent(), pageable,
+                () -> countMatching(search, color));
+    }
+
+    /**
+     * Saves the given persons in a single transaction, which sends their inserts in JDBC batches.
+     */
+    @Override
+    default List<Person> saveBatch(List<Person> entities) {
+        return saveAll(entities);
+    }
 
 }
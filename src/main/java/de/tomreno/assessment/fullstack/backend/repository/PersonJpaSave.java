@@ -0,0 +1,17 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+import java.util.List;
+
+/**
+ * The saves of {@link PersonJpaRepository}, which replace those of the base repository to keep the trigrams of the
+ * saved persons in sync, implemented by {@link PersonJpaSaveImpl}.
+ */
+public interface PersonJpaSave {
+
+    <S extends Person> S save(S entity);
+
+    <S extends Person> List<S> saveAll(Iterable<S> entities);
+
+}
@@ -0,0 +1,65 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saves persons like the base repository, then flushes them and adds the trigrams of their new values to the
+ * {@code person_term_trigram} table in the same transaction. The trigrams of the distinct values of all saved persons
+ * are inserted in JDBC batches, so a batch of persons keeps its batched inserts. Saves invalidate the counts of the
+ * {@link PersonCountCache}.
+ */
+class PersonJpaSaveImpl implements PersonJpaSave {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PersonCountCache countCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    PersonJpaSaveImpl(JdbcTemplate jdbcTemplate, PersonCountCache countCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.countCache = countCache;
+    }
+
+    @Override
+    @Transactional
+    public <S extends Person> S save(S entity) {
+        S saved = persistOrMerge(entity);
+        entityManager.flush();
+        indexTrigrams(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public <S extends Person> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            saved.add(persistOrMerge(entity));
+        }
+        entityManager.flush();
+        indexTrigrams(saved);
+        return saved;
+    }
+
+    private <S extends Person> S persistOrMerge(S entity) {
+        if (entity.getId() == null) {
+            entityManager.persist(entity);
+            return entity;
+        }
+        return entityManager.merge(entity);
+    }
+
+    private void indexTrigrams(List<? extends Person> persons) {
+        jdbcTemplate.batchUpdate(PersonTrigrams.INSERT_SQL, PersonTrigrams.rowsOf(persons));
+        countCache.invalidate();
+    }
+
+}
@@ -0,0 +1,25 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * The count-free slices and the cached counts of {@link PersonJpaRepository}, implemented by
+ * {@link PersonJpaSliceImpl}.
+ */
+public interface PersonJpaSlice {
+
+    Slice<Person> findSlice(String search, Color color, Pageable pageable);
+
+    /**
+     * Returns the number of persons containing the search term and having the color, which is cached until the next
+     * save.
+     *
+     * @param search the search term, or null to not filter by it
+     * @param color the color, or null to not filter by it
+     */
+    long countMatching(String search, Color color);
+
+}
@@ -0,0 +1,66 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Finds slices of persons by fetching one person more than the page size, which tells whether a next slice exists
+ * without counting all matching persons. The persons are selected by {@link PersonSearchQuery} as unmanaged persons
+ * and sorted by {@link PersonSearchQuery#orderBy}, with the id as final tie-breaker. Counts for pages are taken with
+ * the same conditions and cached in the {@link PersonCountCache} until the next save.
+ */
+class PersonJpaSliceImpl implements PersonJpaSlice {
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.ASC, "id");
+
+    private final PersonCountCache countCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    PersonJpaSliceImpl(PersonCountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Slice<Person> findSlice(String search, Color color, Pageable pageable) {
+        PersonSearchQuery searchQuery = new PersonSearchQuery(search, color);
+        String sql = "SELECT p.* " + searchQuery.from()
+                + PersonSearchQuery.orderBy(CompiledPersonSort.of(pageable.getSortOr(DEFAULT_SORT)).getKeys());
+        Query query = searchQuery.bind(PersonSearchQuery.createPersonQuery(entityManager, sql));
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+        List<Person> persons = query.setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = persons.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? persons.subList(0, pageable.getPageSize()) : persons, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countMatching(String search, Color color) {
+        PersonSearchQuery searchQuery = new PersonSearchQuery(search, color);
+        return countCache.count(search == null ? null : PersonTrigrams.containsPattern(search), color, () -> {
+            Query query = searchQuery.bind(entityManager.createNativeQuery("SELECT COUNT(*) " + searchQuery.from())
+                    .setHint(AvailableHints.HINT_FLUSH_MODE, FlushMode.MANUAL));
+            return ((Number) query.getSingleResult()).longValue();
+        });
+    }
+
+}
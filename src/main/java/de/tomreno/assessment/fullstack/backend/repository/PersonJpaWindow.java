@@ -0,0 +1,16 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+/**
+ * The keyset pagination of {@link PersonJpaRepository}, implemented by {@link PersonJpaWindowImpl}.
+ */
+public interface PersonJpaWindow {
+
+    Window<Person> findWindow(String search, Color color, Sort sort, KeysetScrollPosition position, int limit);
+
+}
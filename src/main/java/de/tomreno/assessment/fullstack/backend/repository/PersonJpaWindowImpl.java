@@ -0,0 +1,78 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Finds windows of persons by seeking to the sort keys of the position with a condition like
+ * {@code (p.name, p.id) > (:key0, :key1)} instead of skipping rows with an offset. H2 starts the scan of the index of
+ * the first sort key at the value of the position, so a window costs about as much as the first one, except for the
+ * persons sharing the first key value with the position. Sorts mixing directions use the equivalent nested
+ * comparisons, as a row value comparison has a single direction. The persons are selected by
+ * {@link PersonSearchQuery} as unmanaged persons.
+ */
+class PersonJpaWindowImpl implements PersonJpaWindow {
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.ASC, "id");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Window<Person> findWindow(String search, Color color, Sort sort, KeysetScrollPosition position,
+                                     int limit) {
+        List<CompiledPersonSort.SortKey> keys = CompiledPersonSort.of(sort.isSorted() ? sort : DEFAULT_SORT).getKeys();
+        PersonSearchQuery searchQuery = new PersonSearchQuery(search, color);
+        StringBuilder sql = new StringBuilder("SELECT p.* ").append(searchQuery.from());
+        if (!position.isInitial()) {
+            sql.append(" AND ").append(seekCondition(keys));
+        }
+        sql.append(PersonSearchQuery.orderBy(keys));
+        Query query = searchQuery.bind(PersonSearchQuery.createPersonQuery(entityManager, sql.toString()))
+                .setMaxResults(limit + 1);
+        if (!position.isInitial()) {
+            List<Object> values = PersonKeyset.valuesOf(position, keys);
+            for (int i = 0; i < values.size(); i++) {
+                query.setParameter("key" + i, values.get(i));
+            }
+        }
+        return PersonKeyset.windowOf(query.getResultList(), limit, keys);
+    }
+
+    /**
+     * Returns the condition of the rows following the values {@code :key0} to {@code :keyN} in the order of the keys.
+     */
+    private static String seekCondition(List<CompiledPersonSort.SortKey> keys) {
+        Sort.Direction direction = keys.getFirst().direction();
+        if (keys.stream().allMatch(key -> key.direction() == direction)) {
+            String columns = keys.stream().map(key -> "p." + key.property().getProperty())
+                    .collect(Collectors.joining(", "));
+            String values = IntStream.range(0, keys.size()).mapToObj(i -> ":key" + i)
+                    .collect(Collectors.joining(", "));
+            return "(" + columns + ") " + (direction.isAscending() ? ">" : "<") + " (" + values + ")";
+        }
+        String condition = "";
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            String column = "p." + keys.get(i).property().getProperty();
+            String following = column + (keys.get(i).direction().isAscending() ? " > :key" : " < :key") + i;
+            condition = condition.isEmpty()
+                    ? following
+                    : "(" + following + " OR " + column + " = :key" + i + " AND " + condition + ")";
+        }
+        return condition;
+    }
+
+}
@@ -0,0 +1,93 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keyset positions of windows of persons. A position holds the values of all keys of a {@link CompiledPersonSort}
+ * of the last person of a window, by property name, and the next window starts with the first person following these
+ * values in the sort order. As the id is always the last key, the values identify exactly one person.
+ * <p>
+ * Ids are held as {@link Long}, colors by their constant name and all other values as strings.
+ */
+final class PersonKeyset {
+
+    /**
+     * Returns the window of the given persons, which may hold one more than the limit to tell that further persons
+     * follow, with the positions of its persons.
+     */
+    static Window<Person> windowOf(List<Person> persons, int limit, List<CompiledPersonSort.SortKey> keys) {
+        List<Person> content = persons.size() > limit ? persons.subList(0, limit) : persons;
+        return Window.from(content, index -> positionOf(content.get(index), keys), persons.size() > limit);
+    }
+
+    static KeysetScrollPosition positionOf(Person person, List<CompiledPersonSort.SortKey> keys) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (CompiledPersonSort.SortKey key : keys) {
+            values.put(key.property().getProperty(), valueOf(person, key.property()));
+        }
+        return ScrollPosition.forward(values);
+    }
+
+    /**
+     * Returns the values of the given position in the order of the keys.
+     *
+     * @throws IllegalArgumentException if the position lacks a key or holds a value of the wrong type
+     */
+    static List<Object> valuesOf(KeysetScrollPosition position, List<CompiledPersonSort.SortKey> keys) {
+        return keys.stream().map(key -> {
+            Object value = position.getKeys().get(key.property().getProperty());
+            Class<?> type = key.property() == PersonProperty.ID ? Long.class : String.class;
+            if (!type.isInstance(value)) {
+                throw new IllegalArgumentException("Position holds no " + type.getSimpleName() + " value of "
+                        + key.property().getProperty());
+            }
+            return value;
+        }).toList();
+    }
+
+    /**
+     * Returns a person having the values of the given position, which compares to persons like the person the
+     * position was taken from.
+     *
+     * @throws IllegalArgumentException if the position lacks a key or holds an invalid value
+     */
+    static Person personOf(KeysetScrollPosition position, List<CompiledPersonSort.SortKey> keys) {
+        List<Object> values = valuesOf(position, keys);
+        Person person = new Person();
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = values.get(i);
+            switch (keys.get(i).property()) {
+                case ID -> person.setId((Long) value);
+                case NAME -> person.setName((String) value);
+                case LASTNAME -> person.setLastname((String) value);
+                case ZIPCODE -> person.setZipcode((String) value);
+                case CITY -> person.setCity((String) value);
+                case COLOR -> person.setColor(Color.valueOf((String) value));
+            }
+        }
+        return person;
+    }
+
+    private static Object valueOf(Person person, PersonProperty property) {
+        return switch (property) {
+            case ID -> person.getId();
+            case NAME -> person.getName();
+            case LASTNAME -> person.getLastname();
+            case ZIPCODE -> person.getZipcode();
+            case CITY -> person.getCity();
+            case COLOR -> person.getColor().name();
+        };
+    }
+
+    private PersonKeyset() {
+    }
+
+}
@@ -0,0 +1,42 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The sortable properties of a person together with their ascending comparator. Resolving the property once per sort
+ * order avoids dispatching on the property name for every single comparison.
+ */
+enum PersonProperty {
+
+    ID("id", Comparator.comparing(Person::getId)),
+    NAME("name", Comparator.comparing(Person::getName, String.CASE_INSENSITIVE_ORDER)),
+    LASTNAME("lastname", Comparator.comparing(Person::getLastname, String.CASE_INSENSITIVE_ORDER)),
+    ZIPCODE("zipcode", Comparator.comparing(Person::getZipcode)),
+    CITY("city", Comparator.comparing(Person::getCity, String.CASE_INSENSITIVE_ORDER)),
+    COLOR("color", Comparator.comparing(person -> person.getColor().getName(), String.CASE_INSENSITIVE_ORDER));
+
+    private final String property;
+    private final Comparator<Person> comparator;
+
+    PersonProperty(String property, Comparator<Person> comparator) {
+        this.property = property;
+        this.comparator = comparator;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Comparator<Person> getComparator() {
+        return comparator;
+    }
+
+    public static Optional<PersonProperty> fromProperty(String property) {
+        return Stream.of(values()).filter(p -> p.getProperty().equals(property)).findFirst();
+    }
+
+}
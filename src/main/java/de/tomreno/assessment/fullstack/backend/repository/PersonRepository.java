@@ -2,10 +2,16 @@ package de.tomreno.assessment.fullstack.backend.repository;
 
 import de.tomreno.assessment.fullstack.backend.entity.Color;
 import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PersonRepository {
 
@@ -19,6 +25,47 @@ public interface PersonRepository {
 
     Page<Person> findBySearchAndColor(String search, Color color, Pageable pageable);
 
+    /**
+     * Returns a page of the persons containing the search term like {@link #findBySearch} and having the color, but
+     * without their total number, which may be costly to count. Whether a next slice exists is told by fetching one
+     * person more than the page size.
+     *
+     * @param search the search term, or null to not filter by it
+     * @param color the color, or null to not filter by it
+     */
+    Slice<Person> findSlice(String search, Color color, Pageable pageable);
+
+    /**
+     * Returns up to the given number of persons following the given position in the order of the sort, optionally only
+     * those containing the search term like {@link #findBySearch} and having the color. Instead of skipping the persons
+     * of all previous windows like an offset does, the window seeks to the sort keys of the position, so every window
+     * costs about as much as the first one. Persons saved meanwhile are included if they follow the position.
+     *
+     * @param search the search term, or null to not filter by it
+     * @param color the color, or null to not filter by it
+     * @param sort the sort of all windows, which is followed by the id like the sort of a page
+     * @param position the initial position, or a position of the previous window taken with the same sort
+     * @throws IllegalArgumentException if the position does not hold a valid value of every sort key
+     */
+    Window<Person> findWindow(String search, Color color, Sort sort, KeysetScrollPosition position, int limit);
+
     Person save(Person entity);
 
+    /**
+     * Saves the given persons at once, which is faster than saving them one by one. Either all or none of them are
+     * saved.
+     *
+     * @return the saved persons in the given order
+     */
+    List<Person> saveBatch(List<Person> entities);
+
+    /**
+     * Passes all persons containing the search term like {@link #findBySearch} and having the color to the given
+     * action one by one in the order of their ids, without holding all of them in memory at once.
+     *
+     * @param search the search term, or null to not filter by it
+     * @param color the color, or null to not filter by it
+     */
+    void exportAll(String search, Color color, Consumer<? super Person> action);
+
 }
@@ -0,0 +1,88 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.AvailableHints;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The native SQL selecting the persons {@code p} that contain an optional search term and have an optional color.
+ * Terms of at least three characters look up their candidates in the {@link PersonTrigrams} table, and shorter terms
+ * are matched against every person.
+ */
+final class PersonSearchQuery {
+
+    private final String search;
+    private final Color color;
+    private final List<String> trigrams;
+
+    /**
+     * @param search the search term, or null to not filter by it
+     * @param color the color, or null to not filter by it
+     */
+    PersonSearchQuery(String search, Color color) {
+        this.search = search;
+        this.color = color;
+        this.trigrams = search == null ? List.of() : PersonTrigrams.of(search);
+    }
+
+    /**
+     * Returns the {@code FROM} and {@code WHERE} clauses, to which further conditions can be added with {@code AND}.
+     */
+    String from() {
+        StringBuilder sql = new StringBuilder(trigrams.isEmpty() ? "FROM person p" : PersonTrigrams.SEARCH_FROM)
+                .append(" WHERE 1 = 1");
+        if (search != null && trigrams.isEmpty()) {
+            sql.append(" AND ").append(PersonTrigrams.CONTAINS_CONDITION);
+        }
+        if (color != null) {
+            sql.append(" AND p.color = :color");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Sets the parameters of the clauses of {@link #from()} on the given query.
+     */
+    Query bind(Query query) {
+        if (!trigrams.isEmpty()) {
+            query.setParameter("trigrams", trigrams).setParameter("trigramCount", trigrams.size());
+        }
+        if (search != null) {
+            query.setParameter("pattern", PersonTrigrams.containsPattern(search));
+        }
+        if (color != null) {
+            query.setParameter("color", color.name());
+        }
+        return query;
+    }
+
+    /**
+     * Creates a native query of the given SQL selecting all columns of persons, which constructs unmanaged persons by
+     * {@link Person#ROW_MAPPING}. They are neither added to the persistence context nor copied for dirty checking, and
+     * the query does not flush the persistence context before it runs, even within a read-write transaction.
+     */
+    static Query createPersonQuery(EntityManager entityManager, String sql) {
+        return entityManager.createNativeQuery(sql, Person.ROW_MAPPING)
+                .setHint(AvailableHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+    }
+
+    /**
+     * Returns the {@code ORDER BY} clause of the given keys of a {@link CompiledPersonSort}, which sorts by the stored
+     * column values: names and cities case-sensitively, and colors in the declaration order of the {@code color} enum
+     * type (BLUE, GREEN, RED, VIOLET, YELLOW, WHITE). The seek conditions of windows compare the values the same way,
+     * which keeps windows consistent with this order. It differs from the {@link PersonProperty} order of the CSV
+     * repository, which ignores case and sorts colors by their German names.
+     */
+    static String orderBy(List<CompiledPersonSort.SortKey> keys) {
+        return keys.stream()
+                .map(key -> "p." + key.property().getProperty() + (key.direction().isAscending() ? " ASC" : " DESC"))
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+
+}
@@ -0,0 +1,43 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+/**
+ * An immutable, consistent state of the CSV persons and their indexes. Queries read a single snapshot without any
+ * locking, so they never observe a partially applied save or reload. The version increases with every published
+ * snapshot, including those of a reload.
+ *
+ * @param version      the version, increasing with every save and reload
+ * @param columns      the person columns of the rows {@code 0} to {@code size - 1}
+ * @param idIndex      the rows by person id, possibly containing rows of later snapshots
+ * @param colorIndex   the rows by color
+ * @param trigramIndex the rows by trigrams of the searchable fields
+ * @param sortIndex    the rows presorted by every sortable property
+ */
+record PersonSnapshot(long version,
+                      PersonColumns.View columns,
+                      LongIntHashIndex idIndex,
+                      ColorBitmapIndex.View colorIndex,
+                      TrigramIndex.View trigramIndex,
+                      PersonSortIndex sortIndex) {
+
+    int size() {
+        return columns.size();
+    }
+
+    /**
+     * Materializes the person of the given row.
+     */
+    Person person(int row) {
+        return columns.person(row);
+    }
+
+    /**
+     * Returns the row of the person with the given id or {@link LongIntHashIndex#NOT_FOUND}.
+     */
+    int rowOf(long id) {
+        int row = idIndex.get(id);
+        return row < size() ? row : LongIntHashIndex.NOT_FOUND;
+    }
+
+}
@@ -0,0 +1,258 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Presorted row positions for every sortable person property. Each order is ascending by its property and by id, so an
+ * unfiltered single-property sort is answered by slicing the order from the front (ascending) or from the back
+ * (descending) instead of sorting all persons. Rows are compared on the person columns, and persons are only
+ * materialized for the rows of the returned page.
+ * <p>
+ * The index is immutable, so every snapshot of the persons keeps its own index. Each order consists of a large main
+ * array shared between indexes and a small delta array of rows added later. Adding a row copies the delta only and
+ * merges it into a new main array once it exceeds {@link #MAX_DELTA_SIZE} rows.
+ */
+final class PersonSortIndex {
+
+    static final int MAX_DELTA_SIZE = 1024;
+
+    private record Order(int[] main, int[] delta) {
+
+        int size() {
+            return main.length + delta.length;
+        }
+
+    }
+
+    private final Map<PersonProperty, Order> orders;
+    private final int size;
+
+    PersonSortIndex(PersonColumns.View columns) {
+        this.orders = new EnumMap<>(PersonProperty.class);
+        this.size = columns.size();
+        for (PersonProperty property : PersonProperty.values()) {
+            int[] order = new int[size];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            IntArrays.sort(order, comparatorOf(property, columns));
+            orders.put(property, new Order(order, new int[0]));
+        }
+    }
+
+    private PersonSortIndex(Map<PersonProperty, Order> orders, int size) {
+        this.orders = orders;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a new index that additionally contains the given row, which must be the next row of the columns.
+     */
+    PersonSortIndex add(int row, PersonColumns.View columns) {
+        if (row != size) {
+            throw new IllegalArgumentException("Expected row " + size + " but got " + row);
+        }
+        Map<PersonProperty, Order> added = new EnumMap<>(PersonProperty.class);
+        for (PersonProperty property : PersonProperty.values()) {
+            IntArrays.IntComparator comparator = comparatorOf(property, columns);
+            Order order = orders.get(property);
+            int[] delta = insert(order.delta(), row, comparator);
+            added.put(property, delta.length > MAX_DELTA_SIZE
+                    ? new Order(merge(order.main(), delta, comparator), new int[0])
+                    : new Order(order.main(), delta));
+        }
+        return new PersonSortIndex(added, size + 1);
+    }
+
+    Page<Person> page(CompiledPersonSort.SortKey key, Pageable pageable, PersonColumns.View columns) {
+        Order order = orders.get(key.property());
+        IntArrays.IntComparator comparator = comparatorOf(key.property(), columns);
+        int total = size;
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+        int to = pageable.isPaged() ? (int) Math.min((long) from + pageable.getPageSize(), total) : total;
+        List<Person> content = new ArrayList<>(to - from);
+        boolean ascending = key.direction().isAscending();
+        walk(order, ascending ? from : total - 1 - from, ascending, comparator,
+                row -> add(content, columns.person(row), to - from));
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Walks the presorted order and collects the requested page out of the rows accepted by the given filter. This only
+     * touches rows up to the end of the requested page, so it suits filters backed by an index that also knows the total
+     * number of accepted rows.
+     */
+    Page<Person> page(CompiledPersonSort.SortKey key, Pageable pageable, IntPredicate filter, int total,
+                      PersonColumns.View columns) {
+        Order order = orders.get(key.property());
+        IntArrays.IntComparator comparator = comparatorOf(key.property(), columns);
+        long[] skip = {pageable.isPaged() ? pageable.getOffset() : 0};
+        int limit = pageable.isPaged() ? pageable.getPageSize() : total;
+        boolean ascending = key.direction().isAscending();
+        List<Person> content = new ArrayList<>(Math.min(limit, total));
+        walk(order, ascending ? 0 : size - 1, ascending, comparator, row -> {
+            if (!filter.test(row) || skip[0]-- > 0) {
+                return content.size() < limit;
+            }
+            return add(content, columns.person(row), limit);
+        });
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Collects up to the given number of rows accepted by the filter that follow a cursor in the presorted order of the
+     * key. The first row following the cursor is found by binary search, so only the rows up to the end of the window
+     * are touched, wherever the cursor is.
+     *
+     * @param toCursor compares a row to the cursor in the order of the key, or null to start with the first row
+     */
+    List<Person> window(CompiledPersonSort.SortKey key, IntUnaryOperator toCursor, IntPredicate filter, int limit,
+                        PersonColumns.View columns) {
+        Order order = orders.get(key.property());
+        IntArrays.IntComparator comparator = comparatorOf(key.property(), columns);
+        boolean ascending = key.direction().isAscending();
+        int start;
+        if (toCursor == null) {
+            start = ascending ? 0 : size - 1;
+        } else if (ascending) {
+            start = countPrefix(order, row -> toCursor.applyAsInt(row) <= 0);
+        } else {
+            start = countPrefix(order, row -> toCursor.applyAsInt(row) > 0) - 1;
+        }
+        List<Person> content = new ArrayList<>(Math.min(limit, size));
+        walk(order, start, ascending, comparator, row -> !filter.test(row) || add(content, columns.person(row), limit));
+        return content;
+    }
+
+    /**
+     * Returns the number of rows of the order accepted by the given predicate, which must accept a prefix of both the
+     * main and the delta array.
+     */
+    private static int countPrefix(Order order, IntPredicate predicate) {
+        return countPrefix(order.main(), predicate) + countPrefix(order.delta(), predicate);
+    }
+
+    private static int countPrefix(int[] rows, IntPredicate predicate) {
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (predicate.test(rows[middle])) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean add(List<Person> content, Person person, int limit) {
+        if (content.size() < limit) {
+            content.add(person);
+        }
+        return content.size() < limit;
+    }
+
+    /**
+     * Visits the rows of the merged main and delta arrays starting at the given position, either towards the end or
+     * towards the beginning, until the visitor returns false. The start is found by binary search, so the costs depend
+     * on the number of visited rows only.
+     */
+    private static void walk(Order order, int start, boolean ascending, IntArrays.IntComparator comparator,
+                             IntPredicate visitor) {
+        int[] main = order.main();
+        int[] delta = order.delta();
+        if (start < 0 || start >= order.size()) {
+            return;
+        }
+        if (ascending) {
+            int i = split(main, delta, start, comparator);
+            int j = start - i;
+            while (i < main.length || j < delta.length) {
+                boolean fromMain = j == delta.length || i < main.length && comparator.compare(main[i], delta[j]) < 0;
+                if (!visitor.test(fromMain ? main[i++] : delta[j++])) {
+                    return;
+                }
+            }
+        } else {
+            int i = split(main, delta, start + 1, comparator) - 1;
+            int j = start - i - 1;
+            while (i >= 0 || j >= 0) {
+                boolean fromMain = j < 0 || i >= 0 && comparator.compare(main[i], delta[j]) > 0;
+                if (!visitor.test(fromMain ? main[i--] : delta[j--])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns how many of the first {@code k} rows of the merged order come from the main array.
+     */
+    private static int split(int[] main, int[] delta, int k, IntArrays.IntComparator comparator) {
+        int low = Math.max(0, k - delta.length);
+        int high = Math.min(k, main.length);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(main[middle], delta[k - middle - 1]) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int[] insert(int[] order, int row, IntArrays.IntComparator comparator) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(order[middle], row) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int[] inserted = new int[order.length + 1];
+        System.arraycopy(order, 0, inserted, 0, low);
+        inserted[low] = row;
+        System.arraycopy(order, low, inserted, low + 1, order.length - low);
+        return inserted;
+    }
+
+    private static int[] merge(int[] main, int[] delta, IntArrays.IntComparator comparator) {
+        int[] merged = new int[main.length + delta.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            boolean fromMain = j == delta.length || i < main.length && comparator.compare(main[i], delta[j]) < 0;
+            merged[k] = fromMain ? main[i++] : delta[j++];
+        }
+        return merged;
+    }
+
+    private static IntArrays.IntComparator comparatorOf(PersonProperty property, PersonColumns.View columns) {
+        IntArrays.IntComparator comparator = columns.comparator(property);
+        IntArrays.IntComparator ids = columns.comparator(PersonProperty.ID);
+        return (a, b) -> {
+            int result = comparator.compare(a, b);
+            return result != 0 ? result : ids.compare(a, b);
+        };
+    }
+
+}
@@ -0,0 +1,123 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import de.tomreno.assessment.fullstack.backend.parser.PersonCsvParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The single writer of the CSV persons and their indexes. Persons are stored in {@link PersonColumns}, and every change
+ * publishes a new {@link PersonSnapshot} through a volatile field, so readers only see completely applied changes.
+ * Callers have to serialize calls to {@link #append(Person)} and {@link #appendAll(List)}.
+ */
+final class PersonStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final PersonColumns columns;
+    private final LongIntHashIndex idIndex;
+    private final ColorBitmapIndex colorIndex = new ColorBitmapIndex();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private PersonSortIndex sortIndex;
+    private long version;
+
+    private volatile PersonSnapshot snapshot;
+
+    /**
+     * Reads all persons of a source into a consumer, like {@link PersonCsvParser#readFromCsv(Consumer)}.
+     */
+    @FunctionalInterface
+    interface PersonSource {
+
+        void readInto(Consumer<? super Person> consumer) throws IOException;
+
+    }
+
+    /**
+     * Creates a store holding the given persons in columns of the given storage, whose first snapshot has the given
+     * version.
+     */
+    PersonStore(List<Person> loadedPersons, AppCsvPersonProps.Storage storage, long version) {
+        this(storage, loadedPersons.size(), version);
+        loadedPersons.forEach(this::load);
+        completeLoad();
+    }
+
+    private PersonStore(AppCsvPersonProps.Storage storage, int expectedSize, long version) {
+        this.columns = PersonColumns.create(storage, expectedSize);
+        this.idIndex = new LongIntHashIndex(expectedSize);
+        this.version = version;
+    }
+
+    /**
+     * Creates a store holding the persons of the given source like {@link #PersonStore(List, AppCsvPersonProps.Storage,
+     * long)}, but adds every person to the columns and indexes while the source reads it, so the persons are never
+     * held in a list.
+     */
+    static PersonStore load(PersonSource source, AppCsvPersonProps.Storage storage, long version) throws IOException {
+        PersonStore store = new PersonStore(storage, INITIAL_CAPACITY, version);
+        source.readInto(store::load);
+        store.completeLoad();
+        return store;
+    }
+
+    PersonSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Appends the given person as the next row and publishes a new snapshot containing it.
+     */
+    PersonSnapshot append(Person person) {
+        add(person);
+        version++;
+        return publish();
+    }
+
+    /**
+     * Appends the given persons as the next rows and publishes a single new snapshot containing all of them.
+     */
+    PersonSnapshot appendAll(List<Person> persons) {
+        persons.forEach(this::add);
+        version++;
+        return publish();
+    }
+
+    private void add(Person person) {
+        if (idIndex.get(person.getId()) != LongIntHashIndex.NOT_FOUND) {
+            throw new IllegalArgumentException("Duplicate person id " + person.getId());
+        }
+        int row = columns.add(person);
+        index(row, person);
+        sortIndex = sortIndex.add(row, columns.view(columns.size()));
+    }
+
+    private void load(Person person) {
+        index(columns.add(person), person);
+    }
+
+    private void completeLoad() {
+        trigramIndex.trimToSize();
+        sortIndex = new PersonSortIndex(columns.view(columns.size()));
+        publish();
+    }
+
+    private void index(int row, Person person) {
+        idIndex.put(person.getId(), row);
+        colorIndex.add(row, person.getColor());
+        trigramIndex.add(row, person.getName(), person.getLastname(), person.getZipcode(), person.getCity());
+    }
+
+    private PersonSnapshot publish() {
+        int size = columns.size();
+        PersonColumns.View view = columns.view(size);
+        PersonSnapshot published = new PersonSnapshot(version, view, idIndex, colorIndex.view(size),
+                trigramIndex.view(size, view::matcher), sortIndex);
+        snapshot = published;
+        return published;
+    }
+
+}
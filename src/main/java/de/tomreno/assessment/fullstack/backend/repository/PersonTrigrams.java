@@ -0,0 +1,133 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The trigrams of the {@code person_term_trigram} table, which holds the trigrams of the lowercased distinct values of
+ * the name, lastname, zipcode and city of all persons. A value containing a search term has all trigrams of the
+ * lowercased term, so searches for terms of at least three characters only verify the few values having all of them,
+ * and then look up the persons having one of the matching values by the indexes of these fields.
+ */
+final class PersonTrigrams {
+
+    static final int GRAM_LENGTH = 3;
+
+    /**
+     * Adds a row of {@link #rowsOf(Collection)} unless the table already holds it, which is checked by primary key.
+     */
+    static final String INSERT_SQL = """
+            INSERT INTO person_term_trigram (trigram, field, term)
+            SELECT ?1, ?2, ?3 WHERE NOT EXISTS (
+                SELECT 1 FROM person_term_trigram t WHERE t.trigram = ?1 AND t.field = ?2 AND t.term = ?3)""";
+
+    /**
+     * The condition of persons containing the escaped, lowercased {@code :pattern} in one of the searched fields, which
+     * is matched against every person.
+     */
+    static final String CONTAINS_CONDITION = """
+            (LOWER(p.name) LIKE :pattern ESCAPE '\\' OR LOWER(p.lastname) LIKE :pattern ESCAPE '\\'
+            OR p.zipcode LIKE :pattern ESCAPE '\\' OR LOWER(p.city) LIKE :pattern ESCAPE '\\')""";
+
+    /**
+     * The persons having a value matching {@link #CONTAINS_CONDITION} in one of the searched fields, which is only
+     * matched against the values having all {@code :trigramCount} distinct {@code :trigrams}. The persons having a
+     * matching value are looked up by the index of its field.
+     */
+    static final String TRIGRAM_MATCHES = """
+            SELECT m.* FROM person m WHERE m.name IN (
+                SELECT t.term FROM person_term_trigram t
+                WHERE t.trigram IN (:trigrams) AND t.field = 'name'
+                AND LOWER(t.term) LIKE :pattern ESCAPE '\\'
+                GROUP BY t.term HAVING COUNT(*) = :trigramCount)
+            UNION
+            SELECT m.* FROM person m WHERE m.lastname IN (
+                SELECT t.term FROM person_term_trigram t
+                WHERE t.trigram IN (:trigrams) AND t.field = 'lastname'
+                AND LOWER(t.term) LIKE :pattern ESCAPE '\\'
+                GROUP BY t.term HAVING COUNT(*) = :trigramCount)
+            UNION
+            SELECT m.* FROM person m WHERE m.zipcode IN (
+                SELECT t.term FROM person_term_trigram t
+                WHERE t.trigram IN (:trigrams) AND t.field = 'zipcode'
+                AND LOWER(t.term) LIKE :pattern ESCAPE '\\'
+                GROUP BY t.term HAVING COUNT(*) = :trigramCount)
+            UNION
+            SELECT m.* FROM person m WHERE m.city IN (
+                SELECT t.term FROM person_term_trigram t
+                WHERE t.trigram IN (:trigrams) AND t.field = 'city'
+                AND LOWER(t.term) LIKE :pattern ESCAPE '\\'
+                GROUP BY t.term HAVING COUNT(*) = :trigramCount)""";
+
+    /**
+     * The persons of {@link #TRIGRAM_MATCHES} as {@code p}. They are selected from a derived table, as H2 evaluates an
+     * {@code IN} condition on a union again for every row it is tested against.
+     */
+    static final String SEARCH_FROM = "FROM (" + TRIGRAM_MATCHES + ") p";
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Returns the distinct trigrams of the lowercased search term, or none if it is shorter than a trigram.
+     */
+    static List<String> of(String search) {
+        String term = search.toLowerCase();
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            trigrams.add(term.substring(i, i + GRAM_LENGTH));
+        }
+        return List.copyOf(trigrams);
+    }
+
+    /**
+     * Returns the {@code trigram, field, term} rows of the distinct values of the given persons for {@link #INSERT_SQL}.
+     * As persons share most of their values, every value is split into trigrams once, however many persons have it.
+     */
+    static List<Object[]> rowsOf(Collection<? extends Person> persons) {
+        Map<String, Set<String>> termsByField = new LinkedHashMap<>();
+        for (Person person : persons) {
+            termsByField.computeIfAbsent("name", field -> new HashSet<>()).add(person.getName());
+            termsByField.computeIfAbsent("lastname", field -> new HashSet<>()).add(person.getLastname());
+            termsByField.computeIfAbsent("zipcode", field -> new HashSet<>()).add(person.getZipcode());
+            termsByField.computeIfAbsent("city", field -> new HashSet<>()).add(person.getCity());
+        }
+        List<Object[]> rows = new ArrayList<>();
+        termsByField.forEach((field, terms) -> {
+            for (String term : terms) {
+                for (String trigram : of(term)) {
+                    rows.add(new Object[]{trigram, field, term});
+                }
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * Returns a pattern for {@code LIKE ... ESCAPE '\'} matching values that contain the lowercased search term, in
+     * which wildcards of the term match themselves.
+     */
+    static String containsPattern(String search) {
+        String term = search.toLowerCase();
+        StringBuilder pattern = new StringBuilder(term.length() + 2).append('%');
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private PersonTrigrams() {
+    }
+
+}
@@ -0,0 +1,14 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+
+import java.util.List;
+
+/**
+ * Published by the CSV repository when its persons changed other than by its saves, which the
+ * {@link CachingPersonRepository} does not see.
+ *
+ * @param appended the persons read from entries appended to the CSV files, or null if all CSV files were read again
+ */
+record PersonsChangedEvent(List<Person> appended) {
+}
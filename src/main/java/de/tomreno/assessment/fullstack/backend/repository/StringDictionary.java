@@ -0,0 +1,57 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns dense int codes to distinct strings, so a column of heavily repeating values such as cities is stored as an
+ * int per row plus every distinct value once. Codes are assigned by a single writer, while readers decode through the
+ * value arrays returned before, which only ever grow beyond the codes assigned so far.
+ */
+final class StringDictionary {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[INITIAL_CAPACITY];
+    private String[] lowercaseValues = new String[INITIAL_CAPACITY];
+
+    /**
+     * Returns the code of the given value, assigning the next code if the value is new.
+     */
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        int next = codes.size();
+        if (next == values.length) {
+            values = Arrays.copyOf(values, next * 2);
+            lowercaseValues = Arrays.copyOf(lowercaseValues, next * 2);
+        }
+        values[next] = value;
+        lowercaseValues[next] = value.toLowerCase();
+        codes.put(value, next);
+        return next;
+    }
+
+    int size() {
+        return codes.size();
+    }
+
+    /**
+     * Returns the values by code, containing at least all codes assigned so far.
+     */
+    String[] values() {
+        return values;
+    }
+
+    /**
+     * Returns the lowercased values by code, containing at least all codes assigned so far.
+     */
+    String[] lowercaseValues() {
+        return lowercaseValues;
+    }
+
+}
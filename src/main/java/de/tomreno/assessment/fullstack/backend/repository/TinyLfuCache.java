@@ -0,0 +1,377 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A cache bounded by the number of its entries and by their total weight, which admits and evicts entries like
+ * W-TinyLFU. New entries enter a small LRU window of one percent of both bounds. Entries leaving the window move to the
+ * probation segment of the main space, where the least recently used entry competes with the newest one whenever the
+ * cache exceeds a bound: the one requested less often according to a {@link FrequencySketch} is evicted, the victim on
+ * a tie. Entries requested again while on probation move to the protected segment of up to 80 percent of the main
+ * space, whose least recently used entries are demoted to probation again. So a burst of one-off requests passes
+ * through the window without displacing the entries requested over and over.
+ * <p>
+ * Every removal other than eviction starts a new generation, and {@link #put} only stores values loaded in the current
+ * generation, so a value loaded before an invalidation and stored after it is never returned. All operations are
+ * serialized by the monitor of the cache, which is held only for the bookkeeping, never while loading a value.
+ *
+ * @param <K> the type of the keys, whose hash code feeds the frequency sketch
+ * @param <V> the type of the values
+ */
+final class TinyLfuCache<K, V> {
+
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+
+    private enum Segment {
+        WINDOW,
+        PROBATION,
+        PROTECTED
+    }
+
+    private static final class Node<K, V> {
+
+        private final K key;
+        private V value;
+        private int weight;
+        private Segment segment;
+        private Node<K, V> previous;
+        private Node<K, V> next;
+
+        private Node(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+
+    }
+
+    /**
+     * The entries of a segment from the least to the most recently used one, together with their number and weight.
+     */
+    private static final class AccessOrder<K, V> {
+
+        private Node<K, V> first;
+        private Node<K, V> last;
+        private int size;
+        private long weight;
+
+        private void addLast(Node<K, V> node) {
+            node.previous = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            size++;
+            weight += node.weight;
+        }
+
+        private void remove(Node<K, V> node) {
+            if (node.previous == null) {
+                first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            size--;
+            weight -= node.weight;
+        }
+
+        private void moveToLast(Node<K, V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+    }
+
+    /**
+     * Estimates how often keys were requested recently by a count-min sketch of four 4-bit counters per key. Once ten
+     * times as many requests as there are counters per row were counted, all counters are halved, so the estimates
+     * follow changing popularity.
+     */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final int MAX_COUNT = 15;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedSize) {
+            int length = Math.max(Integer.highestOneBit(Math.max(expectedSize, 16) - 1) << 1, 16);
+            table = new long[length];
+            sampleSize = 10 * length;
+        }
+
+        int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long h = indexHash(hash, i);
+                frequency = Math.min(frequency, (int) (table[index(h)] >>> offset(h)) & MAX_COUNT);
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long h = indexHash(hash, i);
+                int index = index(h);
+                int offset = offset(h);
+                if (((table[index] >>> offset) & MAX_COUNT) < MAX_COUNT) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions >>>= 1;
+            }
+        }
+
+        private static long indexHash(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            return h ^ (h >>> 32);
+        }
+
+        private int index(long h) {
+            return (int) (h >>> 4) & (table.length - 1);
+        }
+
+        private static int offset(long h) {
+            return (int) (h & 15) << 2;
+        }
+
+    }
+
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedOrder = new AccessOrder<>();
+    private final FrequencySketch sketch;
+    private final ToIntFunction<? super V> weigher;
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final int windowMaximumSize;
+    private final long windowMaximumWeight;
+    private final int protectedMaximumSize;
+    private final long protectedMaximumWeight;
+
+    private long generation;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long evictionCount;
+    private long removalCount;
+
+    /**
+     * @param maximumSize the maximum number of entries
+     * @param maximumWeight the maximum total weight of all entries, where heavier entries are not cached at all
+     * @param weigher the non-negative weight of a value
+     */
+    TinyLfuCache(int maximumSize, long maximumWeight, ToIntFunction<? super V> weigher) {
+        if (maximumSize < 1 || maximumWeight < 1) {
+            throw new IllegalArgumentException("Maximum size and weight must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(maximumSize);
+        this.windowMaximumSize = Math.max(1, maximumSize * WINDOW_PERCENT / 100);
+        this.windowMaximumWeight = Math.max(1, maximumWeight * WINDOW_PERCENT / 100);
+        this.protectedMaximumSize = (maximumSize - windowMaximumSize) * PROTECTED_PERCENT / 100;
+        this.protectedMaximumWeight = (maximumWeight - windowMaximumWeight) * PROTECTED_PERCENT / 100;
+    }
+
+    /**
+     * Returns the value of the given key, or null if it is not cached. Either way, the request is counted by the
+     * frequency sketch.
+     */
+    synchronized V get(K key) {
+        sketch.increment(key.hashCode());
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        switch (node.segment) {
+            case WINDOW -> window.moveToLast(node);
+            case PROBATION -> {
+                probation.remove(node);
+                node.segment = Segment.PROTECTED;
+                protectedOrder.addLast(node);
+                demoteProtected();
+            }
+            case PROTECTED -> protectedOrder.moveToLast(node);
+        }
+        return node.value;
+    }
+
+    /**
+     * Returns the current generation, which has to be passed to {@link #put} with the value loaded afterwards.
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches the given value, unless the cache was invalidated since the given generation was taken or the value is
+     * heavier than the maximum weight, and evicts entries while a bound is exceeded.
+     *
+     * @return whether the value was cached, which it may no longer be once this method returns
+     */
+    synchronized boolean put(K key, V value, long loadedGeneration) {
+        int weight = weigher.applyAsInt(value);
+        if (loadedGeneration != generation) {
+            return false;
+        }
+        Node<K, V> node = nodes.get(key);
+        if (weight > maximumWeight) {
+            if (node != null) {
+                nodes.remove(key);
+                orderOf(node.segment).remove(node);
+            }
+            return false;
+        }
+        putCount++;
+        if (node != null) {
+            AccessOrder<K, V> order = orderOf(node.segment);
+            order.remove(node);
+            node.value = value;
+            node.weight = weight;
+            order.addLast(node);
+        } else {
+            node = new Node<>(key, value, weight);
+            node.segment = Segment.WINDOW;
+            nodes.put(key, node);
+            window.addLast(node);
+        }
+        evict();
+        return true;
+    }
+
+    /**
+     * Removes all entries matching the given predicate and starts a new generation.
+     *
+     * @return the number of removed entries
+     */
+    synchronized int removeIf(BiPredicate<? super K, ? super V> predicate) {
+        generation++;
+        int removed = 0;
+        for (Iterator<Node<K, V>> iterator = nodes.values().iterator(); iterator.hasNext(); ) {
+            Node<K, V> node = iterator.next();
+            if (predicate.test(node.key, node.value)) {
+                iterator.remove();
+                orderOf(node.segment).remove(node);
+                removed++;
+            }
+        }
+        removalCount += removed;
+        return removed;
+    }
+
+    /**
+     * Removes all entries and starts a new generation.
+     */
+    synchronized void clear() {
+        removeIf((key, value) -> true);
+    }
+
+    synchronized int size() {
+        return nodes.size();
+    }
+
+    synchronized long weight() {
+        return window.weight + probation.weight + protectedOrder.weight;
+    }
+
+    synchronized long hitCount() {
+        return hitCount;
+    }
+
+    synchronized long missCount() {
+        return missCount;
+    }
+
+    synchronized long putCount() {
+        return putCount;
+    }
+
+    /**
+     * Returns the number of entries evicted to keep the cache within its bounds, which excludes removed entries.
+     */
+    synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of entries removed by {@link #removeIf} and {@link #clear}.
+     */
+    synchronized long removalCount() {
+        return removalCount;
+    }
+
+    private void evict() {
+        demoteProtected();
+        while (window.size > windowMaximumSize || window.weight > windowMaximumWeight) {
+            Node<K, V> node = window.first;
+            window.remove(node);
+            node.segment = Segment.PROBATION;
+            probation.addLast(node);
+        }
+        while (nodes.size() > maximumSize || weight() > maximumWeight) {
+            Node<K, V> victim = probation.first;
+            if (victim == null) {
+                victim = protectedOrder.first != null ? protectedOrder.first : window.first;
+            } else {
+                Node<K, V> candidate = probation.last;
+                if (candidate != victim
+                        && sketch.frequency(candidate.key.hashCode()) <= sketch.frequency(victim.key.hashCode())) {
+                    victim = candidate;
+                }
+            }
+            nodes.remove(victim.key);
+            orderOf(victim.segment).remove(victim);
+            evictionCount++;
+        }
+    }
+
+    private void demoteProtected() {
+        while (protectedOrder.size > protectedMaximumSize || protectedOrder.weight > protectedMaximumWeight) {
+            Node<K, V> node = protectedOrder.first;
+            protectedOrder.remove(node);
+            node.segment = Segment.PROBATION;
+            probation.addLast(node);
+        }
+    }
+
+    private AccessOrder<K, V> orderOf(Segment segment) {
+        return switch (segment) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            case PROTECTED -> protectedOrder;
+        };
+    }
+
+}
@@ -0,0 +1,235 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * An inverted index from lowercased trigrams to the rows containing them in any of their indexed fields. A search for
+ * a term of at least three characters intersects the posting lists of the term's trigrams and only verifies the
+ * remaining candidates, while shorter terms are verified against every row. Verification is left to a
+ * {@link RowMatcher}, so the index itself does not keep a copy of the field values.
+ * <p>
+ * Lowercasing uses {@link String#toLowerCase()} on both the field values and the search term, so a row matches exactly
+ * if one of its fields contains the term ignoring case.
+ * <p>
+ * Rows are added by a single writer, while readers search a {@link View} of the rows published so far. Posting lists
+ * only grow at their end, so a view reads the postings of its rows and stops at the first row beyond its size.
+ */
+final class TrigramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final LongIntHashIndex grams = new LongIntHashIndex();
+    private volatile PostingList[] postings = new PostingList[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Indexes the given field values of the next row. Rows have to be added in ascending order without gaps.
+     */
+    void add(int row, String... fieldValues) {
+        if (row != size) {
+            throw new IllegalArgumentException("Expected row " + size + " but got " + row);
+        }
+        for (String fieldValue : fieldValues) {
+            String value = fieldValue.toLowerCase();
+            for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+                addPosting(gramOf(value, i), row);
+            }
+        }
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Shrinks all posting lists to their size, which is worth it after a bulk load as posting lists grow by doubling.
+     */
+    void trimToSize() {
+        PostingList[] current = postings;
+        for (int slot = 0; slot < grams.size(); slot++) {
+            current[slot].trimToSize();
+        }
+    }
+
+    /**
+     * Returns a view of all rows below the given size, which must not exceed the number of rows added so far. The view
+     * verifies candidate rows with the given matcher.
+     */
+    View view(int size, RowMatcher matcher) {
+        return new View(this, matcher, size);
+    }
+
+    /**
+     * Creates predicates telling whether one of the indexed fields of a row contains a lowercased term.
+     */
+    @FunctionalInterface
+    interface RowMatcher {
+
+        IntPredicate forTerm(String lowercaseTerm);
+
+    }
+
+    static final class View {
+
+        private final TrigramIndex index;
+        private final RowMatcher rowMatcher;
+        private final int size;
+
+        private View(TrigramIndex index, RowMatcher rowMatcher, int size) {
+            this.index = index;
+            this.rowMatcher = rowMatcher;
+            this.size = size;
+        }
+
+        /**
+         * Tells whether rows for the given search term are looked up via posting lists rather than by verifying all
+         * rows.
+         */
+        boolean isIndexed(String search) {
+            return search.toLowerCase().length() >= GRAM_LENGTH;
+        }
+
+        /**
+         * Returns the rows whose fields contain the given search term ignoring case, in ascending order.
+         */
+        IntStream rows(String search) {
+            String term = search.toLowerCase();
+            if (term.length() < GRAM_LENGTH) {
+                return IntStream.range(0, size).filter(rowMatcher.forTerm(term));
+            }
+            PostingList[] lists = postingListsOf(term);
+            if (lists.length == 0) {
+                return IntStream.empty();
+            }
+            int[] candidates = lists[0].rowsBelow(size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = lists[i].retain(candidates, count);
+            }
+            return Arrays.stream(candidates, 0, count).filter(rowMatcher.forTerm(term));
+        }
+
+        /**
+         * Returns a predicate telling whether a row's fields contain the given search term ignoring case.
+         */
+        IntPredicate matcher(String search) {
+            IntPredicate matcher = rowMatcher.forTerm(search.toLowerCase());
+            return row -> row < size && matcher.test(row);
+        }
+
+        /**
+         * Returns the posting lists of all distinct trigrams of the term ordered by size, or an empty array if one of
+         * the trigrams does not occur at all.
+         */
+        private PostingList[] postingListsOf(String term) {
+            PostingList[] allPostings = index.postings;
+            int[] slots = new int[term.length() - GRAM_LENGTH + 1];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = index.grams.get(gramOf(term, i));
+                if (slots[i] == LongIntHashIndex.NOT_FOUND || slots[i] >= allPostings.length ||
+                        allPostings[slots[i]] == null) {
+                    return new PostingList[0];
+                }
+            }
+            return Arrays.stream(slots).distinct()
+                    .mapToObj(slot -> allPostings[slot])
+                    .sorted(Comparator.comparingInt(PostingList::size))
+                    .toArray(PostingList[]::new);
+        }
+
+    }
+
+    private void addPosting(long gram, int row) {
+        int slot = grams.get(gram);
+        if (slot == LongIntHashIndex.NOT_FOUND) {
+            slot = grams.size();
+            PostingList[] current = postings;
+            if (slot == current.length) {
+                current = Arrays.copyOf(current, slot * 2);
+            }
+            current[slot] = new PostingList();
+            postings = current;
+            grams.put(gram, slot);
+        }
+        postings[slot].add(row);
+    }
+
+    private static long gramOf(String value, int offset) {
+        return (long) value.charAt(offset) << 32 | (long) value.charAt(offset + 1) << 16 | value.charAt(offset + 2);
+    }
+
+    /**
+     * The ascending rows containing one trigram. The writer replaces the rows array before it writes the volatile size,
+     * so a reader that reads the size first always gets an array holding at least that many rows.
+     */
+    private static final class PostingList {
+
+        private int[] rows = new int[4];
+        private volatile int size;
+
+        void add(int row) {
+            int count = size;
+            if (count > 0 && rows[count - 1] == row) {
+                return;
+            }
+            if (count == rows.length) {
+                rows = Arrays.copyOf(rows, count * 2);
+            }
+            rows[count] = row;
+            size = count + 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void trimToSize() {
+            rows = Arrays.copyOf(rows, Math.max(1, size));
+        }
+
+        int[] rowsBelow(int limit) {
+            int count = size;
+            if (count == 0) {
+                return new int[0];
+            }
+            int[] current = rows;
+            int end = 0;
+            while (end < count && current[end] < limit) {
+                end++;
+            }
+            return Arrays.copyOf(current, end);
+        }
+
+        /**
+         * Keeps only those of the first {@code count} ascending candidates that are also contained in this list and
+         * returns the number of remaining candidates.
+         */
+        int retain(int[] candidates, int count) {
+            int listSize = size;
+            if (listSize == 0) {
+                return 0;
+            }
+            int[] list = rows;
+            int remaining = 0;
+            int j = 0;
+            for (int i = 0; i < count && j < listSize; i++) {
+                int candidate = candidates[i];
+                while (j < listSize && list[j] < candidate) {
+                    j++;
+                }
+                if (j < listSize && list[j] == candidate) {
+                    candidates[remaining++] = candidate;
+                }
+            }
+            return remaining;
+        }
+
+    }
+
+}
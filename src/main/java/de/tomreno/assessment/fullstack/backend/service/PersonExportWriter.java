@@ -0,0 +1,59 @@
+package de.tomreno.assessment.fullstack.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonLineFormat;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import de.tomreno.assessment.fullstack.backend.mapper.PersonMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the rows of an export one person per line. CSV lines are written like the entries of the CSV files, so an
+ * export can be imported again, while JSON lines hold the persons as they are returned by the other endpoints. Nothing
+ * is flushed, which is left to the given writer's buffer and the caller.
+ */
+final class PersonExportWriter {
+
+    private static final char CSV_SEPARATOR = ',';
+
+    private final Writer writer;
+    private final PersonLineFormat format;
+    private final PersonMapper personMapper;
+    private final ObjectWriter jsonWriter;
+
+    PersonExportWriter(Writer writer, PersonLineFormat format, PersonMapper personMapper, ObjectMapper objectMapper) {
+        this.writer = writer;
+        this.format = format;
+        this.personMapper = personMapper;
+        this.jsonWriter = objectMapper.writerFor(PersonDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    void write(Person person) throws IOException {
+        if (format == PersonLineFormat.CSV) {
+            writeCsv(person);
+        } else {
+            jsonWriter.writeValue(writer, personMapper.toDto(person));
+        }
+        writer.write('\n');
+    }
+
+    private void writeCsv(Person person) throws IOException {
+        writer.write(person.getLastname());
+        writer.write(CSV_SEPARATOR);
+        writer.write(person.getName());
+        writer.write(CSV_SEPARATOR);
+        writer.write(person.getZipcode());
+        writer.write(' ');
+        writer.write(person.getCity());
+        writer.write(CSV_SEPARATOR);
+        writer.write(Integer.toString(person.getColor().getId()));
+    }
+
+}
@@ -0,0 +1,105 @@
+package de.tomreno.assessment.fullstack.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import de.tomreno.assessment.fullstack.backend.domain.ColorDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonLineFormat;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonSaveDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the rows of an import one line at a time, so only the current line is held in memory. Blank lines are skipped,
+ * but counted, so row numbers are line numbers.
+ */
+final class PersonImportReader {
+
+    private static final int CSV_COLUMN_COUNT = 4;
+
+    /**
+     * A row, which holds either the person read from it or the reason it could not be read.
+     */
+    record Row(long number, PersonSaveDto person, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final PersonLineFormat format;
+    private final ObjectReader jsonReader;
+    private long lineNumber;
+
+    PersonImportReader(Reader reader, PersonLineFormat format, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.format = format;
+        this.jsonReader = objectMapper.readerFor(PersonSaveDto.class);
+    }
+
+    /**
+     * Returns the next non-blank row, or null at the end of the input.
+     */
+    Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        try {
+            return new Row(lineNumber, format == PersonLineFormat.CSV ? readCsv(line) : readJson(line), null);
+        } catch (IllegalArgumentException e) {
+            return new Row(lineNumber, null, e.getMessage());
+        }
+    }
+
+    private PersonSaveDto readJson(String line) {
+        try {
+            return jsonReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static PersonSaveDto readCsv(String line) {
+        List<String> columns = new ArrayList<>(CSV_COLUMN_COUNT);
+        int start = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i == line.length() || isSeparator(line.charAt(i))) {
+                String column = line.substring(start, i).strip();
+                if (!column.isEmpty()) {
+                    columns.add(column);
+                }
+                start = i + 1;
+            }
+        }
+        if (columns.size() != CSV_COLUMN_COUNT) {
+            throw new IllegalArgumentException("Expected " + CSV_COLUMN_COUNT + " columns, but found " + columns.size());
+        }
+        String zipcodeAndCity = columns.get(2);
+        int space = zipcodeAndCity.indexOf(' ');
+        if (space < 0) {
+            throw new IllegalArgumentException("Zipcode and city are not separated by a space");
+        }
+        PersonSaveDto person = new PersonSaveDto();
+        person.setLastname(columns.get(0));
+        person.setName(columns.get(1));
+        person.setZipcode(zipcodeAndCity.substring(0, space));
+        person.setCity(zipcodeAndCity.substring(space + 1).strip());
+        try {
+            person.setColor(ColorDto.fromId(Integer.parseInt(columns.get(3))));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Color id " + columns.get(3) + " is not a number");
+        }
+        return person;
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ',' || c == ';' || c == '\t';
+    }
+
+}
@@ -1,27 +1,67 @@
 package de.tomreno.assessment.fullstack.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.tomreno.assessment.fullstack.backend.domain.ColorDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonCursor;
 import de.tomreno.assessment.fullstack.backend.domain.person.PersonDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonImportReport;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonLineFormat;
 import de.tomreno.assessment.fullstack.backend.domain.person.PersonSaveDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonWindowDto;
 import de.tomreno.assessment.fullstack.backend.entity.Color;
 import de.tomreno.assessment.fullstack.backend.entity.Person;
 import de.tomreno.assessment.fullstack.backend.mapper.PersonMapper;
 import de.tomreno.assessment.fullstack.backend.repository.PersonRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class PersonService {
 
+    /**
+     * The number of valid rows of an import saved at once.
+     */
+    static final int IMPORT_BATCH_SIZE = 1000;
+
+    /**
+     * The number of characters of an export buffered before they are written to the response.
+     */
+    static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final PersonRepository personRepository;
     private final PersonMapper personMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
 
-    public PersonService(PersonRepository personRepository, PersonMapper personMapper) {
+    public PersonService(PersonRepository personRepository, PersonMapper personMapper, Validator validator,
+                         ObjectMapper objectMapper) {
         this.personRepository = personRepository;
         this.personMapper = personMapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
     }
 
     public Page<PersonDto> retrieveAllPersons(Pageable pageable) {
@@ -43,10 +83,144 @@ public class PersonService {
                 .map(personMapper::toDto);
     }
 
+    /**
+     * Returns a page of the persons matching the optional search term and color without counting all of them.
+     *
+     * @param search the search term, or null to not filter by it
+     * @param color the color, or null to not filter by it
+     */
+    public Slice<PersonDto> retrievePersonSlice(String search, ColorDto color, Pageable pageable) {
+        Color entityColor = color == null ? null : Color.valueOf(color.name());
+        return personRepository.findSlice(search, entityColor, pageable).map(personMapper::toDto);
+    }
+
+    /**
+     * Returns a window of the persons following the cursor, optionally only those matching the search term and color.
+     * The first window is sorted like the pageable, and the following windows keep the sort carried by their cursor.
+     * The size of the window is the page size of the pageable, whose page number is ignored.
+     *
+     * @param cursor the cursor of the previous window, or null for the first window
+     * @throws IllegalArgumentException if the cursor does not match its sort
+     */
+    public PersonWindowDto retrievePersonWindow(String search, ColorDto color, PersonCursor cursor,
+                                                Pageable pageable) {
+        Sort sort = cursor != null ? cursor.sort() : pageable.getSort();
+        KeysetScrollPosition position = cursor != null
+                ? ScrollPosition.forward(cursor.keys())
+                : ScrollPosition.keyset();
+        Color entityColor = color == null ? null : Color.valueOf(color.name());
+        Window<Person> window = personRepository.findWindow(search, entityColor, sort, position,
+                pageable.getPageSize());
+        String nextCursor = window.hasNext()
+                ? new PersonCursor(sort, ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys())
+                        .toString()
+                : null;
+        return new PersonWindowDto(window.map(personMapper::toDto).getContent(), nextCursor);
+    }
+
     public PersonDto savePerson(PersonSaveDto personSaveDto) {
         Person entity = personMapper.toEntity(personSaveDto);
         Person savedEntity = personRepository.save(entity);
         return personMapper.toDto(savedEntity);
     }
 
+    /**
+     * Saves the persons of the rows read from the given reader while reading it. Rows are validated like single saves,
+     * and the valid ones are saved in batches of {@link #IMPORT_BATCH_SIZE}, so memory use does not depend on the
+     * number of rows. If saving a batch fails, its persons are saved one by one to find the failing rows. Persons are
+     * always added, even if a row holds an id.
+     *
+     * @param format the format of the rows
+     * @param reader the reader of the rows
+     * @return the numbers of imported and failed rows, and the errors of the failed rows
+     * @throws IOException if reading the rows failed
+     */
+    public PersonImportReport importPersons(PersonLineFormat format, Reader reader) throws IOException {
+        PersonImportReport report = new PersonImportReport();
+        PersonImportReader rows = new PersonImportReader(reader, format, objectMapper);
+        List<Person> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        List<Long> batchRows = new ArrayList<>(IMPORT_BATCH_SIZE);
+        for (PersonImportReader.Row row = rows.next(); row != null; row = rows.next()) {
+            String error = row.error() != null ? row.error() : validate(row.person());
+            if (error != null) {
+                report.addError(row.number(), error);
+                continue;
+            }
+            Person entity = personMapper.toEntity(row.person());
+            entity.setId(null);
+            batch.add(entity);
+            batchRows.add(row.number());
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                saveBatch(batch, batchRows, report);
+            }
+        }
+        saveBatch(batch, batchRows, report);
+        return report;
+    }
+
+    /**
+     * Writes all persons matching the optional search term and color to the given stream while reading them, one
+     * person per line in UTF-8 and in the order of their ids. Only the person being written and the buffer of
+     * {@link #EXPORT_BUFFER_SIZE} characters are held in memory, so the export is only limited by how fast the stream
+     * is consumed.
+     *
+     * @param format the format of the lines
+     * @param search the search term, or null to export persons regardless of their fields
+     * @param color the color, or null to export persons of all colors
+     * @param out the stream to write to, which is flushed but not closed
+     * @throws IOException if writing to the stream failed
+     */
+    public void exportPersons(PersonLineFormat format, String search, ColorDto color, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        PersonExportWriter rows = new PersonExportWriter(writer, format, personMapper, objectMapper);
+        Color entityColor = color == null ? null : Color.valueOf(color.name());
+        try {
+            personRepository.exportAll(search, entityColor, person -> {
+                try {
+                    rows.write(person);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private String validate(PersonSaveDto person) {
+        Set<ConstraintViolation<PersonSaveDto>> violations = validator.validate(person);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void saveBatch(List<Person> batch, List<Long> batchRows, PersonImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            personRepository.saveBatch(batch);
+            report.addImported(batch.size());
+        } catch (RuntimeException batchFailure) {
+            for (int i = 0; i < batch.size(); i++) {
+                Person entity = batch.get(i);
+                entity.setId(null);
+                try {
+                    personRepository.save(entity);
+                    report.addImported(1);
+                } catch (RuntimeException e) {
+                    report.addError(batchRows.get(i), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+        batch.clear();
+        batchRows.clear();
+    }
+
 }
@@ -0,0 +1,110 @@
+package de.tomreno.assessment.fullstack.backend.util;
+
+/**
+ * A bounded pool of strings that returns the same instance for equal values, looked up directly from a range of
+ * characters, so a repeated value neither creates a new string nor a temporary one for the lookup. It is meant for
+ * the duration of a single load and is not thread-safe.
+ * <p>
+ * The pool holds at most its capacity of distinct values of up to {@link #MAX_POOLED_LENGTH} characters. Further or
+ * longer values are returned as new strings without being pooled. The hash table grows on demand, so a pool of a large
+ * capacity is cheap while it holds few values.
+ */
+public final class StringPool {
+
+    static final int MAX_POOLED_LENGTH = 64;
+
+    private static final int INITIAL_TABLE_SIZE = 64;
+
+    private final int capacity;
+    private String[] table;
+    private int size;
+    private char[] scratch = new char[MAX_POOLED_LENGTH];
+
+    /**
+     * @param capacity the maximum number of distinct values pooled, where 0 disables pooling
+     */
+    public StringPool(int capacity) {
+        this.capacity = capacity;
+        this.table = new String[capacity > 0 ? INITIAL_TABLE_SIZE : 0];
+    }
+
+    /**
+     * Returns the pooled string of the given range of characters, pooling a new string if the pool is not full yet.
+     */
+    public String intern(char[] chars, int start, int end) {
+        int length = end - start;
+        if (table.length == 0 || length > MAX_POOLED_LENGTH) {
+            return new String(chars, start, length);
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        for (String value = table[slot]; value != null; value = table[slot]) {
+            if (value.hashCode() == hash && equals(value, chars, start, end)) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        String value = new String(chars, start, length);
+        if (size < capacity) {
+            table[slot] = value;
+            if (++size * 2 > table.length) {
+                grow();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of pooled values.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a buffer of at least the given length to sanitize values into before interning them. It is overwritten
+     * by the next call.
+     */
+    char[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new char[Math.max(length, 2 * scratch.length)];
+        }
+        return scratch;
+    }
+
+    private void grow() {
+        String[] values = table;
+        table = new String[2 * values.length];
+        int mask = table.length - 1;
+        for (String value : values) {
+            if (value != null) {
+                int slot = spread(value.hashCode()) & mask;
+                while (table[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    private static boolean equals(String value, char[] chars, int start, int end) {
+        if (value.length() != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i - start) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+}
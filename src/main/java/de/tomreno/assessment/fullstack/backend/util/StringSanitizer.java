@@ -1,26 +1,111 @@
 package de.tomreno.assessment.fullstack.backend.util;
 
-import org.apache.commons.lang3.StringUtils;
-
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
 public final class StringSanitizer {
 
     public static String sanitizeAlphabeticString(String string) {
-        string = string.replaceAll("[^A-Za-zÄÖÜäöüß\\s-]", "");
-        if (!string.contains("-")) {
-            return StringUtils.strip(string);
+        return sanitizeAlphabeticString(string.toCharArray(), 0, string.length());
+    }
+
+    /**
+     * Sanitizes the given range of characters in a single pass. Characters other than letters, German umlauts, sharp s,
+     * whitespace and dashes are removed, and the rest is stripped. If it contains dashes, it is split at the dashes
+     * instead, and only the stripped parts consisting of letters only are kept and joined with dashes.
+     */
+    public static String sanitizeAlphabeticString(char[] chars, int start, int end) {
+        char[] sanitized = new char[end - start];
+        return new String(sanitized, 0, sanitizeAlphabetic(chars, start, end, sanitized));
+    }
+
+    /**
+     * Sanitizes the given range of characters like {@link #sanitizeAlphabeticString(char[], int, int)}, returning the
+     * pooled string of the result.
+     */
+    public static String sanitizeAlphabeticString(char[] chars, int start, int end, StringPool pool) {
+        char[] sanitized = pool.scratch(end - start);
+        return pool.intern(sanitized, 0, sanitizeAlphabetic(chars, start, end, sanitized));
+    }
+
+    /**
+     * Writes the sanitized characters of the given range to the start of the given array and returns their number.
+     */
+    private static int sanitizeAlphabetic(char[] chars, int start, int end, char[] sanitized) {
+        int length = 0;
+        boolean dashed = false;
+        int partStart = 0;
+        int lettersEnd = 0;
+        boolean whitespaceWithinLetters = false;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c == '-') {
+                dashed = true;
+                length = endPart(true, partStart, lettersEnd, whitespaceWithinLetters);
+                partStart = length;
+                lettersEnd = length;
+                whitespaceWithinLetters = false;
+            } else if (isLetter(c)) {
+                if (lettersEnd == partStart) {
+                    length = partStart;
+                    if (dashed && partStart > 0) {
+                        sanitized[length++] = '-';
+                    }
+                } else if (length > lettersEnd) {
+                    whitespaceWithinLetters = true;
+                }
+                sanitized[length++] = c;
+                lettersEnd = length;
+            } else if (isWhitespace(c) && lettersEnd > partStart) {
+                sanitized[length++] = c;
+            }
         }
-        return Stream.of(string.split("-"))
-                .map(StringUtils::strip)
-                .filter(StringUtils::isAlpha)
-                .collect(Collectors.joining("-"));
+        return endPart(dashed, partStart, lettersEnd, whitespaceWithinLetters);
+    }
+
+    /**
+     * Returns the length of the sanitized characters after ending a part, which is stripped, or dropped if it must be
+     * letters only and is not.
+     */
+    private static int endPart(boolean dashed, int partStart, int lettersEnd, boolean whitespaceWithinLetters) {
+        return dashed && (lettersEnd == partStart || whitespaceWithinLetters) ? partStart : lettersEnd;
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' ||
+                c == 'Ä' || c == 'Ö' || c == 'Ü' || c == 'ä' || c == 'ö' || c == 'ü' || c == 'ß';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c >= '\t' && c <= '\r';
     }
 
     public static String sanitizeNumericString(String string) {
-        string = string.replaceAll("[^0-9]", "");
-        return StringUtils.strip(string);
+        return sanitizeNumericString(string.toCharArray(), 0, string.length());
+    }
+
+    /**
+     * Sanitizes the given range of characters by removing all characters other than digits.
+     */
+    public static String sanitizeNumericString(char[] chars, int start, int end) {
+        char[] sanitized = new char[end - start];
+        return new String(sanitized, 0, sanitizeNumeric(chars, start, end, sanitized));
+    }
+
+    /**
+     * Sanitizes the given range of characters like {@link #sanitizeNumericString(char[], int, int)}, returning the
+     * pooled string of the result.
+     */
+    public static String sanitizeNumericString(char[] chars, int start, int end, StringPool pool) {
+        char[] sanitized = pool.scratch(end - start);
+        return pool.intern(sanitized, 0, sanitizeNumeric(chars, start, end, sanitized));
+    }
+
+    private static int sanitizeNumeric(char[] chars, int start, int end, char[] sanitized) {
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            if (chars[i] >= '0' && chars[i] <= '9') {
+                sanitized[length++] = chars[i];
+            }
+        }
+        return length;
     }
 
     private StringSanitizer() {
@@ -0,0 +1,32 @@
+-- The trigrams of the lowercased distinct values of the searched fields of all persons. A search looks up the values
+-- having all trigrams of the search term, and then the persons having one of these values by the indexes below,
+-- instead of matching the term against every person. Values are not removed when persons change, so the table may hold
+-- values no person has anymore, which match no person. Saves through the repository keep the table in sync.
+CREATE TABLE person_term_trigram (
+    trigram VARCHAR(3) NOT NULL,
+    field VARCHAR(8) NOT NULL,
+    term VARCHAR(100) NOT NULL,
+    CONSTRAINT person_term_trigram_pk PRIMARY KEY (trigram, field, term)
+);
+
+CREATE INDEX person_name_idx ON person (name, id);
+CREATE INDEX person_lastname_idx ON person (lastname, id);
+CREATE INDEX person_zipcode_idx ON person (zipcode, id);
+CREATE INDEX person_city_idx ON person (city, id);
+
+-- The distinct values are collected first, as H2 would evaluate a derived table of them again for every trigram.
+CREATE TABLE person_term (
+    field VARCHAR(8) NOT NULL,
+    term VARCHAR(100) NOT NULL
+) AS
+SELECT DISTINCT 'name', name FROM person
+UNION SELECT DISTINCT 'lastname', lastname FROM person
+UNION SELECT DISTINCT 'zipcode', zipcode FROM person
+UNION SELECT DISTINCT 'city', city FROM person;
+
+INSERT INTO person_term_trigram (trigram, field, term)
+SELECT DISTINCT SUBSTRING(LOWER(v.term), gram.x, 3), v.field, v.term
+FROM person_term v
+JOIN SYSTEM_RANGE(1, 98) gram ON gram.x <= CHAR_LENGTH(v.term) - 2;
+
+DROP TABLE person_term;
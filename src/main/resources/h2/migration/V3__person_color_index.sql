@@ -0,0 +1,3 @@
+-- Lets windows of persons sorted by color seek to the color and id of their position like those sorted by the other
+-- fields, whose indexes were created along with the trigram table.
+CREATE INDEX person_color_idx ON person (color, id);
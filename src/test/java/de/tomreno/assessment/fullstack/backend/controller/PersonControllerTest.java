@@ -1,8 +1,13 @@
 package de.tomreno.assessment.fullstack.backend.controller;
 
 import de.tomreno.assessment.fullstack.backend.domain.ColorDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonCursor;
 import de.tomreno.assessment.fullstack.backend.domain.person.PersonDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonImportReport;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonLineFormat;
 import de.tomreno.assessment.fullstack.backend.domain.person.PersonSaveDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonSliceDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonWindowDto;
 import de.tomreno.assessment.fullstack.backend.service.PersonService;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,15 +15,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -167,6 +189,81 @@ class PersonControllerTest {
 
     }
 
+    @Nested
+    class GetSlice {
+
+        @Test
+        void shouldReturnPersonSliceDto() {
+            Pageable pageable = PageRequest.of(3, 1);
+            PersonDto personDto = mock(PersonDto.class);
+            when(personService.retrievePersonSlice("hans", ColorDto.BLUE, pageable))
+                    .thenReturn(new SliceImpl<>(List.of(personDto), pageable, true));
+
+            PersonSliceDto actual = objectUnderTest.getSlice("hans", ColorDto.BLUE, pageable);
+
+            assertThat(actual.getContent()).containsExactly(personDto);
+            assertThat(actual.getNumber()).isEqualTo(3);
+            assertThat(actual.getSize()).isEqualTo(1);
+            assertThat(actual.isHasNext()).isTrue();
+            verify(personService).retrievePersonSlice("hans", ColorDto.BLUE, pageable);
+            verifyNoMoreInteractions(personService);
+        }
+
+    }
+
+    @Nested
+    class GetWindow {
+
+        @Test
+        void shouldReturnPersonWindowFollowingCursor() {
+            Pageable pageable = mock(Pageable.class);
+            PersonCursor cursor = new PersonCursor(Sort.by("name"), Map.of("name", "Hans", "id", 1L));
+            PersonWindowDto window = new PersonWindowDto(List.of(mock(PersonDto.class)), "next");
+            when(personService.retrievePersonWindow("hans", ColorDto.BLUE, cursor, pageable)).thenReturn(window);
+
+            PersonWindowDto actual = objectUnderTest.getWindow("hans", ColorDto.BLUE, cursor.toString(), pageable);
+
+            assertThat(actual).isSameAs(window);
+            verify(personService).retrievePersonWindow("hans", ColorDto.BLUE, cursor, pageable);
+            verifyNoMoreInteractions(personService);
+        }
+
+        @Test
+        void shouldReturnFirstPersonWindowWhenCursorIsEmpty() {
+            Pageable pageable = mock(Pageable.class);
+            PersonWindowDto window = new PersonWindowDto(List.of(), null);
+            when(personService.retrievePersonWindow(null, null, null, pageable)).thenReturn(window);
+
+            PersonWindowDto actual = objectUnderTest.getWindow(null, null, "", pageable);
+
+            assertThat(actual).isSameAs(window);
+        }
+
+        @Test
+        void shouldThrowBadRequestWhenCursorIsMalformed() {
+            Exception actual = catchException(() -> objectUnderTest.getWindow(null, null, "xx", mock(Pageable.class)));
+
+            assertThat(actual).isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+            verifyNoInteractions(personService);
+        }
+
+        @Test
+        void shouldThrowBadRequestWhenCursorDoesNotMatchItsSort() {
+            Pageable pageable = mock(Pageable.class);
+            PersonCursor cursor = new PersonCursor(Sort.by("name"), Map.of("id", 1L));
+            when(personService.retrievePersonWindow(null, null, cursor, pageable))
+                    .thenThrow(new InvalidDataAccessApiUsageException("Position holds no String value of name"));
+
+            Exception actual = catchException(() -> objectUnderTest.getWindow(null, null, cursor.toString(),
+                    pageable));
+
+            assertThat(actual).isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+
+    }
+
     @Nested
     class GetById {
 
@@ -222,4 +319,85 @@ class PersonControllerTest {
 
     }
 
+    @Nested
+    class PostImport {
+
+        @Test
+        void shouldImportCsvBodyDecodedAsUtf8ByDefault() throws IOException {
+            PersonImportReport report = new PersonImportReport();
+            byte[] body = "Müller, Hans, 67742 Lauterecken, 1\n".getBytes(StandardCharsets.UTF_8);
+            List<String> read = new ArrayList<>();
+            when(personService.importPersons(eq(PersonLineFormat.CSV), any())).thenAnswer(invocation -> {
+                read.add(new BufferedReader(invocation.<Reader>getArgument(1)).readLine());
+                return report;
+            });
+
+            PersonImportReport actual = objectUnderTest.postImport(MediaType.parseMediaType("text/csv"),
+                    new ByteArrayInputStream(body));
+
+            assertThat(actual).isSameAs(report);
+            assertThat(read).containsExactly("Müller, Hans, 67742 Lauterecken, 1");
+        }
+
+        @Test
+        void shouldImportNdjsonBodyDecodedWithCharsetOfContentType() throws IOException {
+            PersonImportReport report = new PersonImportReport();
+            byte[] body = "{\"city\":\"Lauterecken ☀\"}\n".getBytes(StandardCharsets.UTF_16);
+            List<String> read = new ArrayList<>();
+            when(personService.importPersons(eq(PersonLineFormat.NDJSON), any())).thenAnswer(invocation -> {
+                read.add(new BufferedReader(invocation.<Reader>getArgument(1)).readLine());
+                return report;
+            });
+
+            PersonImportReport actual = objectUnderTest.postImport(
+                    MediaType.parseMediaType("application/x-ndjson;charset=UTF-16"), new ByteArrayInputStream(body));
+
+            assertThat(actual).isSameAs(report);
+            assertThat(read).containsExactly("{\"city\":\"Lauterecken ☀\"}");
+        }
+
+    }
+
+    @Nested
+    class GetExport {
+
+        @Test
+        void shouldExportCsvByDefault() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            ResponseEntity<StreamingResponseBody> actual = objectUnderTest.getExport(null, null,
+                    List.of(MediaType.ALL));
+            actual.getBody().writeTo(out);
+
+            assertThat(actual.getHeaders().getContentType())
+                    .isEqualTo(MediaType.parseMediaType("text/csv;charset=UTF-8"));
+            assertThat(actual.getHeaders().getContentDisposition().getFilename()).isEqualTo("persons.csv");
+            verify(personService).exportPersons(PersonLineFormat.CSV, null, null, out);
+            verifyNoMoreInteractions(personService);
+        }
+
+        @Test
+        void shouldExportNdjsonWhenAccepted() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            ResponseEntity<StreamingResponseBody> actual = objectUnderTest.getExport("hans", ColorDto.BLUE,
+                    List.of(MediaType.APPLICATION_NDJSON));
+            actual.getBody().writeTo(out);
+
+            assertThat(actual.getHeaders().getContentType())
+                    .isEqualTo(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"));
+            assertThat(actual.getHeaders().getContentDisposition().getFilename()).isEqualTo("persons.ndjson");
+            verify(personService).exportPersons(PersonLineFormat.NDJSON, "hans", ColorDto.BLUE, out);
+            verifyNoMoreInteractions(personService);
+        }
+
+        @Test
+        void shouldNotExportBeforeBodyIsWritten() {
+            objectUnderTest.getExport(null, null, List.of(MediaType.ALL));
+
+            verifyNoInteractions(personService);
+        }
+
+    }
+
 }
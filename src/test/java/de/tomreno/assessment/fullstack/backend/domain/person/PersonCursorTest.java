@@ -0,0 +1,50 @@
+package de.tomreno.assessment.fullstack.backend.domain.person;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Sort;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class PersonCursorTest {
+
+    @Test
+    void shouldDecodeEncodedCursor() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("city", "Zürich");
+        keys.put("name", "");
+        keys.put("id", Long.MAX_VALUE);
+        PersonCursor cursor = new PersonCursor(Sort.by(Sort.Order.desc("city"), Sort.Order.asc("name")), keys);
+
+        String encoded = cursor.toString();
+        PersonCursor actual = PersonCursor.valueOf(encoded);
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        assertThat(actual).isEqualTo(cursor);
+        assertThat(actual.keys()).containsExactly(Map.entry("city", "Zürich"), Map.entry("name", ""),
+                Map.entry("id", Long.MAX_VALUE));
+    }
+
+    @Test
+    void shouldDecodeCursorOfUnsortedWindows() {
+        PersonCursor cursor = new PersonCursor(Sort.unsorted(), Map.of("id", 42L));
+
+        PersonCursor actual = PersonCursor.valueOf(cursor.toString());
+
+        assertThat(actual).isEqualTo(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not a cursor", "AgAA", "AQ", "AQAAAAE", "AQAAAAEAAmlkWA", "AQAAAAEAAmlkUwABeAA"})
+    void shouldThrowIllegalArgumentExceptionWhenStringIsNoCursor(String cursor) {
+        Exception actual = catchException(() -> PersonCursor.valueOf(cursor));
+
+        assertThat(actual).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
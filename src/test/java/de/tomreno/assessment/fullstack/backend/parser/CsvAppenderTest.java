@@ -0,0 +1,272 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps.Append.Policy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class CsvAppenderTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 2, 28);
+
+    @TempDir
+    Path directory;
+
+    private final AppCsvPersonProps.Append props = new AppCsvPersonProps.Append();
+    private final MutableClock clock = new MutableClock(TODAY.atTime(23, 59).toInstant(ZoneOffset.UTC));
+    private final CsvFileTails tails = new CsvFileTails();
+    private CsvAppender objectUnderTest;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (objectUnderTest != null) {
+            objectUnderTest.close();
+        }
+    }
+
+    @Test
+    void shouldWriteLinePerWriteBeforeReturning() throws IOException {
+        objectUnderTest = appender();
+
+        objectUnderTest.await(objectUnderTest.append("Müller,Hans,67742 Lauterecken,1"));
+
+        assertThat(Files.readAllLines(CsvAppender.fileOf(directory, TODAY)))
+                .containsExactly("Müller,Hans,67742 Lauterecken,1");
+    }
+
+    @Test
+    void shouldWriteAllLinesOfConcurrentAppendsOnce() throws Exception {
+        objectUnderTest = appender();
+        int threads = 4;
+        int linesPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int first = thread * linesPerThread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = first; i < first + linesPerThread; i++) {
+                        objectUnderTest.await(objectUnderTest.append("line " + i));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(Files.readAllLines(CsvAppender.fileOf(directory, TODAY)))
+                .hasSize(threads * linesPerThread).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldRollOverToFileOfNextDay() throws IOException {
+        objectUnderTest = appender();
+        objectUnderTest.await(objectUnderTest.append("first"));
+
+        clock.advance(Duration.ofMinutes(2));
+        objectUnderTest.await(objectUnderTest.append("second"));
+
+        assertThat(Files.readAllLines(CsvAppender.fileOf(directory, TODAY))).containsExactly("first");
+        assertThat(Files.readAllLines(CsvAppender.fileOf(directory, TODAY.plusDays(1)))).containsExactly("second");
+    }
+
+    @Test
+    void shouldWriteLinesBufferedForPreviousDayOnRollOver() throws IOException {
+        props.setFlushPolicy(Policy.SIZE);
+        objectUnderTest = appender();
+        objectUnderTest.await(objectUnderTest.append("first"));
+
+        clock.advance(Duration.ofMinutes(2));
+        objectUnderTest.append("second");
+
+        assertThat(Files.readAllLines(CsvAppender.fileOf(directory, TODAY))).containsExactly("first");
+        assertThat(CsvAppender.fileOf(directory, TODAY.plusDays(1))).doesNotExist();
+    }
+
+    @Test
+    void shouldBufferLinesUntilFlushSizeIsReached() throws IOException {
+        props.setFlushPolicy(Policy.SIZE);
+        props.setFlushSize(10);
+        objectUnderTest = appender();
+        Path file = CsvAppender.fileOf(directory, TODAY);
+
+        objectUnderTest.await(objectUnderTest.append("1234"));
+        boolean writtenBeforeSize = Files.exists(file);
+        objectUnderTest.await(objectUnderTest.append("5678"));
+
+        assertThat(writtenBeforeSize).isFalse();
+        assertThat(Files.readAllLines(file)).containsExactly("1234", "5678");
+    }
+
+    @Test
+    void shouldWriteBufferedLinesPeriodically() throws Exception {
+        props.setFlushPolicy(Policy.INTERVAL);
+        props.setFlushInterval(Duration.ofMillis(10));
+        objectUnderTest = appender();
+        Path file = CsvAppender.fileOf(directory, TODAY);
+
+        objectUnderTest.await(objectUnderTest.append("line"));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(file) || Files.size(file) == 0) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        assertThat(Files.readAllLines(file)).containsExactly("line");
+    }
+
+    @Test
+    void shouldWriteBufferedLinesOnFlushAndClose() throws IOException {
+        props.setFlushPolicy(Policy.SIZE);
+        props.setFsyncPolicy(Policy.PER_WRITE);
+        objectUnderTest = appender();
+        Path file = CsvAppender.fileOf(directory, TODAY);
+
+        objectUnderTest.append("first");
+        objectUnderTest.flush();
+        List<String> flushed = Files.readAllLines(file);
+        objectUnderTest.append("second");
+        objectUnderTest.close();
+        objectUnderTest = null;
+
+        assertThat(flushed).containsExactly("first");
+        assertThat(Files.readAllLines(file)).containsExactly("first", "second");
+    }
+
+    @Test
+    void shouldFailAwaitingLinesWhoseWriteFailed() throws IOException {
+        objectUnderTest = appender();
+        Files.createDirectory(CsvAppender.fileOf(directory, TODAY));
+
+        long line = objectUnderTest.append("line");
+        Throwable thrown = catchException(() -> objectUnderTest.await(line));
+
+        assertThat(thrown).isInstanceOf(IOException.class);
+        assertThat(catchException(() -> objectUnderTest.await(line))).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldFailLinesAppendedAfterFailedWriteUntilTheyAreDiscarded() throws IOException {
+        objectUnderTest = appender();
+        long writtenLine = objectUnderTest.append("written");
+        objectUnderTest.await(writtenLine);
+        clock.advance(Duration.ofMinutes(2));
+        Path file = Files.createDirectory(CsvAppender.fileOf(directory, TODAY.plusDays(1)));
+        long failedLine = objectUnderTest.append("failed");
+        Throwable failed = catchException(() -> objectUnderTest.await(failedLine));
+        Files.delete(file);
+
+        long droppedLine = objectUnderTest.append("dropped");
+        Throwable dropped = catchException(() -> objectUnderTest.await(droppedLine));
+        boolean discarded = objectUnderTest.discardFailed();
+        objectUnderTest.await(objectUnderTest.append("written again"));
+
+        assertThat(failed).isInstanceOf(IOException.class);
+        assertThat(dropped).isInstanceOf(IOException.class);
+        assertThat(discarded).isTrue();
+        assertThat(objectUnderTest.discardFailed()).isFalse();
+        assertThat(catchException(() -> objectUnderTest.await(writtenLine))).isNull();
+        assertThat(Files.readAllLines(file)).containsExactly("written again");
+    }
+
+    @Test
+    void shouldKeepFailingLinesOfEveryFailedWrite() throws IOException {
+        objectUnderTest = appender();
+        Path file = Files.createDirectory(CsvAppender.fileOf(directory, TODAY));
+        long firstFailedLine = objectUnderTest.append("first");
+        catchException(() -> objectUnderTest.await(firstFailedLine));
+        objectUnderTest.discardFailed();
+        long secondFailedLine = objectUnderTest.append("second");
+        catchException(() -> objectUnderTest.await(secondFailedLine));
+        objectUnderTest.discardFailed();
+        Files.delete(file);
+
+        objectUnderTest.await(objectUnderTest.append("third"));
+
+        assertThat(catchException(() -> objectUnderTest.await(firstFailedLine))).isInstanceOf(IOException.class);
+        assertThat(catchException(() -> objectUnderTest.await(secondFailedLine))).isInstanceOf(IOException.class);
+        assertThat(Files.readAllLines(file)).containsExactly("third");
+    }
+
+    @Test
+    void shouldAppendLinesOfBatchAtOnce() throws IOException {
+        objectUnderTest = appender();
+
+        long lastLine = objectUnderTest.append(List.of("first", "second"));
+        objectUnderTest.await(lastLine);
+
+        assertThat(lastLine).isEqualTo(2);
+        assertThat(Files.readAllLines(CsvAppender.fileOf(directory, TODAY))).containsExactly("first", "second");
+    }
+
+    @Test
+    void shouldRejectFlushPolicyNever() {
+        props.setFlushPolicy(Policy.NEVER);
+
+        Throwable thrown = catchException(this::appender);
+
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CsvAppender appender() {
+        return new CsvAppender(directory, props, clock, () -> tails);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CsvChunkParserTest {
+
+    private static final String[] SEPARATORS = {",", ", ", ";", "\t", " , "};
+    private static final String[] LINE_ENDS = {"\n", "\r\n", "\r"};
+
+    @TempDir
+    Path directory;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Nested
+    class Parse {
+
+        @ParameterizedTest
+        @CsvSource({"1, 1", "7, 2", "64, 3", "1000, 2", "100000, 4"})
+        void shouldMatchSequentialParse(long chunkSize, int window) throws IOException {
+            String csv = randomCsv(new Random(chunkSize), 500);
+
+            assertParsesLikeSequentialParse(csv, chunkSize, window);
+        }
+
+        @Test
+        void shouldContinueEntriesAcrossChunks() throws IOException {
+            String csv = "Müller,\nHans,\n67742 Lauterecken,\n1\nPetersen,\nPeter,\n18439 Stralsund,\n2\n";
+
+            List<Person> actual = assertParsesLikeSequentialParse(csv, 1, 2);
+
+            assertThat(actual).extracting(Person::getId, Person::getName)
+                    .containsExactly(tuple(1L, "Hans"), tuple(2L, "Peter"));
+        }
+
+        @Test
+        void shouldStopAtFirstEmptyLine() throws IOException {
+            String csv = "Müller, Hans, 67742 Lauterecken, 1\n" + "Petersen, Peter,\n   \n18439 Stralsund, 2\n" +
+                    "Johnson, Johnny, 88888 made up, 3\n";
+
+            List<Person> actual = assertParsesLikeSequentialParse(csv, 10, 1);
+
+            assertThat(actual).extracting(Person::getName).containsExactly("Hans");
+        }
+
+        @Test
+        void shouldTreatCarriageReturnsLikeLineEnds() throws IOException {
+            String csv = "Müller, Hans, 67742 Lauterecken, 1\r\nPetersen, Peter,\r18439 Stralsund, 2\r" +
+                    "Johnson, Johnny, 88888 made up, 3\n\rMillenium, Milly, 77777 made up too, 4\r\n";
+
+            List<Person> actual = assertParsesLikeSequentialParse(csv, 3, 2);
+
+            assertThat(actual).extracting(Person::getName).containsExactly("Hans", "Peter", "Johnny");
+        }
+
+        @Test
+        void shouldSkipInvalidEntriesWithoutConsumingIds() throws IOException {
+            String csv = "Müller, Hans, 67742 Lauterecken, 9\nPetersen, Peter, 18439 Stralsund, 2\n";
+
+            List<Person> actual = assertParsesLikeSequentialParse(csv, 5, 2);
+
+            assertThat(actual).extracting(Person::getId).containsExactly(1L);
+        }
+
+    }
+
+    /**
+     * Parses the CSV in chunks, asserts that the persons equal the ones of the sequential parse and returns them.
+     */
+    private List<Person> assertParsesLikeSequentialParse(String csv, long chunkSize, int window) throws IOException {
+        Path file = directory.resolve("persons.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        AppCsvPersonProps props = new AppCsvPersonProps();
+        props.setDirectory(directory.toUri().toString());
+        props.setParallelism(1);
+        List<Person> expected = new PersonCsvParser(props).readFromCsv();
+        List<Person> actual = new ArrayList<>();
+
+        long nextId = new CsvChunkParser(executor, window, chunkSize, 64)
+                .parse(file, Files.size(file), 1, actual::add);
+
+        assertThat(actual).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+        assertThat(nextId).isEqualTo(actual.size() + 1L);
+        return actual;
+    }
+
+    /**
+     * Creates CSV entries whose fields are spread randomly over lines with varying separators and line ends, with some
+     * entries having an invalid color.
+     */
+    private static String randomCsv(Random random, int entries) {
+        StringBuilder csv = new StringBuilder();
+        for (int entry = 0; entry < entries; entry++) {
+            String[] fields = {"Müller" + "abc".charAt(random.nextInt(3)), "Hans", (10_000 + entry) + " Lauterecken",
+                    String.valueOf(random.nextInt(8) + 1)};
+            for (String field : fields) {
+                csv.append(field);
+                csv.append(random.nextInt(4) == 0
+                        ? LINE_ENDS[random.nextInt(LINE_ENDS.length)]
+                        : SEPARATORS[random.nextInt(SEPARATORS.length)]);
+            }
+        }
+        return csv.toString();
+    }
+
+}
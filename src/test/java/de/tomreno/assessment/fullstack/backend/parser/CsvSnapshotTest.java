@@ -0,0 +1,145 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvSnapshotTest {
+
+    @TempDir
+    Path root;
+
+    private Path directory;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createDirectory(root.resolve("persons"));
+        snapshotFile = root.resolve("persons.snapshot");
+        Files.writeString(directory.resolve("a.csv"),
+                "Müller, Hans, 67742 Lauterecken, 1\nPetersen, Peter, 18439 Stralsund, 9\n");
+        Files.writeString(directory.resolve("b.csv"),
+                "Johnson, Johnny,\n88888 made up, 3\nMillenium, Milly, 77777 made up too, 4\n");
+    }
+
+    @Nested
+    class Open {
+
+        @Test
+        void shouldProvideSegmentsOfUnchangedFiles() throws IOException {
+            List<Person> expected = parse(false, 1);
+            parse(true, 1);
+
+            CsvSnapshot actual = open();
+
+            assertThat(actual.segment(0)).isNotNull();
+            assertThat(actual.segment(1)).isNotNull();
+            assertThat(actual.segment(0).read()).usingRecursiveFieldByFieldElementComparatorIgnoringFields("id")
+                    .isEqualTo(expected.subList(0, 1));
+        }
+
+        @Test
+        void shouldNotProvideSegmentsOfChangedFiles() throws IOException {
+            parse(true, 1);
+            Files.writeString(directory.resolve("a.csv"), "Wurst, Hans, 12345 Assessment, 2\n",
+                    StandardOpenOption.APPEND);
+            Path b = directory.resolve("b.csv");
+            Files.writeString(b, Files.readString(b).replace("Johnny", "Jimmy"));
+            Files.setLastModifiedTime(b, FileTime.fromMillis(0));
+            Files.writeString(directory.resolve("c.csv"), "Stark, Sansa, 55443 Winterfell, 4\n");
+
+            CsvSnapshot actual = open();
+
+            assertThat(actual.segment(0)).isNull();
+            assertThat(actual.segment(1)).isNull();
+            assertThat(actual.segment(2)).isNull();
+        }
+
+        @Test
+        void shouldIgnoreCorruptSnapshot() throws IOException {
+            parse(true, 1);
+            byte[] bytes = Files.readAllBytes(snapshotFile);
+            bytes[bytes.length / 2] ^= 1;
+            Files.write(snapshotFile, bytes);
+
+            CsvSnapshot actual = open();
+
+            assertThat(actual.segment(0)).isNull();
+            assertThat(actual.segment(1)).isNull();
+        }
+
+    }
+
+    @Nested
+    class ReadFromCsv {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 3})
+        void shouldParseLikeWithoutSnapshot(int parallelism) throws IOException {
+            List<Person> expected = parse(false, 1);
+
+            List<Person> written = parse(true, parallelism);
+            List<Person> read = parse(true, parallelism);
+
+            assertThat(snapshotFile).exists();
+            assertThat(written).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+            assertThat(read).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+        }
+
+        @Test
+        void shouldParseChangedFilesOnly() throws IOException {
+            parse(true, 1);
+            Files.writeString(directory.resolve("a.csv"), "Wurst, Hans, 12345 Assessment, 2\n",
+                    StandardOpenOption.APPEND);
+            List<Person> expected = parse(false, 1);
+
+            List<Person> actual = parse(true, 1);
+
+            assertThat(actual).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+            assertThat(actual).extracting(Person::getId).containsExactly(1L, 2L, 3L, 4L);
+            assertThat(open().segment(0)).isNotNull();
+        }
+
+        @Test
+        void shouldNotRewriteUpToDateSnapshot() throws IOException {
+            parse(true, 1);
+            Files.setLastModifiedTime(snapshotFile, FileTime.fromMillis(0));
+
+            parse(true, 1);
+
+            assertThat(Files.getLastModifiedTime(snapshotFile).toMillis()).isZero();
+        }
+
+    }
+
+    private List<Person> parse(boolean snapshotEnabled, int parallelism) throws IOException {
+        AppCsvPersonProps props = new AppCsvPersonProps();
+        props.setDirectory(directory.toUri().toString());
+        props.setParallelism(parallelism);
+        props.setSnapshotEnabled(snapshotEnabled);
+        return new PersonCsvParser(props).readFromCsv();
+    }
+
+    private CsvSnapshot open() throws IOException {
+        Resource[] csvResources = new PathMatchingResourcePatternResolver()
+                .getResources(directory.toUri() + "/*.csv");
+        return CsvSnapshot.open(directory, csvResources);
+    }
+
+}
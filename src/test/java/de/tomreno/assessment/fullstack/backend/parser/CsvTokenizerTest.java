@@ -0,0 +1,108 @@
+package de.tomreno.assessment.fullstack.backend.parser;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTokenizerTest {
+
+    @Nested
+    class Next {
+
+        @Test
+        void shouldSplitLinesIntoStrippedNonEmptyColumns() throws IOException {
+            String csv = " Müller ,Hans;; 67742 Lauterecken\t1 \r\nPetersen ,\t,Peter\rJohnson\n";
+
+            assertThat(columnsOf(csv)).containsExactly("Müller", "Hans", "67742 Lauterecken", "1", "Petersen", "Peter",
+                    "Johnson");
+            assertThat(columnsOf(csv.toCharArray())).containsExactly("Müller", "Hans", "67742 Lauterecken", "1",
+                    "Petersen", "Peter", "Johnson");
+        }
+
+        @Test
+        void shouldEndAtFirstEmptyLine() throws IOException {
+            CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("Müller, Hans\n\t \nPetersen, Peter\n"));
+            CsvColumns columns = new CsvColumns();
+
+            while (tokenizer.next(columns)) {
+                // collects all columns
+            }
+
+            assertThat(columns.size()).isEqualTo(2);
+            assertThat(tokenizer.endedAtEmptyLine()).isTrue();
+        }
+
+        @Test
+        void shouldReadLastLineWithoutLineEnd() throws IOException {
+            CsvTokenizer tokenizer = new CsvTokenizer(new StringReader("Müller, Hans\r\nPetersen, Peter"));
+            CsvColumns columns = new CsvColumns();
+
+            while (tokenizer.next(columns)) {
+                // collects all columns
+            }
+
+            assertThat(columns.size()).isEqualTo(4);
+            assertThat(columns.toString(3)).isEqualTo("Peter");
+            assertThat(tokenizer.endedAtEmptyLine()).isFalse();
+        }
+
+        @Test
+        void shouldReadLinesLongerThanBuffer() throws IOException {
+            String longColumn = "x".repeat(20_000);
+            Reader reader = new StringReader("a\r" + longColumn + ",b\r\n\n");
+
+            assertThat(columnsOf(reader)).containsExactly("a", longColumn, "b");
+        }
+
+        @Test
+        void shouldNotTreatLineFeedAfterCarriageReturnAsEmptyLine() throws IOException {
+            Reader reader = new Reader() {
+                private final Reader delegate = new StringReader("a\r\nb\r\nc");
+
+                @Override
+                public int read(char[] chars, int offset, int length) throws IOException {
+                    return delegate.read(chars, offset, Math.min(length, 2));
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+
+            assertThat(columnsOf(reader)).containsExactly("a", "b", "c");
+        }
+
+    }
+
+    private static List<String> columnsOf(String csv) throws IOException {
+        return columnsOf(new StringReader(csv));
+    }
+
+    private static List<String> columnsOf(Reader reader) throws IOException {
+        return columnsOf(new CsvTokenizer(reader));
+    }
+
+    private static List<String> columnsOf(char[] chars) throws IOException {
+        return columnsOf(new CsvTokenizer(chars, chars.length));
+    }
+
+    private static List<String> columnsOf(CsvTokenizer tokenizer) throws IOException {
+        CsvColumns columns = new CsvColumns();
+        while (tokenizer.next(columns)) {
+            // collects all columns
+        }
+        List<String> strings = new ArrayList<>();
+        for (int column = 0; column < columns.size(); column++) {
+            strings.add(columns.toString(column));
+        }
+        return strings;
+    }
+
+}
@@ -3,17 +3,27 @@ package de.tomreno.assessment.fullstack.backend.parser;
 import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
 import de.tomreno.assessment.fullstack.backend.entity.Color;
 import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +35,11 @@ class PersonCsvParserTest {
     @InjectMocks
     private PersonCsvParser objectUnderTest;
 
+    @AfterEach
+    void tearDown() throws IOException {
+        objectUnderTest.close();
+    }
+
     @Nested
     class ParsePersonCsv {
 
@@ -126,6 +141,299 @@ class PersonCsvParserTest {
             assertThat(person.getCity()).isEqualTo("Lauterecken");
         }
 
+        @Test
+        void shouldSkipEntriesWithoutSpaceBetweenZipcodeAndCity(@TempDir Path directory) throws IOException {
+            Files.writeString(directory.resolve("persons.csv"),
+                    "Müller, Hans, 67742Lauterecken, 1\nPetersen, Peter, 18439 Stralsund, 2\n");
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+
+            List<Person> actual = objectUnderTest.readFromCsv();
+
+            assertThat(actual).extracting(Person::getId, Person::getName).containsExactly(tuple(1L, "Peter"));
+        }
+
+        @Test
+        void shouldShareEqualFieldsOfDifferentEntries(@TempDir Path directory) throws IOException {
+            Files.writeString(directory.resolve("persons.csv"),
+                    "Müller, Hans, 67742 Lauterecken, 1\nMüller, Peter, 67742 Lauterecken, 2\n");
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            when(personCsvProps.getInternPoolSize()).thenReturn(16);
+
+            List<Person> actual = objectUnderTest.readFromCsv();
+
+            assertThat(actual.get(1).getLastname()).isSameAs(actual.get(0).getLastname());
+            assertThat(actual.get(1).getZipcode()).isSameAs(actual.get(0).getZipcode());
+            assertThat(actual.get(1).getCity()).isSameAs(actual.get(0).getCity());
+        }
+
+    }
+
+    @Nested
+    class ParsePersonCsvIntoConsumer {
+
+        @Test
+        void shouldPassPersonsOfEntriesSpanningMultipleLines() throws IOException {
+            when(personCsvProps.getDirectory()).thenReturn("csv/broken");
+            List<Person> actual = new ArrayList<>();
+
+            objectUnderTest.readFromCsv(actual::add);
+
+            assertThat(actual).extracting(Person::getId, Person::getLastname, Person::getColor).containsExactly(
+                    tuple(1L, "Müller", Color.BLUE), tuple(2L, "Petersen", Color.GREEN),
+                    tuple(3L, "Johnson", Color.VIOLET));
+        }
+
+        @Test
+        void shouldContinueIdsAcrossCsvFiles() throws IOException {
+            when(personCsvProps.getDirectory()).thenReturn("csv/multiple");
+            List<Person> actual = new ArrayList<>();
+
+            objectUnderTest.readFromCsv(actual::add);
+
+            assertThat(actual).extracting(Person::getId).containsExactly(1L, 2L);
+            assertThat(actual).usingRecursiveFieldByFieldElementComparator()
+                    .isEqualTo(objectUnderTest.readFromCsv());
+        }
+
+    }
+
+    @Nested
+    class ParsePersonCsvInParallel {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        void shouldAssignIdsLikeSequentialParsing() throws IOException {
+            for (int file = 0; file < 12; file++) {
+                StringBuilder csv = new StringBuilder();
+                for (int entry = 0; entry <= file; entry++) {
+                    csv.append("Müller, Hans").append(", ").append(10_000 + file * 100 + entry).append(" Lauterecken, ")
+                            .append(entry % 7 + 1).append('\n');
+                }
+                csv.append("Petersen,\nPeter, 18439 Stralsund, 9\nJohnson, Johnny,\n88888 made up, 3\n");
+                Files.writeString(directory.resolve("persons-%02d.csv".formatted(file)), csv);
+            }
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            when(personCsvProps.getParallelism()).thenReturn(1);
+            List<Person> expected = objectUnderTest.readFromCsv();
+            when(personCsvProps.getParallelism()).thenReturn(4);
+
+            List<Person> actual = objectUnderTest.readFromCsv();
+
+            assertThat(actual).hasSize(12 * 13 / 2 + 12);
+            assertThat(actual).extracting(Person::getId).isSorted().doesNotHaveDuplicates()
+                    .startsWith(1L).endsWith((long) actual.size());
+            assertThat(actual).usingRecursiveFieldByFieldElementComparator().isEqualTo(expected);
+        }
+
+    }
+
+    @Nested
+    class ReadAppended {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        void shouldPassPersonsOfAppendedCompleteLines() throws IOException {
+            Path csvFile = directory.resolve("a.csv");
+            Files.writeString(csvFile, "Müller, Hans, 67742 Lauterecken, 1\nPetersen, Peter,\n");
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            assertThat(objectUnderTest.readFromCsv()).hasSize(1);
+            List<Person> actual = new ArrayList<>();
+
+            Files.writeString(csvFile, "18439 Stralsund, 2\nJohnson, Jo", StandardOpenOption.APPEND);
+            boolean firstRead = objectUnderTest.readAppended(List.of(csvFile), 2, actual::add);
+            Files.writeString(csvFile, "hnny, 88888 made up, 3\n", StandardOpenOption.APPEND);
+            boolean secondRead = objectUnderTest.readAppended(List.of(csvFile), 3, actual::add);
+
+            assertThat(firstRead).isTrue();
+            assertThat(secondRead).isTrue();
+            assertThat(actual).extracting(Person::getId, Person::getLastname, Person::getCity)
+                    .containsExactly(tuple(2L, "Petersen", "Stralsund"), tuple(3L, "Johnson", "made up"));
+        }
+
+        @Test
+        void shouldSkipSavedPersons() throws IOException, URISyntaxException {
+            when(personCsvProps.getAppend()).thenReturn(new AppCsvPersonProps.Append());
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            objectUnderTest.readFromCsv();
+            objectUnderTest.saveToCsv(createPerson(1L, "Hans", "Müller", "67742", "Lauterecken", Color.BLUE));
+            Path csvFile = directory.resolve("zzz_persons_" + LocalDate.now() + ".csv");
+            Files.writeString(csvFile, "Petersen, Peter, 18439 Stralsund, 2\n", StandardOpenOption.APPEND);
+            objectUnderTest.saveToCsv(createPerson(3L, "Johnny", "Johnson", "88888", "made up", Color.VIOLET));
+            List<Person> actual = new ArrayList<>();
+
+            boolean read = objectUnderTest.readAppended(List.of(csvFile), 4, actual::add);
+
+            assertThat(read).isTrue();
+            assertThat(actual).extracting(Person::getId, Person::getLastname).containsExactly(tuple(4L, "Petersen"));
+        }
+
+        @Test
+        void shouldParseNewCsvFilesOnly() throws IOException {
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            objectUnderTest.readFromCsv();
+            Path csvFile = Files.writeString(directory.resolve("b.csv"), "Müller, Hans, 67742 Lauterecken, 1\n");
+            Path textFile = Files.writeString(directory.resolve("b.txt"), "Petersen, Peter, 18439 Stralsund, 2\n");
+            List<Person> actual = new ArrayList<>();
+
+            boolean read = objectUnderTest.readAppended(List.of(textFile, csvFile), 1, actual::add);
+
+            assertThat(read).isTrue();
+            assertThat(actual).extracting(Person::getId, Person::getLastname).containsExactly(tuple(1L, "Müller"));
+        }
+
+        @Test
+        void shouldRequireFullParseWhenCsvFileWasModified() throws IOException {
+            Path csvFile = Files.writeString(directory.resolve("a.csv"), "Müller, Hans, 67742 Lauterecken, 1\n");
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            objectUnderTest.readFromCsv();
+            Files.writeString(csvFile, "Müller, Hans, 67742 Lauterecken, 2\nPetersen, Peter, 18439 Stralsund, 2\n");
+            List<Person> actual = new ArrayList<>();
+
+            boolean read = objectUnderTest.readAppended(List.of(csvFile), 2, actual::add);
+
+            assertThat(read).isFalse();
+            assertThat(actual).isEmpty();
+        }
+
+        @Test
+        void shouldPassPersonsAppendedToLastCsvFileOnly() throws IOException {
+            Path firstFile = Files.writeString(directory.resolve("a.csv"), "Müller, Hans, 67742 Lauterecken, 1\n");
+            Path lastFile = Files.writeString(directory.resolve("b.csv"), "Petersen, Peter, 18439 Stralsund, 2\n");
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            objectUnderTest.readFromCsv();
+            Files.writeString(lastFile, "Johnson, Johnny, 88888 made up, 3\n", StandardOpenOption.APPEND);
+            List<Person> actual = new ArrayList<>();
+
+            boolean read = objectUnderTest.readAppended(List.of(firstFile, lastFile), 3, actual::add);
+
+            assertThat(read).isTrue();
+            assertThat(actual).extracting(Person::getId, Person::getLastname).containsExactly(tuple(3L, "Johnson"));
+        }
+
+        @Test
+        void shouldRequireFullParseWhenLinesWereAppendedToCsvFileBeforeLastOne() throws IOException {
+            Path csvFile = Files.writeString(directory.resolve("a.csv"), "Müller, Hans, 67742 Lauterecken, 1\n");
+            Files.writeString(directory.resolve("b.csv"), "Petersen, Peter, 18439 Stralsund, 2\n");
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            objectUnderTest.readFromCsv();
+            Files.writeString(csvFile, "Johnson, Johnny, 88888 made up, 3\n", StandardOpenOption.APPEND);
+            List<Person> actual = new ArrayList<>();
+
+            boolean read = objectUnderTest.readAppended(List.of(csvFile), 3, actual::add);
+
+            assertThat(read).isFalse();
+            assertThat(actual).isEmpty();
+            assertThat(objectUnderTest.readFromCsv()).extracting(Person::getId, Person::getLastname)
+                    .containsExactly(tuple(1L, "Müller"), tuple(2L, "Johnson"), tuple(3L, "Petersen"));
+        }
+
+        @Test
+        void shouldRequireFullParseWhenNewCsvFileSortsBeforeLastOne() throws IOException {
+            Files.writeString(directory.resolve("b.csv"), "Müller, Hans, 67742 Lauterecken, 1\n");
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            objectUnderTest.readFromCsv();
+            Path csvFile = Files.writeString(directory.resolve("a.csv"), "Petersen, Peter, 18439 Stralsund, 2\n");
+            List<Person> actual = new ArrayList<>();
+
+            boolean read = objectUnderTest.readAppended(List.of(csvFile), 2, actual::add);
+
+            assertThat(read).isFalse();
+            assertThat(actual).isEmpty();
+        }
+
+        @Test
+        void shouldRequireFullParseWhenCsvFileWasDeleted() throws IOException {
+            Path csvFile = Files.writeString(directory.resolve("a.csv"), "Müller, Hans, 67742 Lauterecken, 1\n");
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            objectUnderTest.readFromCsv();
+            Files.delete(csvFile);
+
+            boolean read = objectUnderTest.readAppended(List.of(csvFile), 2, person -> {
+            });
+
+            assertThat(read).isFalse();
+        }
+
+    }
+
+    @Nested
+    class SaveToCsv {
+
+        @TempDir
+        Path directory;
+
+        @Test
+        void shouldAppendPersonToTodaysCsvFile() throws IOException, URISyntaxException {
+            when(personCsvProps.getAppend()).thenReturn(new AppCsvPersonProps.Append());
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+
+            objectUnderTest.saveToCsv(createPerson(1L, "Hans", "Müller", "67742", "Lauterecken", Color.BLUE));
+            objectUnderTest.saveToCsv(createPerson(2L, "Peter", "Petersen", "18439", "Stralsund", Color.GREEN));
+
+            Path csvFile = directory.resolve("zzz_persons_" + LocalDate.now() + ".csv");
+            assertThat(Files.readAllLines(csvFile))
+                    .containsExactly("Müller,Hans,67742 Lauterecken,1", "Petersen,Peter,18439 Stralsund,2");
+        }
+
+        @Test
+        void shouldReturnPersonAsReadBackFromCsv() throws IOException, URISyntaxException {
+            when(personCsvProps.getAppend()).thenReturn(new AppCsvPersonProps.Append());
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            Person person = createPerson(1L, "Hans!", "Müller", "67742", "Lauterecken ", Color.BLUE);
+
+            Person actual = objectUnderTest.saveToCsv(person);
+
+            assertThat(actual.getId()).isEqualTo(1L);
+            assertThat(actual.getName()).isEqualTo("Hans");
+            assertThat(actual.getCity()).isEqualTo("Lauterecken");
+            assertThat(objectUnderTest.readFromCsv()).singleElement()
+                    .usingRecursiveComparison().isEqualTo(actual);
+        }
+
+        @Test
+        void shouldAppendEitherAllOrNoneOfThePersons() throws IOException, URISyntaxException {
+            when(personCsvProps.getDirectory()).thenReturn(directory.toUri().toString());
+            when(personCsvProps.getAppend()).thenReturn(new AppCsvPersonProps.Append());
+            List<Person> valid = List.of(createPerson(1L, "Hans", "Müller", "67742", "Lauterecken", Color.BLUE),
+                    createPerson(2L, "Peter", "Petersen", "18439", "Stralsund", Color.GREEN));
+            List<Person> invalid = List.of(createPerson(3L, "Johnny", "Johnson", "88888", "made up", Color.RED),
+                    createPerson(4L, "Milly, Peter", "Millenium", "77777", "made up too", Color.RED));
+
+            List<Person> actual = objectUnderTest.appendAllToCsv(valid);
+            Throwable thrown = catchException(() -> objectUnderTest.appendAllToCsv(invalid));
+            objectUnderTest.awaitAppended();
+
+            assertThat(actual).extracting(Person::getId).containsExactly(1L, 2L);
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+            Path csvFile = directory.resolve("zzz_persons_" + LocalDate.now() + ".csv");
+            assertThat(Files.readAllLines(csvFile))
+                    .containsExactly("Müller,Hans,67742 Lauterecken,1", "Petersen,Peter,18439 Stralsund,2");
+        }
+
+        @Test
+        void shouldRejectPersonThatCannotBeWrittenAsSingleCsvEntry() {
+            Person person = createPerson(1L, "Hans, Peter", "Müller", "67742", "Lauterecken", Color.BLUE);
+
+            Throwable thrown = catchException(() -> objectUnderTest.saveToCsv(person));
+
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+            assertThat(directory).isEmptyDirectory();
+        }
+
+    }
+
+    private static Person createPerson(long id, String name, String lastname, String zipcode, String city, Color color) {
+        Person person = new Person(id);
+        person.setName(name);
+        person.setLastname(lastname);
+        person.setZipcode(zipcode);
+        person.setCity(city);
+        person.setColor(color);
+        return person;
     }
 
 }
@@ -0,0 +1,136 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedPageSelectorTest {
+
+    @Nested
+    class SelectRows {
+
+        @Test
+        void shouldReturnRequestedPageSize() {
+            List<Integer> rows = shuffledRange(1_000);
+
+            Page<Integer> actual = BoundedPageSelector.selectRows(rows.stream().mapToInt(Integer::intValue).iterator(),
+                    Integer::compare, PageRequest.of(0, 20), Integer::valueOf);
+
+            assertThat(actual.getContent()).hasSize(20);
+            assertThat(actual.getContent()).isEqualTo(IntStream.range(0, 20).boxed().toList());
+        }
+
+        @Test
+        void shouldReportTotalElementsOfWholeSequence() {
+            List<Integer> rows = shuffledRange(1_000);
+
+            Page<Integer> actual = BoundedPageSelector.selectRows(rows.stream().mapToInt(Integer::intValue).iterator(),
+                    Integer::compare, PageRequest.of(3, 20), Integer::valueOf);
+
+            assertThat(actual.getTotalElements()).isEqualTo(1_000);
+            assertThat(actual.getTotalPages()).isEqualTo(50);
+        }
+
+        @Test
+        void shouldReturnSameContentAsFullSort() {
+            List<Integer> rows = shuffledRange(1_000);
+            IntArrays.IntComparator descending = (a, b) -> Integer.compare(b, a);
+
+            Page<String> actual = BoundedPageSelector.selectRows(rows.stream().mapToInt(Integer::intValue).iterator(),
+                    descending, PageRequest.of(7, 30), String::valueOf);
+
+            assertThat(actual.getContent()).isEqualTo(rows.stream().sorted(Comparator.reverseOrder())
+                    .skip(210).limit(30).map(String::valueOf).toList());
+            assertThat(actual.getTotalElements()).isEqualTo(1_000);
+        }
+
+        @Test
+        void shouldReturnPartialLastPage() {
+            List<Integer> rows = shuffledRange(45);
+
+            Page<Integer> actual = BoundedPageSelector.selectRows(rows.stream().mapToInt(Integer::intValue).iterator(),
+                    Integer::compare, PageRequest.of(2, 20), Integer::valueOf);
+
+            assertThat(actual.getContent()).containsExactly(40, 41, 42, 43, 44);
+            assertThat(actual.getTotalElements()).isEqualTo(45);
+        }
+
+        @Test
+        void shouldReturnEmptyContentBeyondLastPage() {
+            List<Integer> rows = shuffledRange(45);
+
+            Page<Integer> actual = BoundedPageSelector.selectRows(rows.stream().mapToInt(Integer::intValue).iterator(),
+                    Integer::compare, PageRequest.of(5, 20), Integer::valueOf);
+
+            assertThat(actual.getContent()).isEmpty();
+            assertThat(actual.getTotalElements()).isEqualTo(45);
+        }
+
+        @Test
+        void shouldReturnAllRowsSortedWhenUnpaged() {
+            List<Integer> rows = shuffledRange(3_000);
+
+            Page<Integer> actual = BoundedPageSelector.selectRows(rows.stream().mapToInt(Integer::intValue).iterator(),
+                    Integer::compare, Pageable.unpaged(), Integer::valueOf);
+
+            assertThat(actual.getContent()).isEqualTo(IntStream.range(0, 3_000).boxed().toList());
+        }
+
+        @Test
+        void shouldOnlyMaterializeRowsOfPage() {
+            List<Integer> rows = shuffledRange(1_000);
+            AtomicLong materialized = new AtomicLong();
+
+            BoundedPageSelector.selectRows(rows.stream().mapToInt(Integer::intValue).iterator(), Integer::compare,
+                    PageRequest.of(3, 20), row -> materialized.incrementAndGet());
+
+            assertThat(materialized.get()).isEqualTo(20);
+        }
+
+        /**
+         * Wall-clock assertions are flaky on shared build agents, so the growth of the work per page is asserted via the
+         * number of comparisons instead: a full sort needs about n * log2(n) comparisons, the bounded selection of the
+         * first page stays close to n.
+         */
+        @Test
+        void shouldGrowLinearlyWithDatasetSizeForFirstPage() {
+            long smallComparisons = countComparisonsForFirstPage(10_000);
+            long largeComparisons = countComparisonsForFirstPage(1_000_000);
+
+            assertThat(smallComparisons).isLessThan(2 * 10_000L);
+            assertThat(largeComparisons).isLessThan(2 * 1_000_000L);
+            assertThat(largeComparisons / (double) smallComparisons).isLessThan(110.0);
+        }
+
+    }
+
+    private static long countComparisonsForFirstPage(int size) {
+        AtomicLong comparisons = new AtomicLong();
+        IntArrays.IntComparator comparator = (a, b) -> {
+            comparisons.incrementAndGet();
+            return Integer.compare(a, b);
+        };
+        BoundedPageSelector.selectRows(shuffledRange(size).stream().mapToInt(Integer::intValue).iterator(), comparator,
+                PageRequest.of(0, 20), Integer::valueOf);
+        return comparisons.get();
+    }
+
+    private static List<Integer> shuffledRange(int size) {
+        List<Integer> elements = new ArrayList<>(IntStream.range(0, size).boxed().toList());
+        Collections.shuffle(elements, new Random(42));
+        return elements;
+    }
+
+}
@@ -0,0 +1,226 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingPersonRepositoryTest {
+
+    private static final Pageable PAGEABLE = PageRequest.of(0, 10);
+
+    @Mock
+    PersonRepository delegate;
+
+    CachingPersonRepository objectUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        objectUnderTest = new CachingPersonRepository(delegate, 100, 1000);
+    }
+
+    @Nested
+    class Find {
+
+        @Test
+        void shouldReadEachNormalizedQueryOnce() {
+            when(delegate.findBySearch(anyString(), any())).thenReturn(Page.empty());
+
+            objectUnderTest.findBySearch("Hans", PAGEABLE);
+            objectUnderTest.findBySearch("hANS", PageRequest.of(0, 10, Sort.by("id")));
+            objectUnderTest.findBySearchAndColor("hans", null, PAGEABLE);
+
+            verify(delegate).findBySearch("Hans", PAGEABLE);
+            verifyNoMoreInteractions(delegate);
+        }
+
+        @Test
+        void shouldReadDifferentPagesAndColorsSeparately() {
+            when(delegate.findByColor(any(), any())).thenReturn(Page.empty());
+
+            objectUnderTest.findByColor(Color.RED, PAGEABLE);
+            objectUnderTest.findByColor(Color.RED, PageRequest.of(1, 10));
+            objectUnderTest.findByColor(Color.BLUE, PAGEABLE);
+
+            verify(delegate, times(3)).findByColor(any(), any());
+        }
+
+        @Test
+        void shouldNotCacheMissingPersons() {
+            when(delegate.findById(6L)).thenReturn(Optional.empty());
+
+            objectUnderTest.findById(6L);
+            objectUnderTest.findById(6L);
+
+            verify(delegate, times(2)).findById(6L);
+            assertThat(objectUnderTest.cache().size()).isZero();
+        }
+
+        @Test
+        void shouldPassWindowsThrough() {
+            objectUnderTest.findWindow(null, null, Sort.by("id"), null, 10);
+            objectUnderTest.findWindow(null, null, Sort.by("id"), null, 10);
+
+            verify(delegate, times(2)).findWindow(null, null, Sort.by("id"), null, 10);
+        }
+
+    }
+
+    @Nested
+    class Save {
+
+        @Test
+        void shouldRemoveResultsMatchingSavedPerson() {
+            givenPages();
+            Person person = createPerson(null, "Hans", Color.BLUE);
+            when(delegate.save(person)).thenReturn(createPerson(6L, "Hans", Color.BLUE));
+
+            objectUnderTest.save(person);
+            readPages();
+
+            verify(delegate, times(2)).findAll(PAGEABLE);
+            verify(delegate, times(2)).findBySearch("han", PAGEABLE);
+            verify(delegate, times(2)).findByColor(Color.BLUE, PAGEABLE);
+            verify(delegate, times(2)).findById(6L);
+        }
+
+        @Test
+        void shouldKeepResultsNotMatchingSavedPerson() {
+            givenPages();
+            Person person = createPerson(null, "Peter", Color.RED);
+            when(delegate.save(person)).thenReturn(createPerson(7L, "Peter", Color.RED));
+
+            objectUnderTest.save(person);
+            readPages();
+
+            verify(delegate, times(2)).findAll(PAGEABLE);
+            verify(delegate).findBySearch("han", PAGEABLE);
+            verify(delegate).findByColor(Color.BLUE, PAGEABLE);
+            verify(delegate).findById(6L);
+        }
+
+        @Test
+        void shouldRemoveAllResultsWhenSavedPersonHasId() {
+            givenPages();
+            Person person = createPerson(2L, "Peter", Color.RED);
+            when(delegate.save(person)).thenReturn(person);
+
+            objectUnderTest.save(person);
+            readPages();
+
+            verify(delegate, times(2)).findBySearch("han", PAGEABLE);
+            verify(delegate, times(2)).findByColor(Color.BLUE, PAGEABLE);
+        }
+
+        @Test
+        void shouldRemoveResultsMatchingPersonsOfBatch() {
+            givenPages();
+            List<Person> persons = List.of(createPerson(null, "Peter", Color.RED),
+                    createPerson(null, "Johanna", Color.GREEN));
+            when(delegate.saveBatch(persons)).thenReturn(List.of(createPerson(6L, "Peter", Color.RED),
+                    createPerson(7L, "Johanna", Color.GREEN)));
+
+            objectUnderTest.saveBatch(persons);
+            readPages();
+
+            verify(delegate, times(2)).findBySearch("han", PAGEABLE);
+            verify(delegate).findByColor(Color.BLUE, PAGEABLE);
+        }
+
+        @Test
+        void shouldRemoveResultsAgainWhenTransactionHasCompleted() {
+            Person person = createPerson(null, "Hans", Color.BLUE);
+            when(delegate.save(person)).thenReturn(createPerson(6L, "Hans", Color.BLUE));
+            when(delegate.findById(6L)).thenReturn(Optional.of(createPerson(6L, "Hans", Color.BLUE)));
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                objectUnderTest.save(person);
+                objectUnderTest.findById(6L);
+
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                objectUnderTest.findById(6L);
+
+                verify(delegate, times(2)).findById(6L);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+    }
+
+    @Nested
+    class OnPersonsChanged {
+
+        @Test
+        void shouldRemoveResultsMatchingAppendedPersons() {
+            givenPages();
+
+            objectUnderTest.onPersonsChanged(new PersonsChangedEvent(List.of(createPerson(6L, "Peter", Color.BLUE))));
+            readPages();
+
+            verify(delegate).findBySearch("han", PAGEABLE);
+            verify(delegate, times(2)).findByColor(Color.BLUE, PAGEABLE);
+        }
+
+        @Test
+        void shouldRemoveAllResultsWhenCsvFilesWereReadAgain() {
+            givenPages();
+
+            objectUnderTest.onPersonsChanged(new PersonsChangedEvent(null));
+            readPages();
+
+            verify(delegate, times(2)).findBySearch("han", PAGEABLE);
+            verify(delegate, times(2)).findById(6L);
+        }
+
+    }
+
+    private void givenPages() {
+        lenient().when(delegate.findAll(any())).thenReturn(Page.empty());
+        lenient().when(delegate.findBySearch(anyString(), any())).thenReturn(Page.empty());
+        lenient().when(delegate.findByColor(any(), any()))
+                .thenReturn(new PageImpl<>(List.of(createPerson(1L, "Hans", Color.BLUE))));
+        lenient().when(delegate.findById(anyLong())).thenReturn(Optional.of(createPerson(6L, "Hans", Color.BLUE)));
+        readPages();
+    }
+
+    private void readPages() {
+        objectUnderTest.findAll(PAGEABLE);
+        objectUnderTest.findBySearch("han", PAGEABLE);
+        objectUnderTest.findByColor(Color.BLUE, PAGEABLE);
+        objectUnderTest.findById(6L);
+    }
+
+    private static Person createPerson(Long id, String name, Color color) {
+        Person person = new Person();
+        person.setId(id);
+        person.setName(name);
+        person.setLastname("Müller");
+        person.setZipcode("67742");
+        person.setCity("Lauterecken");
+        person.setColor(color);
+        return person;
+    }
+
+}
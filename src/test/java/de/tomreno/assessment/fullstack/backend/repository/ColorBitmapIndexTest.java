@@ -0,0 +1,82 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColorBitmapIndexTest {
+
+    @Nested
+    class Rows {
+
+        @Test
+        void shouldEnumerateRowsOfColorInAscendingOrder() {
+            ColorBitmapIndex objectUnderTest = new ColorBitmapIndex();
+            for (int row = 0; row < 3_000; row++) {
+                objectUnderTest.add(row, row % 3 == 0 ? Color.RED : Color.BLUE);
+            }
+
+            ColorBitmapIndex.View actual = objectUnderTest.view(3_000);
+
+            assertThat(actual.rows(Color.RED).limit(4)).containsExactly(0, 3, 6, 9);
+            assertThat(actual.rows(Color.RED).count()).isEqualTo(1_000);
+            assertThat(actual.rows(Color.BLUE).count()).isEqualTo(2_000);
+        }
+
+        @Test
+        void shouldReturnNoRowsForUnusedColor() {
+            ColorBitmapIndex objectUnderTest = new ColorBitmapIndex();
+            objectUnderTest.add(0, Color.RED);
+
+            ColorBitmapIndex.View actual = objectUnderTest.view(1);
+
+            assertThat(actual.rows(Color.WHITE)).isEmpty();
+            assertThat(actual.cardinality(Color.WHITE)).isZero();
+        }
+
+    }
+
+    @Nested
+    class Contains {
+
+        @Test
+        void shouldTellWhetherRowHasColor() {
+            ColorBitmapIndex objectUnderTest = new ColorBitmapIndex();
+            objectUnderTest.add(70_000, Color.GREEN);
+
+            ColorBitmapIndex.View actual = objectUnderTest.view(70_001);
+
+            assertThat(actual.contains(70_000, Color.GREEN)).isTrue();
+            assertThat(actual.contains(70_000, Color.RED)).isFalse();
+            assertThat(actual.contains(69_999, Color.GREEN)).isFalse();
+            assertThat(actual.cardinality(Color.GREEN)).isEqualTo(1);
+        }
+
+    }
+
+    @Nested
+    class View {
+
+        @Test
+        void shouldNotExposeRowsAddedAfterView() {
+            ColorBitmapIndex objectUnderTest = new ColorBitmapIndex();
+            for (int row = 0; row < 100; row++) {
+                objectUnderTest.add(row, Color.RED);
+            }
+            ColorBitmapIndex.View actual = objectUnderTest.view(100);
+
+            for (int row = 100; row < 1_000; row++) {
+                objectUnderTest.add(row, Color.RED);
+            }
+
+            assertThat(actual.rows(Color.RED).count()).isEqualTo(100);
+            assertThat(actual.cardinality(Color.RED)).isEqualTo(100);
+            assertThat(actual.contains(100, Color.RED)).isFalse();
+            assertThat(objectUnderTest.view(1_000).rows(Color.RED).count()).isEqualTo(1_000);
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledPersonSortTest {
+
+    @Nested
+    class Of {
+
+        @Test
+        void shouldReturnCachedInstanceForEqualSort() {
+            CompiledPersonSort first = CompiledPersonSort.of(Sort.by(Sort.Direction.ASC, "lastname", "name"));
+            CompiledPersonSort second = CompiledPersonSort.of(Sort.by(Sort.Direction.ASC, "lastname", "name"));
+
+            assertThat(first).isSameAs(second);
+        }
+
+        @Test
+        void shouldUseFirstOrderAsPrimaryKey() {
+            CompiledPersonSort actual = CompiledPersonSort.of(Sort.by(Sort.Order.asc("lastname"), Sort.Order.desc("name")));
+
+            List<Person> sorted = createPersonList().stream().sorted(actual.getComparator()).toList();
+
+            assertThat(sorted).extracting(Person::getId).containsExactly(3L, 2L, 1L, 4L);
+        }
+
+        @Test
+        void shouldBreakTiesByIdInDirectionOfLastOrder() {
+            CompiledPersonSort ascending = CompiledPersonSort.of(Sort.by(Sort.Direction.ASC, "lastname"));
+            CompiledPersonSort descending = CompiledPersonSort.of(Sort.by(Sort.Direction.DESC, "lastname"));
+
+            List<Person> ascendingSorted = createPersonList().stream().sorted(ascending.getComparator()).toList();
+            List<Person> descendingSorted = createPersonList().stream().sorted(descending.getComparator()).toList();
+
+            assertThat(ascendingSorted).extracting(Person::getId).containsExactly(1L, 2L, 3L, 4L);
+            assertThat(descendingSorted).extracting(Person::getId).containsExactly(4L, 3L, 2L, 1L);
+        }
+
+        @Test
+        void shouldIgnoreUnknownAndRepeatedProperties() {
+            CompiledPersonSort actual = CompiledPersonSort.of(Sort.by(Sort.Order.asc("unknown"), Sort.Order.desc("city"),
+                    Sort.Order.asc("city")));
+
+            assertThat(actual.getKeys()).containsExactly(
+                    new CompiledPersonSort.SortKey(PersonProperty.CITY, Sort.Direction.DESC),
+                    new CompiledPersonSort.SortKey(PersonProperty.ID, Sort.Direction.DESC));
+        }
+
+        @Test
+        void shouldProvideIndexedKeyForSinglePropertySort() {
+            CompiledPersonSort actual = CompiledPersonSort.of(Sort.by(Sort.Direction.DESC, "zipcode"));
+
+            assertThat(actual.getIndexedKey())
+                    .contains(new CompiledPersonSort.SortKey(PersonProperty.ZIPCODE, Sort.Direction.DESC));
+        }
+
+        @Test
+        void shouldNotProvideIndexedKeyForMultiPropertySort() {
+            CompiledPersonSort actual = CompiledPersonSort.of(Sort.by(Sort.Direction.ASC, "city", "name"));
+
+            assertThat(actual.getIndexedKey()).isEmpty();
+        }
+
+        @Test
+        void shouldNotProvideIndexedKeyForIdTieBreakerInOppositeDirection() {
+            CompiledPersonSort actual = CompiledPersonSort.of(Sort.by(Sort.Order.asc("city"), Sort.Order.desc("id")));
+
+            assertThat(actual.getIndexedKey()).isEmpty();
+        }
+
+    }
+
+    private static List<Person> createPersonList() {
+        return List.of(
+                createPerson(4, "Hans", "Wurst", Color.BLUE),
+                createPerson(2, "Bernd", "Hansen", Color.GREEN),
+                createPerson(1, "Anna", "Hansen", Color.RED),
+                createPerson(3, "Claudia", "hansen", Color.WHITE)
+        );
+    }
+
+    private static Person createPerson(long id, String name, String lastname, Color color) {
+        Person person = new Person(id);
+        person.setName(name);
+        person.setLastname(lastname);
+        person.setZipcode("12345");
+        person.setCity("Stralsund");
+        person.setColor(color);
+        return person;
+    }
+
+}
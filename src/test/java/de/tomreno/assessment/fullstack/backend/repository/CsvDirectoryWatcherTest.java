@@ -0,0 +1,79 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
+import de.tomreno.assessment.fullstack.backend.parser.PersonCsvParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvDirectoryWatcherTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    private Path csvFile;
+    private PersonCsvRepository repository;
+    private CsvDirectoryWatcher objectUnderTest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        csvFile = Files.writeString(directory.resolve("a.csv"), "Müller, Hans, 67742 Lauterecken, 1\n");
+        AppCsvPersonProps props = new AppCsvPersonProps();
+        props.setDirectory(directory.toUri().toString());
+        PersonCsvParser parser = new PersonCsvParser(props);
+        repository = new PersonCsvRepository(parser);
+        objectUnderTest = new CsvDirectoryWatcher(parser, repository);
+        objectUnderTest.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        objectUnderTest.stop();
+    }
+
+    @Test
+    void shouldAddPersonsAppendedToCsvFile() throws Exception {
+        Files.writeString(csvFile, "Petersen, Peter, 18439 Stralsund, 2\n", StandardOpenOption.APPEND);
+
+        awaitTrue(() -> repository.findById(2L).isPresent());
+
+        assertThat(repository.findById(2L)).get().extracting("lastname").isEqualTo("Petersen");
+        assertThat(repository.snapshot().size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReloadWhenCsvFileWasRewritten() throws Exception {
+        Files.writeString(csvFile, "Petersen, Peter, 18439 Stralsund, 2\n");
+
+        awaitTrue(() -> repository.findById(1L).orElseThrow().getLastname().equals("Petersen"));
+
+        assertThat(repository.snapshot().size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStopWatching() {
+        objectUnderTest.stop();
+
+        assertThat(objectUnderTest.isRunning()).isFalse();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+}
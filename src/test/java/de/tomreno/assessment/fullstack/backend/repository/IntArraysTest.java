@@ -0,0 +1,45 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntArraysTest {
+
+    @Nested
+    class Sort {
+
+        @Test
+        void shouldSortByGivenOrder() {
+            int[] values = new Random(42).ints(10_000, 0, 1_000).toArray();
+            int[] expected = Arrays.stream(values).boxed().sorted((a, b) -> Integer.compare(b, a))
+                    .mapToInt(Integer::intValue).toArray();
+
+            IntArrays.sort(values, (a, b) -> Integer.compare(b, a));
+
+            assertThat(values).containsExactly(expected);
+        }
+
+        @Test
+        void shouldKeepOrderOfEqualValues() {
+            int[] keys = new Random(42).ints(1_000, 0, 10).toArray();
+            int[] positions = new int[keys.length];
+            Arrays.setAll(positions, i -> i);
+
+            IntArrays.sort(positions, (a, b) -> Integer.compare(keys[a], keys[b]));
+
+            for (int i = 1; i < positions.length; i++) {
+                int previous = positions[i - 1];
+                int current = positions[i];
+                assertThat(keys[previous] < keys[current] || keys[previous] == keys[current] && previous < current)
+                        .isTrue();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class LongIntHashIndexTest {
+
+    @Nested
+    class Get {
+
+        @Test
+        void shouldReturnMappedValues() {
+            LongIntHashIndex objectUnderTest = new LongIntHashIndex();
+            for (int row = 0; row < 10_000; row++) {
+                objectUnderTest.put(row + 1L, row);
+            }
+
+            assertThat(objectUnderTest.size()).isEqualTo(10_000);
+            for (int row = 0; row < 10_000; row++) {
+                assertThat(objectUnderTest.get(row + 1L)).isEqualTo(row);
+            }
+        }
+
+        @Test
+        void shouldReturnNotFoundForUnknownKeys() {
+            LongIntHashIndex objectUnderTest = new LongIntHashIndex(4);
+            objectUnderTest.put(1L, 0);
+
+            assertThat(objectUnderTest.get(2L)).isEqualTo(LongIntHashIndex.NOT_FOUND);
+            assertThat(objectUnderTest.get(0L)).isEqualTo(LongIntHashIndex.NOT_FOUND);
+            assertThat(objectUnderTest.get(-1L)).isEqualTo(LongIntHashIndex.NOT_FOUND);
+        }
+
+        @Test
+        void shouldHandleArbitraryKeys() {
+            long[] keys = new Random(42).longs(5_000).toArray();
+            LongIntHashIndex objectUnderTest = new LongIntHashIndex();
+            for (int i = 0; i < keys.length; i++) {
+                objectUnderTest.put(keys[i], i);
+            }
+
+            for (int i = 0; i < keys.length; i++) {
+                assertThat(objectUnderTest.get(keys[i])).isEqualTo(i);
+            }
+        }
+
+    }
+
+    @Nested
+    class Put {
+
+        @Test
+        void shouldRejectExistingKey() {
+            LongIntHashIndex objectUnderTest = new LongIntHashIndex();
+            objectUnderTest.put(7L, 1);
+
+            Throwable thrown = catchException(() -> objectUnderTest.put(7L, 2));
+
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+            assertThat(objectUnderTest.get(7L)).isEqualTo(1);
+            assertThat(objectUnderTest.size()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldRejectNegativeValues() {
+            LongIntHashIndex objectUnderTest = new LongIntHashIndex();
+
+            Throwable thrown = catchException(() -> objectUnderTest.put(1L, -1));
+
+            assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        }
+
+    }
+
+}
@@ -0,0 +1,192 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps.Storage;
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonColumnsTest {
+
+    private static final String[] ZIPCODES = {"12345", "00000", "01234", "0", "", "123", "1234", "123456789",
+            "1234567890", "99999999999", "12a45", "0012"};
+    private static final String[] WORDS = {"Müller", "müller", "Schmidt", "Ärger", "Zander", "zander", "Hans-Peter",
+            "Öhm", "Berlin", "B"};
+    private static final String[] MORE_WORDS = {"Aachen", "ärger", "Yvonne", "Lauterecken", "ZANDER", "Mueller", "A",
+            "Zz", "Dresden", "öhm"};
+
+    @Nested
+    class Materialize {
+
+        @ParameterizedTest
+        @EnumSource(Storage.class)
+        void shouldMaterializeAllFieldsOfRow(Storage storage) {
+            List<Person> persons = createPersons(200, WORDS);
+            PersonColumns objectUnderTest = columnsOf(storage, persons);
+
+            PersonColumns.View actual = objectUnderTest.view(persons.size());
+
+            for (int row = 0; row < persons.size(); row++) {
+                Person expected = persons.get(row);
+                assertThat(actual.person(row)).usingRecursiveComparison().isEqualTo(expected);
+                assertThat(actual.id(row)).isEqualTo(expected.getId());
+                assertThat(actual.color(row)).isEqualTo(expected.getColor());
+            }
+        }
+
+        @Test
+        void shouldShareDictionaryValuesBetweenRowsOnHeap() {
+            List<Person> persons = createPersons(200, WORDS);
+            PersonColumns objectUnderTest = columnsOf(Storage.HEAP, persons);
+
+            PersonColumns.View actual = objectUnderTest.view(persons.size());
+
+            List<Person> berliners = new ArrayList<>();
+            for (int row = 0; row < persons.size(); row++) {
+                if (persons.get(row).getCity().equals("Berlin")) {
+                    berliners.add(actual.person(row));
+                }
+            }
+            assertThat(berliners).hasSizeGreaterThan(1);
+            assertThat(berliners.get(0).getCity()).isSameAs(berliners.get(1).getCity());
+        }
+
+        @Test
+        void shouldMaterializeRowsOfMoreThanOneOffHeapChunk() {
+            List<Person> persons = createPersons(OffHeapPersonColumns.CHUNK_ROWS + 10, WORDS);
+            PersonColumns objectUnderTest = columnsOf(Storage.OFF_HEAP, persons);
+
+            PersonColumns.View actual = objectUnderTest.view(persons.size());
+
+            for (int row = OffHeapPersonColumns.CHUNK_ROWS - 5; row < persons.size(); row++) {
+                assertThat(actual.person(row)).usingRecursiveComparison().isEqualTo(persons.get(row));
+            }
+        }
+
+    }
+
+    @Nested
+    class Compare {
+
+        @ParameterizedTest
+        @EnumSource(PersonProperty.class)
+        void shouldOrderRowsLikePersonComparator(PersonProperty property) {
+            List<Person> persons = createPersons(300, WORDS);
+            for (Storage storage : Storage.values()) {
+                PersonColumns.View objectUnderTest = columnsOf(storage, persons).view(persons.size());
+
+                assertSameOrder(objectUnderTest, persons, property);
+            }
+        }
+
+        @ParameterizedTest
+        @EnumSource(PersonProperty.class)
+        void shouldOrderRowsAddedAfterViewLikePersonComparator(PersonProperty property) {
+            List<Person> persons = new ArrayList<>(createPersons(300, WORDS));
+            List<Person> morePersons = createPersons(30, MORE_WORDS);
+            for (int i = 0; i < morePersons.size(); i++) {
+                morePersons.get(i).setId(persons.size() + i + 1L);
+            }
+            for (Storage storage : Storage.values()) {
+                PersonColumns objectUnderTest = columnsOf(storage, persons);
+                objectUnderTest.view(persons.size());
+                List<Person> all = new ArrayList<>(persons);
+                for (Person person : morePersons) {
+                    objectUnderTest.add(person);
+                    all.add(person);
+                    objectUnderTest.view(all.size());
+                }
+
+                assertSameOrder(objectUnderTest.view(all.size()), all, property);
+            }
+        }
+
+        private static void assertSameOrder(PersonColumns.View columns, List<Person> persons, PersonProperty property) {
+            IntArrays.IntComparator actual = columns.comparator(property);
+            for (int a = 0; a < persons.size(); a++) {
+                for (int b = 0; b < persons.size(); b += 7) {
+                    int expected = property.getComparator().compare(persons.get(a), persons.get(b));
+                    assertThat(Integer.signum(actual.compare(a, b))).as("%s vs %s", persons.get(a), persons.get(b))
+                            .isEqualTo(Integer.signum(expected));
+                }
+            }
+        }
+
+    }
+
+    @Nested
+    class Matcher {
+
+        @ParameterizedTest
+        @EnumSource(Storage.class)
+        void shouldMatchLowercasedTermInAnySearchableField(Storage storage) {
+            Person person = createPerson(1, "Hans", "Wurst", "01234", "Assessment", Color.BLUE);
+            PersonColumns objectUnderTest = columnsOf(storage, List.of(person));
+
+            PersonColumns.View actual = objectUnderTest.view(1);
+
+            assertThat(actual.matcher("han").test(0)).isTrue();
+            assertThat(actual.matcher("urs").test(0)).isTrue();
+            assertThat(actual.matcher("012").test(0)).isTrue();
+            assertThat(actual.matcher("ssess").test(0)).isTrue();
+            assertThat(actual.matcher("hanswurst").test(0)).isFalse();
+            assertThat(actual.matcher("0123x").test(0)).isFalse();
+        }
+
+    }
+
+    @Nested
+    class View {
+
+        @ParameterizedTest
+        @EnumSource(Storage.class)
+        void shouldKeepSizeOfViewWhenRowsAreAdded(Storage storage) {
+            List<Person> persons = createPersons(100, WORDS);
+            PersonColumns objectUnderTest = columnsOf(storage, persons.subList(0, 10));
+            PersonColumns.View actual = objectUnderTest.view(10);
+
+            persons.subList(10, 100).forEach(objectUnderTest::add);
+
+            assertThat(actual.size()).isEqualTo(10);
+            assertThat(actual.person(9).getId()).isEqualTo(10L);
+            assertThat(objectUnderTest.view(100).person(99).getId()).isEqualTo(100L);
+        }
+
+    }
+
+    private static PersonColumns columnsOf(Storage storage, List<Person> persons) {
+        PersonColumns columns = PersonColumns.create(storage, 0);
+        persons.forEach(columns::add);
+        return columns;
+    }
+
+    private static List<Person> createPersons(int size, String[] words) {
+        Random random = new Random(42);
+        List<Person> persons = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            persons.add(createPerson(i, words[random.nextInt(words.length)], words[random.nextInt(words.length)],
+                    ZIPCODES[random.nextInt(ZIPCODES.length)], words[random.nextInt(words.length)],
+                    Color.values()[random.nextInt(Color.values().length)]));
+        }
+        return persons;
+    }
+
+    private static Person createPerson(long id, String name, String lastname, String zipcode, String city, Color color) {
+        Person person = new Person(id);
+        person.setName(name);
+        person.setLastname(lastname);
+        person.setZipcode(zipcode);
+        person.setCity(city);
+        person.setColor(color);
+        return person;
+    }
+
+}
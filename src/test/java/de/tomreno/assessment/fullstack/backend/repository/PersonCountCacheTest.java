@@ -0,0 +1,90 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonCountCacheTest {
+
+    private final PersonCountCache objectUnderTest = new PersonCountCache();
+
+    @Nested
+    class Count {
+
+        @Test
+        void shouldCountOncePerPatternAndColor() {
+            AtomicInteger counted = new AtomicInteger();
+
+            long first = objectUnderTest.count("%hans%", Color.BLUE, () -> 10 + counted.incrementAndGet());
+            long second = objectUnderTest.count("%hans%", Color.BLUE, () -> 10 + counted.incrementAndGet());
+            long otherColor = objectUnderTest.count("%hans%", null, () -> 10 + counted.incrementAndGet());
+
+            assertThat(first).isEqualTo(11);
+            assertThat(second).isEqualTo(11);
+            assertThat(otherColor).isEqualTo(12);
+            assertThat(counted).hasValue(2);
+        }
+
+        @Test
+        void shouldNotCacheMoreThanMaximumNumberOfCounts() {
+            for (int i = 0; i < PersonCountCache.MAX_CACHED_COUNTS; i++) {
+                objectUnderTest.count("%" + i + "%", null, () -> 1);
+            }
+
+            objectUnderTest.count("%hans%", null, () -> 1);
+            long actual = objectUnderTest.count("%hans%", null, () -> 2);
+
+            assertThat(actual).isEqualTo(2);
+            assertThat(objectUnderTest.count("%0%", null, () -> 3)).isEqualTo(1);
+        }
+
+    }
+
+    @Nested
+    class Invalidate {
+
+        @Test
+        void shouldCountAgainAfterInvalidation() {
+            objectUnderTest.count(null, Color.RED, () -> 1);
+
+            objectUnderTest.invalidate();
+
+            assertThat(objectUnderTest.count(null, Color.RED, () -> 2)).isEqualTo(2);
+        }
+
+        @Test
+        void shouldNotReuseCountTakenWhileInvalidating() {
+            long actual = objectUnderTest.count(null, null, () -> {
+                objectUnderTest.invalidate();
+                return 1;
+            });
+
+            assertThat(actual).isEqualTo(1);
+            assertThat(objectUnderTest.count(null, null, () -> 2)).isEqualTo(2);
+        }
+
+        @Test
+        void shouldInvalidateAgainWhenTransactionHasCompleted() {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                objectUnderTest.invalidate();
+                objectUnderTest.count(null, null, () -> 1);
+
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+                assertThat(objectUnderTest.count(null, null, () -> 2)).isEqualTo(2);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+    }
+
+}
@@ -1,5 +1,6 @@
 package de.tomreno.assessment.fullstack.backend.repository;
 
+import de.tomreno.assessment.fullstack.backend.config.AppCsvPersonProps;
 import de.tomreno.assessment.fullstack.backend.entity.Color;
 import de.tomreno.assessment.fullstack.backend.entity.Person;
 import de.tomreno.assessment.fullstack.backend.exception.BackendCsvException;
@@ -9,18 +10,34 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchException;
@@ -38,7 +55,7 @@ class PersonCsvRepositoryTest {
     void setUp() throws Exception {
         try (@SuppressWarnings("unused") AutoCloseable autoCloseable = MockitoAnnotations.openMocks(this)) {
             List<Person> persons = createPersonList();
-            when(personCsvParser.readFromCsv()).thenReturn(persons);
+            givenCsvPersons(persons);
             objectUnderTest = new PersonCsvRepository(personCsvParser);
         }
     }
@@ -48,19 +65,19 @@ class PersonCsvRepositoryTest {
 
         @Test
         void shouldInitializePersonsList() throws IOException {
-            verify(personCsvParser).readFromCsv();
+            verify(personCsvParser).readFromCsv(any());
             verifyNoMoreInteractions(personCsvParser);
         }
 
         @Test
         void shouldThrowBackendInitializationExceptionWhenPersonCsvParserReadFromCsvThrowsIOException() throws IOException {
-            doThrow(IOException.class).when(personCsvParser).readFromCsv();
+            doThrow(IOException.class).when(personCsvParser).readFromCsv(any());
 
             Throwable thrown = catchException(() -> new PersonCsvRepository(personCsvParser));
 
             assertThat(thrown).isInstanceOf(BackendInitializationException.class);
             assertThat(thrown.getMessage()).isEqualTo("Failed to load CSV files");
-            verify(personCsvParser, times(2)).readFromCsv(); // Twice, because it reads on instantiation first
+            verify(personCsvParser, times(2)).readFromCsv(any()); // Twice, because it reads on instantiation first
             verifyNoMoreInteractions(personCsvParser);
         }
 
@@ -259,6 +276,55 @@ class PersonCsvRepositoryTest {
             assertThat(persons.get(4).getColor().getName()).isEqualTo("blau");
         }
 
+        @Test
+        void shouldReturnRequestedPageOnly() {
+            Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "name"));
+
+            Page<Person> actual = objectUnderTest.findAll(pageable);
+
+            List<Person> persons = actual.getContent();
+            assertThat(persons).hasSize(2);
+            assertThat(persons.get(0).getName()).isEqualTo("Bernd");
+            assertThat(persons.get(1).getName()).isEqualTo("Claudia");
+            assertThat(actual.getTotalElements()).isEqualTo(5);
+            assertThat(actual.getTotalPages()).isEqualTo(3);
+        }
+
+        @Test
+        void shouldReturnRemainingPersonsOnLastPage() {
+            Pageable pageable = PageRequest.of(2, 2, Sort.by(Sort.Direction.ASC, "name"));
+
+            Page<Person> actual = objectUnderTest.findAll(pageable);
+
+            assertThat(actual.getContent()).hasSize(1);
+            assertThat(actual.getContent().getFirst().getName()).isEqualTo("Thomas");
+            assertThat(actual.getTotalElements()).isEqualTo(5);
+        }
+
+        @Test
+        void shouldReturnRequestedPageWhenSortedDescending() {
+            Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "color"));
+
+            Page<Person> actual = objectUnderTest.findAll(pageable);
+
+            List<Person> persons = actual.getContent();
+            assertThat(persons).hasSize(2);
+            assertThat(persons.get(0).getColor().getName()).isEqualTo("grün");
+            assertThat(persons.get(1).getColor().getName()).isEqualTo("gelb");
+            assertThat(actual.getTotalElements()).isEqualTo(5);
+        }
+
+        @Test
+        void shouldSortByMultipleProperties() {
+            Pageable pageable = PageRequest.of(0, 5, Sort.by(Sort.Order.desc("zipcode"), Sort.Order.asc("name")));
+
+            Page<Person> actual = objectUnderTest.findAll(pageable);
+
+            List<Person> persons = actual.getContent();
+            assertThat(persons).extracting(Person::getZipcode)
+                    .containsExactly("98765", "87342", "55443", "18435", "12345");
+        }
+
     }
 
     @Nested
@@ -275,6 +341,34 @@ class PersonCsvRepositoryTest {
             assertThat(actual.getContent().getFirst().getColor()).isEqualTo(color);
         }
 
+        @Test
+        void shouldReturnOnlyPersonsOfColorWhenPagedAndSortedByIndexedProperty() throws IOException {
+            List<Person> persons = createPersonList();
+            persons.add(createPerson(6, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.BLUE));
+            givenCsvPersons(persons);
+            objectUnderTest = new PersonCsvRepository(personCsvParser);
+            Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "name"));
+
+            Page<Person> actual = objectUnderTest.findByColor(Color.BLUE, pageable);
+
+            assertThat(actual.getContent()).extracting(Person::getName).containsExactly("Kunigunde");
+            assertThat(actual.getTotalElements()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldReturnOnlyPersonsOfColorWhenSortedByMultipleProperties() throws IOException {
+            List<Person> persons = createPersonList();
+            persons.add(createPerson(6, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.BLUE));
+            givenCsvPersons(persons);
+            objectUnderTest = new PersonCsvRepository(personCsvParser);
+            Pageable pageable = PageRequest.of(0, 5, Sort.by(Sort.Direction.ASC, "city", "name"));
+
+            Page<Person> actual = objectUnderTest.findByColor(Color.BLUE, pageable);
+
+            assertThat(actual.getContent()).extracting(Person::getCity).containsExactly("Assessment", "Berlin");
+            assertThat(actual.getTotalElements()).isEqualTo(2);
+        }
+
     }
 
     @Nested
@@ -318,6 +412,26 @@ class PersonCsvRepositoryTest {
             assertThat(persons.get(2).getCity()).isEqualTo("Hansestadt");
         }
 
+        @Test
+        void shouldFindPersonsWhenSearchIsShorterThanTrigram() {
+            Pageable pageable = PageRequest.of(0, 5, Sort.by(Sort.Direction.ASC, "id"));
+
+            Page<Person> actual = objectUnderTest.findBySearch("SA", pageable);
+
+            assertThat(actual.getContent()).extracting(Person::getId).containsExactly(2L, 3L);
+        }
+
+        @Test
+        void shouldReportTotalOfAllMatchesWhenPaged() {
+            Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "id"));
+
+            Page<Person> actual = objectUnderTest.findBySearch("hans", pageable);
+
+            assertThat(actual.getContent()).hasSize(1);
+            assertThat(actual.getContent().getFirst().getName()).isEqualTo("Hans");
+            assertThat(actual.getTotalElements()).isEqualTo(3);
+        }
+
     }
 
     @Nested
@@ -337,6 +451,190 @@ class PersonCsvRepositoryTest {
             assertThat(person.getColor()).isEqualTo(Color.BLUE);
         }
 
+        @Test
+        void shouldFindPersonsWhenSearchIsShorterThanTrigram() {
+            Pageable pageable = PageRequest.of(0, 5, Sort.by(Sort.Direction.ASC, "id"));
+
+            Page<Person> actual = objectUnderTest.findBySearchAndColor("sa", Color.RED, pageable);
+
+            assertThat(actual.getContent()).extracting(Person::getName).containsExactly("Sansa");
+        }
+
+    }
+
+    @Nested
+    class FindSlice {
+
+        @Test
+        void shouldReturnSliceOfAllPersonsWithNextSlice() {
+            Slice<Person> actual = objectUnderTest.findSlice(null, null,
+                    PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "city")));
+
+            assertThat(actual.getContent()).extracting(Person::getId).containsExactly(4L, 2L);
+            assertThat(actual.hasNext()).isTrue();
+        }
+
+        @Test
+        void shouldReturnLastSliceOfPersonsMatchingSearch() {
+            Slice<Person> actual = objectUnderTest.findSlice("hans", null, PageRequest.of(1, 2));
+
+            assertThat(actual.getContent()).extracting(Person::getId).containsExactly(5L);
+            assertThat(actual.hasNext()).isFalse();
+        }
+
+        @Test
+        void shouldReturnSliceOfPersonsOfColor() throws IOException {
+            List<Person> persons = createPersonList();
+            persons.add(createPerson(6, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.BLUE));
+            givenCsvPersons(persons);
+            objectUnderTest = new PersonCsvRepository(personCsvParser);
+
+            Slice<Person> byColor = objectUnderTest.findSlice(null, Color.BLUE, PageRequest.of(0, 1));
+            Slice<Person> bySearchAndColor = objectUnderTest.findSlice("grund", Color.BLUE, PageRequest.of(0, 1));
+
+            assertThat(byColor.getContent()).extracting(Person::getId).containsExactly(1L);
+            assertThat(byColor.hasNext()).isTrue();
+            assertThat(bySearchAndColor.getContent()).extracting(Person::getId).containsExactly(6L);
+            assertThat(bySearchAndColor.hasNext()).isFalse();
+        }
+
+    }
+
+    @Nested
+    class FindWindow {
+
+        @Test
+        void shouldReturnFirstWindowAndPositionOfLastPerson() {
+            Window<Person> actual = objectUnderTest.findWindow(null, null, Sort.by(Sort.Direction.ASC, "name"),
+                    ScrollPosition.keyset(), 2);
+
+            assertThat(actual.getContent()).extracting(Person::getName).containsExactly("Bernd", "Claudia");
+            assertThat(actual.hasNext()).isTrue();
+            assertThat(((KeysetScrollPosition) actual.positionAt(1)).getKeys())
+                    .containsExactly(Map.entry("name", "Claudia"), Map.entry("id", 5L));
+        }
+
+        @Test
+        void shouldWalkAllPersonsWindowByWindowWhenSortedAscending() {
+            assertThat(walk(null, null, Sort.by(Sort.Direction.ASC, "city")))
+                    .containsExactly(1L, 5L, 4L, 2L, 3L);
+        }
+
+        @Test
+        void shouldWalkAllPersonsWindowByWindowWhenSortedDescending() {
+            assertThat(walk(null, null, Sort.by(Sort.Direction.DESC, "zipcode")))
+                    .containsExactly(2L, 5L, 3L, 4L, 1L);
+        }
+
+        @Test
+        void shouldWalkAllPersonsWindowByWindowWhenSortedByMixedDirections() throws IOException {
+            List<Person> persons = createPersonList();
+            persons.add(createPerson(6, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.BLUE));
+            givenCsvPersons(persons);
+            objectUnderTest = new PersonCsvRepository(personCsvParser);
+
+            assertThat(walk(null, null, Sort.by(Sort.Order.asc("color"), Sort.Order.desc("name"))))
+                    .containsExactly(6L, 1L, 4L, 2L, 3L, 5L);
+        }
+
+        @Test
+        void shouldWalkOnlyPersonsOfColor() throws IOException {
+            List<Person> persons = createPersonList();
+            persons.add(createPerson(6, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.BLUE));
+            persons.add(createPerson(7, "Anton", "Grundwitz", "10439", "Berlin", Color.BLUE));
+            givenCsvPersons(persons);
+            objectUnderTest = new PersonCsvRepository(personCsvParser);
+
+            assertThat(walk(null, Color.BLUE, Sort.by(Sort.Direction.DESC, "name"))).containsExactly(6L, 1L, 7L);
+        }
+
+        @Test
+        void shouldWalkOnlyPersonsMatchingSearchAndColor() {
+            assertThat(walk("s", null, Sort.unsorted())).containsExactly(1L, 2L, 3L, 4L, 5L);
+            assertThat(walk("hans", null, Sort.by(Sort.Direction.DESC, "id"))).containsExactly(5L, 2L, 1L);
+            assertThat(walk("hans", Color.GREEN, Sort.unsorted())).containsExactly(2L);
+        }
+
+        @Test
+        void shouldContinueWithPersonsSavedAfterPosition() throws IOException, URISyntaxException {
+            Sort sort = Sort.by(Sort.Direction.ASC, "city");
+            Window<Person> first = objectUnderTest.findWindow(null, null, sort, ScrollPosition.keyset(), 2);
+            when(personCsvParser.appendToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            objectUnderTest.save(createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Aachen", Color.GREEN));
+            objectUnderTest.save(createPerson(0L, "Anton", "Grundwitz", "18055", "Rostock", Color.GREEN));
+
+            Window<Person> actual = objectUnderTest.findWindow(null, null, sort,
+                    (KeysetScrollPosition) first.positionAt(1), 10);
+
+            assertThat(first.getContent()).extracting(Person::getId).containsExactly(1L, 5L);
+            assertThat(actual.getContent()).extracting(Person::getId).containsExactly(7L, 4L, 2L, 3L);
+        }
+
+        @Test
+        void shouldThrowIllegalArgumentExceptionWhenPositionLacksSortKey() {
+            KeysetScrollPosition position = ScrollPosition.forward(Map.of("id", 2L));
+
+            Exception actual = catchException(() -> objectUnderTest.findWindow(null, null,
+                    Sort.by(Sort.Direction.ASC, "name"), position, 2));
+
+            assertThat(actual).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        private List<Long> walk(String search, Color color, Sort sort) {
+            List<Long> ids = new ArrayList<>();
+            Window<Person> window = objectUnderTest.findWindow(search, color, sort, ScrollPosition.keyset(), 2);
+            ids.addAll(window.getContent().stream().map(Person::getId).toList());
+            while (window.hasNext()) {
+                window = objectUnderTest.findWindow(search, color, sort,
+                        (KeysetScrollPosition) window.positionAt(window.size() - 1), 2);
+                ids.addAll(window.getContent().stream().map(Person::getId).toList());
+            }
+            return ids;
+        }
+
+    }
+
+    @Nested
+    class ExportAll {
+
+        @Test
+        void shouldExportAllPersonsInOrderOfIds() {
+            List<Person> exported = new ArrayList<>();
+
+            objectUnderTest.exportAll(null, null, exported::add);
+
+            assertThat(exported).extracting(Person::getId).containsExactly(1L, 2L, 3L, 4L, 5L);
+            assertThat(exported.getFirst().getName()).isEqualTo("Hans");
+        }
+
+        @Test
+        void shouldExportPersonsMatchingSearch() {
+            List<Person> exported = new ArrayList<>();
+
+            objectUnderTest.exportAll("hans", null, exported::add);
+
+            assertThat(exported).extracting(Person::getId).containsExactly(1L, 2L, 5L);
+        }
+
+        @Test
+        void shouldExportPersonsOfColor() {
+            List<Person> exported = new ArrayList<>();
+
+            objectUnderTest.exportAll(null, Color.RED, exported::add);
+
+            assertThat(exported).extracting(Person::getName).containsExactly("Sansa");
+        }
+
+        @Test
+        void shouldExportPersonsMatchingSearchAndColor() {
+            List<Person> exported = new ArrayList<>();
+
+            objectUnderTest.exportAll("hans", Color.GREEN, exported::add);
+            objectUnderTest.exportAll("sa", Color.RED, exported::add);
+
+            assertThat(exported).extracting(Person::getName).containsExactly("Bernd", "Sansa");
+        }
+
     }
 
     @Nested
@@ -344,62 +642,430 @@ class PersonCsvRepositoryTest {
 
         @Test
         void shouldReturnSavedPerson() throws IOException, URISyntaxException {
-            Person person = createPerson(1L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
-            List<Person> personList = createPersonList();
-            personList.add(person);
-            when(personCsvParser.readFromCsv()).thenReturn(personList);
+            Person person = createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
+            when(personCsvParser.appendToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             Person actual = objectUnderTest.save(person);
 
             assertThat(actual).isNotNull();
             assertThat(actual).isEqualTo(person);
-            verify(personCsvParser).saveToCsv(person);
-            verify(personCsvParser, times(2)).readFromCsv(); // Twice, because it reads on instantiation first
+            verify(personCsvParser).appendToCsv(any());
+            verify(personCsvParser).appendedEntries();
+            verify(personCsvParser).awaitAppended(anyLong());
+            verify(personCsvParser).readFromCsv(any()); // Once, because it only reads on instantiation
             verifyNoMoreInteractions(personCsvParser);
         }
 
         @Test
-        void shouldThrowBackendCsvExceptionWhenPersonCsvParserSaveToCsvThrowsIOException() throws IOException, URISyntaxException {
+        void shouldAwaitOwnEntryOnly() throws IOException, URISyntaxException {
+            Person person = createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
+            when(personCsvParser.appendToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            when(personCsvParser.appendedEntries()).thenReturn(42L);
+
+            objectUnderTest.save(person);
+
+            verify(personCsvParser).awaitAppended(42L);
+        }
+
+        @Test
+        void shouldAssignNextId() throws IOException, URISyntaxException {
+            Person person = createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
+            when(personCsvParser.appendToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            Person actual = objectUnderTest.save(person);
+
+            assertThat(actual.getId()).isEqualTo(6L);
+        }
+
+        @Test
+        void shouldMakeSavedPersonAvailableToAllQueries() throws IOException, URISyntaxException {
+            Person person = createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
+            when(personCsvParser.appendToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            objectUnderTest.save(person);
+
+            Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "city"));
+            assertThat(objectUnderTest.findById(6L)).contains(person);
+            assertThat(objectUnderTest.findAll(pageable).getContent()).extracting(Person::getCity)
+                    .containsExactly("Assessment", "Berlin", "Hansestadt", "Stralsund", "Tnemssessa", "Winterfell");
+            assertThat(objectUnderTest.findByColor(Color.GREEN, pageable).getContent())
+                    .extracting(Person::getId).containsExactly(6L, 2L);
+            assertThat(objectUnderTest.findBySearch("grund", pageable).getContent()).containsExactly(person);
+            assertThat(objectUnderTest.findBySearchAndColor("be", Color.GREEN, pageable).getContent())
+                    .extracting(Person::getId).containsExactly(6L, 2L);
+        }
+
+        @Test
+        void shouldThrowBackendCsvExceptionWhenPersonCsvParserAppendToCsvThrowsIllegalArgumentException() throws IOException, URISyntaxException {
             Person person = mock(Person.class);
-            doThrow(IOException.class).when(personCsvParser).saveToCsv(person);
+            doThrow(IllegalArgumentException.class).when(personCsvParser).appendToCsv(any());
 
             Throwable thrown = catchException(() -> objectUnderTest.save(person));
 
             assertThat(thrown).isInstanceOf(BackendCsvException.class);
             assertThat(thrown.getMessage()).isEqualTo("Failed to save CSV entry");
-            verify(personCsvParser).saveToCsv(person);
-            verifyNoMoreInteractions(personCsvParser);
-            verifyNoMoreInteractions(personCsvParser);
         }
 
         @Test
-        void shouldThrowBackendCsvExceptionWhenPersonCsvParserSaveToCsvThrowsURISyntaxException() throws IOException, URISyntaxException {
+        void shouldThrowBackendCsvExceptionWhenPersonCsvParserAppendToCsvThrowsIOException() throws IOException, URISyntaxException {
             Person person = mock(Person.class);
-            doThrow(URISyntaxException.class).when(personCsvParser).saveToCsv(person);
+            doThrow(IOException.class).when(personCsvParser).appendToCsv(any());
 
             Throwable thrown = catchException(() -> objectUnderTest.save(person));
 
             assertThat(thrown).isInstanceOf(BackendCsvException.class);
             assertThat(thrown.getMessage()).isEqualTo("Failed to save CSV entry");
-            verify(personCsvParser).saveToCsv(person);
+            verify(personCsvParser).appendToCsv(any());
             verifyNoMoreInteractions(personCsvParser);
             verifyNoMoreInteractions(personCsvParser);
         }
 
         @Test
-        void shouldThrowBackendCsvExceptionWhenPersonCsvParserReadFromCsvThrowsIOException() throws IOException, URISyntaxException {
+        void shouldThrowBackendCsvExceptionWhenPersonCsvParserAppendToCsvThrowsURISyntaxException() throws IOException, URISyntaxException {
             Person person = mock(Person.class);
-            doThrow(IOException.class).when(personCsvParser).saveToCsv(person);
+            doThrow(URISyntaxException.class).when(personCsvParser).appendToCsv(any());
 
             Throwable thrown = catchException(() -> objectUnderTest.save(person));
 
             assertThat(thrown).isInstanceOf(BackendCsvException.class);
             assertThat(thrown.getMessage()).isEqualTo("Failed to save CSV entry");
-            verify(personCsvParser).saveToCsv(person);
+            verify(personCsvParser).appendToCsv(any());
             verifyNoMoreInteractions(personCsvParser);
             verifyNoMoreInteractions(personCsvParser);
         }
 
+        @Test
+        void shouldNotAssignIdToPersonWhenAppendingFails() throws IOException, URISyntaxException {
+            Person person = createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
+            doThrow(IllegalArgumentException.class).when(personCsvParser).appendToCsv(any());
+
+            catchException(() -> objectUnderTest.save(person));
+
+            assertThat(person.getId()).isZero();
+        }
+
+        @Test
+        void shouldReloadAndThrowBackendCsvExceptionWhenWritingAppendedEntryFails() throws IOException, URISyntaxException {
+            Person person = createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
+            when(personCsvParser.appendToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            doThrow(IOException.class).when(personCsvParser).awaitAppended(anyLong());
+            when(personCsvParser.hasFailedAppends()).thenReturn(true);
+
+            Throwable thrown = catchException(() -> objectUnderTest.save(person));
+
+            assertThat(thrown).isInstanceOf(BackendCsvException.class);
+            assertThat(thrown.getMessage()).isEqualTo("Failed to save CSV entry");
+            assertThat(objectUnderTest.findById(6L)).isEmpty();
+            assertThat(person.getId()).isZero();
+            InOrder inOrder = inOrder(personCsvParser);
+            inOrder.verify(personCsvParser, times(2)).readFromCsv(any());
+            inOrder.verify(personCsvParser).discardFailedAppends();
+        }
+
+        @Test
+        void shouldPublishPersonsChangedEventWithoutAppendedPersonsWhenWritingAppendedEntryFails() throws IOException, URISyntaxException {
+            ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+            objectUnderTest = new PersonCsvRepository(personCsvParser, AppCsvPersonProps.Storage.HEAP, eventPublisher);
+            Person person = createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
+            when(personCsvParser.appendToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            doThrow(IOException.class).when(personCsvParser).awaitAppended(anyLong());
+            when(personCsvParser.hasFailedAppends()).thenReturn(true);
+
+            catchException(() -> objectUnderTest.save(person));
+
+            verify(eventPublisher).publishEvent(new PersonsChangedEvent(null));
+        }
+
+        @Test
+        void shouldNotReloadAgainWhenFailedEntriesWereDiscardedAlready() throws IOException, URISyntaxException {
+            Person person = createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
+            when(personCsvParser.appendToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            doThrow(IOException.class).when(personCsvParser).awaitAppended(anyLong());
+
+            Throwable thrown = catchException(() -> objectUnderTest.save(person));
+
+            assertThat(thrown).isInstanceOf(BackendCsvException.class);
+            verify(personCsvParser).readFromCsv(any()); // Once, on instantiation only
+            verify(personCsvParser, never()).discardFailedAppends();
+        }
+
+    }
+
+    @Nested
+    class SaveBatch {
+
+        @Test
+        void shouldAssignNextIdsAndMakePersonsAvailable() throws IOException, URISyntaxException {
+            List<Person> persons = List.of(
+                    createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN),
+                    createPerson(0L, "Hans", "Wurst", "12345", "Assessment", Color.RED));
+            when(personCsvParser.appendAllToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            List<Person> actual = objectUnderTest.saveBatch(persons);
+
+            assertThat(actual).extracting(Person::getId).containsExactly(6L, 7L);
+            assertThat(objectUnderTest.findById(7L)).contains(persons.get(1));
+            assertThat(objectUnderTest.findBySearch("grund", PageRequest.of(0, 10)).getContent())
+                    .containsExactly(persons.get(0));
+            verify(personCsvParser).awaitAppended(anyLong());
+        }
+
+        @Test
+        void shouldThrowBackendCsvExceptionWithoutSavingAnyPersonWhenOneIsInvalid() throws IOException, URISyntaxException {
+            List<Person> persons = List.of(createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN));
+            doThrow(IllegalArgumentException.class).when(personCsvParser).appendAllToCsv(any());
+
+            Throwable thrown = catchException(() -> objectUnderTest.saveBatch(persons));
+
+            assertThat(thrown).isInstanceOf(BackendCsvException.class);
+            assertThat(thrown.getMessage()).isEqualTo("Failed to save CSV entries");
+            assertThat(objectUnderTest.findById(6L)).isEmpty();
+            assertThat(persons.getFirst().getId()).isZero();
+        }
+
+        @Test
+        void shouldReloadAndThrowBackendCsvExceptionWhenWritingAppendedEntriesFails() throws IOException, URISyntaxException {
+            List<Person> persons = List.of(createPerson(0L, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN));
+            when(personCsvParser.appendAllToCsv(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            doThrow(IOException.class).when(personCsvParser).awaitAppended(anyLong());
+            when(personCsvParser.hasFailedAppends()).thenReturn(true);
+
+            Throwable thrown = catchException(() -> objectUnderTest.saveBatch(persons));
+
+            assertThat(thrown).isInstanceOf(BackendCsvException.class);
+            assertThat(thrown.getMessage()).isEqualTo("Failed to save CSV entries");
+            assertThat(objectUnderTest.findById(6L)).isEmpty();
+            verify(personCsvParser, times(2)).readFromCsv(any());
+            verify(personCsvParser).discardFailedAppends();
+        }
+
+    }
+
+    @Nested
+    class Reload {
+
+        @Test
+        void shouldReplacePersonsWithReReadPersons() throws IOException {
+            List<Person> persons = createPersonList();
+            persons.add(createPerson(6, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN));
+            givenCsvPersons(persons);
+
+            objectUnderTest.reload();
+
+            assertThat(objectUnderTest.findById(6L)).isPresent();
+            verify(personCsvParser, times(2)).readFromCsv(any()); // Twice, because it reads on instantiation first
+        }
+
+        @Test
+        void shouldPublishPersonsChangedEventWithoutAppendedPersons() throws IOException {
+            ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+            objectUnderTest = new PersonCsvRepository(personCsvParser, AppCsvPersonProps.Storage.HEAP, eventPublisher);
+
+            objectUnderTest.reload();
+
+            verify(eventPublisher).publishEvent(new PersonsChangedEvent(null));
+        }
+
+        @Test
+        void shouldThrowBackendCsvExceptionWhenPersonCsvParserReadFromCsvThrowsIOException() throws IOException {
+            doThrow(IOException.class).when(personCsvParser).readFromCsv(any());
+
+            Throwable thrown = catchException(() -> objectUnderTest.reload());
+
+            assertThat(thrown).isInstanceOf(BackendCsvException.class);
+            assertThat(thrown.getMessage()).isEqualTo("Failed to reload CSV files");
+        }
+
+    }
+
+    @Nested
+    class Ingest {
+
+        @Test
+        void shouldAddPersonsOfAppendedEntries() throws IOException {
+            Path csvFile = Path.of("persons.csv");
+            doAnswer(invocation -> {
+                Consumer<Person> consumer = invocation.getArgument(2);
+                consumer.accept(createPerson(6, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN));
+                return true;
+            }).when(personCsvParser).readAppended(eq(List.of(csvFile)), eq(6L), any());
+
+            objectUnderTest.ingest(List.of(csvFile));
+
+            assertThat(objectUnderTest.findById(6L)).isPresent();
+            assertThat(objectUnderTest.findBySearch("Kuni", PageRequest.of(0, 10))).hasSize(1);
+            verify(personCsvParser).readFromCsv(any()); // Once, on instantiation only
+        }
+
+        @Test
+        void shouldPublishPersonsChangedEventWithAppendedPersons() throws IOException {
+            ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+            objectUnderTest = new PersonCsvRepository(personCsvParser, AppCsvPersonProps.Storage.HEAP, eventPublisher);
+            Person appended = createPerson(6, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN);
+            doAnswer(invocation -> {
+                Consumer<Person> consumer = invocation.getArgument(2);
+                consumer.accept(appended);
+                return true;
+            }).when(personCsvParser).readAppended(any(), eq(6L), any());
+
+            objectUnderTest.ingest(List.of(Path.of("persons.csv")));
+
+            verify(eventPublisher).publishEvent(new PersonsChangedEvent(List.of(appended)));
+        }
+
+        @Test
+        void shouldReloadWhenCsvFilesMustBeReadAgain() throws IOException {
+            List<Person> persons = createPersonList();
+            persons.add(createPerson(6, "Kunigunde", "Grundwitz", "10439", "Berlin", Color.GREEN));
+            givenCsvPersons(persons);
+            when(personCsvParser.readAppended(any(), anyLong(), any())).thenReturn(false);
+
+            objectUnderTest.ingest(List.of(Path.of("persons.csv")));
+
+            assertThat(objectUnderTest.findById(6L)).isPresent();
+            verify(personCsvParser, times(2)).readFromCsv(any());
+        }
+
+        @Test
+        void shouldThrowBackendCsvExceptionWhenPersonCsvParserReadAppendedThrowsIOException() throws IOException {
+            when(personCsvParser.readAppended(any(), anyLong(), any())).thenThrow(IOException.class);
+
+            Throwable thrown = catchException(() -> objectUnderTest.ingest(List.of(Path.of("persons.csv"))));
+
+            assertThat(thrown).isInstanceOf(BackendCsvException.class);
+            assertThat(thrown.getMessage()).isEqualTo("Failed to read appended CSV entries");
+        }
+
+    }
+
+    @Nested
+    class OffHeapStorage {
+
+        @Test
+        void shouldAnswerQueriesLikeHeapStorage() throws IOException, URISyntaxException {
+            when(personCsvParser.appendToCsv(any(Person.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            PersonCsvRepository offHeap = new PersonCsvRepository(personCsvParser, AppCsvPersonProps.Storage.OFF_HEAP);
+            for (PersonCsvRepository repository : List.of(objectUnderTest, offHeap)) {
+                repository.save(createPerson(0L, "Kunigunde", "Grundwitz", "01234", "Berlin", Color.GREEN));
+            }
+
+            for (Sort sort : List.of(Sort.by("name"), Sort.by(Sort.Direction.DESC, "zipcode"),
+                    Sort.by("color", "city"), Sort.by(Sort.Direction.DESC, "lastname"))) {
+                Pageable pageable = PageRequest.of(0, 4, sort);
+                assertThat(offHeap.findAll(pageable).getContent()).usingRecursiveFieldByFieldElementComparator()
+                        .isEqualTo(objectUnderTest.findAll(pageable).getContent());
+                assertThat(offHeap.findByColor(Color.GREEN, pageable).getContent())
+                        .usingRecursiveFieldByFieldElementComparator()
+                        .isEqualTo(objectUnderTest.findByColor(Color.GREEN, pageable).getContent());
+                assertThat(offHeap.findBySearch("s", pageable).getContent())
+                        .usingRecursiveFieldByFieldElementComparator()
+                        .isEqualTo(objectUnderTest.findBySearch("s", pageable).getContent());
+                assertThat(offHeap.findBySearchAndColor("012", Color.GREEN, pageable).getContent())
+                        .usingRecursiveFieldByFieldElementComparator()
+                        .isEqualTo(objectUnderTest.findBySearchAndColor("012", Color.GREEN, pageable).getContent());
+            }
+            assertThat(offHeap.findById(6L)).get().usingRecursiveComparison()
+                    .isEqualTo(objectUnderTest.findById(6L).orElseThrow());
+        }
+
+    }
+
+    @Nested
+    class Concurrency {
+
+        private static final int WRITERS = 2;
+        private static final int READERS = 4;
+        private static final int SAVES_PER_WRITER = 2_500;
+
+        @Test
+        void shouldKeepEverySnapshotConsistentWhileSaving() throws Exception {
+            when(personCsvParser.appendToCsv(any(Person.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean saving = new AtomicBoolean(true);
+            try {
+                List<Future<?>> writers = new ArrayList<>();
+                for (int writer = 0; writer < WRITERS; writer++) {
+                    Color color = writer == 0 ? Color.BLUE : Color.GREEN;
+                    writers.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < SAVES_PER_WRITER; i++) {
+                            objectUnderTest.save(createPerson(0L, "Stress", "Test" + i, "10439", "Berlin", color));
+                        }
+                        return null;
+                    }));
+                }
+                List<Future<?>> readers = new ArrayList<>();
+                for (int reader = 0; reader < READERS; reader++) {
+                    readers.add(executor.submit(() -> {
+                        start.await();
+                        long lastVersion = -1;
+                        while (saving.get()) {
+                            lastVersion = assertConsistentSnapshot(lastVersion);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> writer : writers) {
+                    writer.get(1, TimeUnit.MINUTES);
+                }
+                saving.set(false);
+                for (Future<?> reader : readers) {
+                    reader.get(1, TimeUnit.MINUTES);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            int total = 5 + WRITERS * SAVES_PER_WRITER;
+            assertConsistentSnapshot(-1);
+            assertThat(objectUnderTest.snapshot().size()).isEqualTo(total);
+            assertThat(objectUnderTest.snapshot().version()).isEqualTo(WRITERS * SAVES_PER_WRITER);
+            for (long id = 1; id <= total; id++) {
+                assertThat(objectUnderTest.findById(id)).map(Person::getId).contains(id);
+            }
+            assertThat(objectUnderTest.findBySearch("stress", PageRequest.of(0, 1)).getTotalElements())
+                    .isEqualTo(WRITERS * SAVES_PER_WRITER);
+        }
+
+        /**
+         * Asserts that all indexes of the current snapshot agree on its size, that its ids are exactly 1 to size and
+         * that versions never go backwards. Returns the version of the checked snapshot.
+         */
+        private long assertConsistentSnapshot(long lastVersion) {
+            PersonSnapshot snapshot = objectUnderTest.snapshot();
+            int size = snapshot.size();
+            assertThat(snapshot.version()).isGreaterThanOrEqualTo(lastVersion);
+            assertThat(snapshot.sortIndex().size()).isEqualTo(size);
+            assertThat(snapshot.rowOf(size)).isEqualTo(size - 1);
+            assertThat(snapshot.rowOf(size + 1L)).isEqualTo(LongIntHashIndex.NOT_FOUND);
+            long colored = 0;
+            for (Color color : Color.values()) {
+                int cardinality = snapshot.colorIndex().cardinality(color);
+                assertThat(snapshot.colorIndex().rows(color).count()).isEqualTo(cardinality);
+                colored += cardinality;
+            }
+            assertThat(colored).isEqualTo(size);
+            assertThat(snapshot.trigramIndex().rows("berlin").count()).isEqualTo(size - 5);
+            Page<Person> newest = snapshot.sortIndex().page(new CompiledPersonSort.SortKey(PersonProperty.ID,
+                    Sort.Direction.DESC), PageRequest.of(0, 3), snapshot.columns());
+            assertThat(newest.getTotalElements()).isEqualTo(size);
+            assertThat(newest.getContent()).extracting(Person::getId).containsExactly((long) size, size - 1L, size - 2L);
+            Page<Person> byLastname = snapshot.sortIndex().page(new CompiledPersonSort.SortKey(PersonProperty.LASTNAME,
+                    Sort.Direction.ASC), PageRequest.of(0, 1), snapshot.columns());
+            assertThat(byLastname.getContent()).extracting(Person::getLastname).containsExactly("Hansen");
+            return snapshot.version();
+        }
+
+    }
+
+    private void givenCsvPersons(List<Person> persons) throws IOException {
+        doAnswer(invocation -> {
+            Consumer<Person> consumer = invocation.getArgument(0);
+            persons.forEach(consumer);
+            return null;
+        }).when(personCsvParser).readFromCsv(any());
     }
 
     private static List<Person> createPersonList() {
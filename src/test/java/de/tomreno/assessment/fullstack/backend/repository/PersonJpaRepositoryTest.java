@@ -0,0 +1,216 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.database.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:person-jpa-repository-test",
+        "spring.jpa.show-sql=false"
+})
+class PersonJpaRepositoryTest {
+
+    private static final int SIZE = 300;
+    private static final int LIMIT = 7;
+    private static final String[] NAMES = {"Anna", "anna", "Johann", "Ben", "ben", "Carla", "Hannah", "Zoe"};
+    private static final String[] LASTNAMES = {"Müller", "müller", "Schmidt", "Bergmann", "Zander"};
+    private static final String[] CITIES = {"Berlin", "berlin", "Hamburg", "Mannheim", "Köln"};
+    private static final String[] ZIPCODES = {"10115", "20095", "68159", "50667", "10117"};
+    // the color type of the database lacks TURQUOISE
+    private static final Color[] COLORS = Stream.of(Color.values())
+            .filter(color -> color != Color.TURQUOISE)
+            .toArray(Color[]::new);
+
+    @Autowired
+    PersonJpaRepository objectUnderTest;
+
+    @Autowired
+    PersonCountCache countCache;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private List<Person> persons;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM person_term_trigram");
+        jdbcTemplate.execute("DELETE FROM person");
+        persons = createPersons();
+        jdbcTemplate.batchUpdate("INSERT INTO person (id, name, lastname, zipcode, city, color) VALUES (?, ?, ?, ?, ?, ?)",
+                persons.stream()
+                        .map(person -> new Object[]{person.getId(), person.getName(), person.getLastname(),
+                                person.getZipcode(), person.getCity(), person.getColor().name()})
+                        .toList());
+        jdbcTemplate.batchUpdate(PersonTrigrams.INSERT_SQL, PersonTrigrams.rowsOf(persons));
+        jdbcTemplate.execute("ALTER SEQUENCE person_seq RESTART WITH " + (SIZE + 1));
+        countCache.invalidate();
+    }
+
+    @Nested
+    class FindWindow {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"city", "lastname+name", "name:desc+zipcode", "color+id:desc"})
+        void shouldReturnSamePersonsAsPagesWhenChained(String sortSpec) {
+            Sort sort = sortOf(sortSpec);
+
+            for (Filter filter : List.of(new Filter(null, null), new Filter("ann", null),
+                    new Filter(null, Color.GREEN), new Filter("ann", Color.BLUE))) {
+                List<Long> windowIds = windowIds(filter, sort);
+                List<Long> pageIds = pageIds(filter, sort);
+
+                assertThat(windowIds).as("%s of %s", sortSpec, filter)
+                        .hasSize(matching(filter).size())
+                        .isEqualTo(pageIds);
+            }
+        }
+
+    }
+
+    @Nested
+    class Save {
+
+        @Test
+        void shouldFindSavedPersonByNewValuesOnly() {
+            Person person = createPerson(null, "Xaverius", "Zander", "10115", "Berlin", Color.RED);
+
+            Person saved = save(person);
+            Page<Person> beforeUpdate = objectUnderTest.findBySearch("xaver", PageRequest.of(0, 10));
+            saved.setName("Quirinus");
+            save(saved);
+
+            assertThat(beforeUpdate.getContent()).extracting(Person::getId).containsExactly(SIZE + 1L);
+            assertThat(objectUnderTest.findBySearch("xaver", PageRequest.of(0, 10)).getContent()).isEmpty();
+            assertThat(objectUnderTest.findBySearch("quirin", PageRequest.of(0, 10)).getContent())
+                    .extracting(Person::getId).containsExactly(SIZE + 1L);
+        }
+
+        @Test
+        void shouldCountSavedPersonInTotals() {
+            long before = objectUnderTest.countMatching("ann", Color.RED);
+            long totalBefore = objectUnderTest.findBySearchAndColor("ann", Color.RED, PageRequest.of(0, 1))
+                    .getTotalElements();
+
+            save(createPerson(null, "Hannelore", "Zander", "10115", "Berlin", Color.RED));
+
+            assertThat(totalBefore).isEqualTo(before).isEqualTo(matching(new Filter("ann", Color.RED)).size());
+            assertThat(objectUnderTest.countMatching("ann", Color.RED)).isEqualTo(before + 1);
+            assertThat(objectUnderTest.findBySearchAndColor("ann", Color.RED, PageRequest.of(0, 1))
+                    .getTotalElements()).isEqualTo(before + 1);
+        }
+
+    }
+
+    private record Filter(String search, Color color) {
+    }
+
+    /**
+     * Saves through {@link PersonRepository} like the service does, as the save of the JPA repository is ambiguous.
+     */
+    private Person save(Person person) {
+        PersonRepository repository = objectUnderTest;
+        return repository.save(person);
+    }
+
+    private List<Long> windowIds(Filter filter, Sort sort) {
+        List<Long> ids = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        while (true) {
+            Window<Person> window = objectUnderTest.findWindow(filter.search(), filter.color(), sort, position, LIMIT);
+            window.forEach(person -> ids.add(person.getId()));
+            if (!window.hasNext()) {
+                return ids;
+            }
+            position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        }
+    }
+
+    private List<Long> pageIds(Filter filter, Sort sort) {
+        List<Long> ids = new ArrayList<>();
+        for (PageRequest pageable = PageRequest.of(0, LIMIT, sort); ; pageable = pageable.next()) {
+            Page<Person> page = page(filter, pageable);
+            page.forEach(person -> ids.add(person.getId()));
+            if (!page.hasNext()) {
+                return ids;
+            }
+        }
+    }
+
+    private Page<Person> page(Filter filter, PageRequest pageable) {
+        if (filter.search() == null) {
+            return filter.color() == null
+                    ? objectUnderTest.findAll(pageable)
+                    : objectUnderTest.findByColor(filter.color(), pageable);
+        }
+        return filter.color() == null
+                ? objectUnderTest.findBySearch(filter.search(), pageable)
+                : objectUnderTest.findBySearchAndColor(filter.search(), filter.color(), pageable);
+    }
+
+    private List<Person> matching(Filter filter) {
+        return persons.stream()
+                .filter(person -> filter.color() == null || person.getColor() == filter.color())
+                .filter(person -> filter.search() == null || Stream.of(person.getName(), person.getLastname(),
+                        person.getZipcode(), person.getCity()).anyMatch(value -> value.toLowerCase()
+                        .contains(filter.search())))
+                .toList();
+    }
+
+    /**
+     * Parses a sort spec of properties separated by {@code +}, each optionally followed by {@code :desc}.
+     */
+    private static Sort sortOf(String spec) {
+        return Sort.by(Arrays.stream(spec.split("\\+"))
+                .map(order -> order.endsWith(":desc")
+                        ? Sort.Order.desc(order.substring(0, order.length() - ":desc".length()))
+                        : Sort.Order.asc(order))
+                .toList());
+    }
+
+    private static List<Person> createPersons() {
+        Random random = new Random(42);
+        List<Person> persons = new ArrayList<>(SIZE);
+        for (long id = 1; id <= SIZE; id++) {
+            persons.add(createPerson(id, NAMES[random.nextInt(NAMES.length)],
+                    LASTNAMES[random.nextInt(LASTNAMES.length)], ZIPCODES[random.nextInt(ZIPCODES.length)],
+                    CITIES[random.nextInt(CITIES.length)], COLORS[random.nextInt(COLORS.length)]));
+        }
+        return persons;
+    }
+
+    private static Person createPerson(Long id, String name, String lastname, String zipcode, String city,
+                                       Color color) {
+        Person person = new Person();
+        person.setId(id);
+        person.setName(name);
+        person.setLastname(lastname);
+        person.setZipcode(zipcode);
+        person.setCity(city);
+        person.setColor(color);
+        return person;
+    }
+
+}
@@ -0,0 +1,166 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PersonSortIndexTest {
+
+    private static final int INITIAL_SIZE = 500;
+    private static final int ADDED_SIZE = PersonSortIndex.MAX_DELTA_SIZE + 700;
+
+    @Nested
+    class Page {
+
+        @ParameterizedTest
+        @EnumSource(PersonProperty.class)
+        void shouldMatchFullSortAfterAddingRows(PersonProperty property) {
+            List<Person> persons = createPersons(INITIAL_SIZE + ADDED_SIZE);
+            PersonColumns columns = columnsOf(persons);
+            PersonSortIndex objectUnderTest = new PersonSortIndex(columns.view(INITIAL_SIZE));
+
+            for (int row = INITIAL_SIZE; row < persons.size(); row++) {
+                objectUnderTest = objectUnderTest.add(row, columns.view(row + 1));
+                if (row % 250 == 0 || row == INITIAL_SIZE + PersonSortIndex.MAX_DELTA_SIZE) {
+                    assertPagesMatchFullSort(objectUnderTest, columns.view(row + 1), persons.subList(0, row + 1),
+                            property);
+                }
+            }
+            assertPagesMatchFullSort(objectUnderTest, columns.view(persons.size()), persons, property);
+        }
+
+        @Test
+        void shouldReturnFilteredPage() {
+            List<Person> persons = createPersons(INITIAL_SIZE + ADDED_SIZE);
+            PersonColumns.View columns = columnsOf(persons).view(persons.size());
+            PersonSortIndex objectUnderTest = new PersonSortIndex(columnsOf(persons.subList(0, INITIAL_SIZE))
+                    .view(INITIAL_SIZE));
+            for (int row = INITIAL_SIZE; row < persons.size(); row++) {
+                objectUnderTest = objectUnderTest.add(row, columns);
+            }
+            List<Person> expected = persons.stream().filter(person -> person.getColor() == Color.RED)
+                    .sorted(comparatorOf(PersonProperty.CITY).reversed()).skip(40).limit(20).toList();
+
+            org.springframework.data.domain.Page<Person> actual = objectUnderTest.page(
+                    new CompiledPersonSort.SortKey(PersonProperty.CITY, Sort.Direction.DESC), PageRequest.of(2, 20),
+                    row -> persons.get(row).getColor() == Color.RED, 123, columns);
+
+            assertThat(actual.getContent()).isEqualTo(expected);
+            assertThat(actual.getTotalElements()).isEqualTo(123);
+        }
+
+    }
+
+    @Nested
+    class Window {
+
+        @ParameterizedTest
+        @EnumSource(Sort.Direction.class)
+        void shouldWalkAllRowsWindowByWindowAfterAddingRows(Sort.Direction direction) {
+            List<Person> persons = createPersons(INITIAL_SIZE + ADDED_SIZE);
+            PersonColumns columns = columnsOf(persons);
+            PersonColumns.View view = columns.view(persons.size());
+            PersonSortIndex objectUnderTest = new PersonSortIndex(columns.view(INITIAL_SIZE));
+            for (int row = INITIAL_SIZE; row < persons.size(); row++) {
+                objectUnderTest = objectUnderTest.add(row, view);
+            }
+            CompiledPersonSort.SortKey key = new CompiledPersonSort.SortKey(PersonProperty.CITY, direction);
+            Comparator<Person> comparator = direction.isAscending()
+                    ? comparatorOf(PersonProperty.CITY)
+                    : comparatorOf(PersonProperty.CITY).reversed();
+            List<Person> expected = persons.stream().filter(person -> person.getColor() != Color.RED)
+                    .sorted(comparator).toList();
+
+            List<Person> actual = new ArrayList<>();
+            List<Person> window = objectUnderTest.window(key, null, row -> persons.get(row).getColor() != Color.RED,
+                    70, view);
+            while (!window.isEmpty()) {
+                actual.addAll(window);
+                Person last = window.getLast();
+                window = objectUnderTest.window(key, row -> comparator.compare(persons.get(row), last),
+                        row -> persons.get(row).getColor() != Color.RED, 70, view);
+            }
+
+            assertThat(actual).isEqualTo(expected);
+        }
+
+    }
+
+    @Nested
+    class Add {
+
+        @Test
+        void shouldKeepPreviousIndexUnchanged() {
+            List<Person> persons = createPersons(INITIAL_SIZE + 1);
+            PersonColumns columns = columnsOf(persons);
+            PersonSortIndex previous = new PersonSortIndex(columns.view(INITIAL_SIZE));
+
+            PersonSortIndex actual = previous.add(INITIAL_SIZE, columns.view(INITIAL_SIZE + 1));
+
+            assertThat(previous.size()).isEqualTo(INITIAL_SIZE);
+            assertThat(actual.size()).isEqualTo(INITIAL_SIZE + 1);
+            assertThat(previous.page(new CompiledPersonSort.SortKey(PersonProperty.ID, Sort.Direction.DESC),
+                    PageRequest.of(0, 1), columns.view(INITIAL_SIZE)).getContent())
+                    .containsExactly(persons.get(INITIAL_SIZE - 1));
+        }
+
+    }
+
+    private static void assertPagesMatchFullSort(PersonSortIndex index, PersonColumns.View columns,
+                                                 List<Person> persons, PersonProperty property) {
+        List<Person> ascending = persons.stream().sorted(comparatorOf(property)).toList();
+        List<Person> descending = new ArrayList<>(ascending).reversed();
+        for (Pageable pageable : List.of(PageRequest.of(0, 20), PageRequest.of(7, 30), PageRequest.of(1, 1_000),
+                Pageable.unpaged())) {
+            assertThat(index.page(new CompiledPersonSort.SortKey(property, Sort.Direction.ASC), pageable,
+                    columns).getContent()).isEqualTo(slice(ascending, pageable));
+            assertThat(index.page(new CompiledPersonSort.SortKey(property, Sort.Direction.DESC), pageable,
+                    columns).getContent()).isEqualTo(slice(descending, pageable));
+        }
+    }
+
+    private static List<Person> slice(List<Person> sorted, Pageable pageable) {
+        return pageable.isPaged()
+                ? sorted.stream().skip(pageable.getOffset()).limit(pageable.getPageSize()).toList()
+                : sorted;
+    }
+
+    private static PersonColumns columnsOf(List<Person> persons) {
+        PersonColumns columns = new HeapPersonColumns(persons.size());
+        persons.forEach(columns::add);
+        return columns;
+    }
+
+    private static Comparator<Person> comparatorOf(PersonProperty property) {
+        return property.getComparator().thenComparing(PersonProperty.ID.getComparator());
+    }
+
+    private static List<Person> createPersons(int size) {
+        Random random = new Random(42);
+        List<Person> persons = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            Person person = new Person(i);
+            person.setName("Name" + random.nextInt(50));
+            person.setLastname("Lastname" + random.nextInt(200));
+            person.setZipcode(String.format("%05d", random.nextInt(100_000)));
+            person.setCity("City" + random.nextInt(20));
+            person.setColor(Color.values()[random.nextInt(Color.values().length)]);
+            persons.add(person);
+        }
+        return persons;
+    }
+
+}
@@ -0,0 +1,76 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import de.tomreno.assessment.fullstack.backend.entity.Color;
+import de.tomreno.assessment.fullstack.backend.entity.Person;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PersonTrigramsTest {
+
+    @Nested
+    class Of {
+
+        @Test
+        void shouldReturnDistinctLowercasedTrigrams() {
+            assertThat(PersonTrigrams.of("AnaNas")).containsExactly("ana", "nan", "nas");
+        }
+
+        @Test
+        void shouldReturnNoTrigramsForTermShorterThanTrigram() {
+            assertThat(PersonTrigrams.of("Hi")).isEmpty();
+        }
+
+    }
+
+    @Nested
+    class RowsOf {
+
+        @Test
+        void shouldReturnTrigramsOfDistinctValuesPerField() {
+            List<Object[]> rows = PersonTrigrams.rowsOf(List.of(
+                    createPerson(1L, "Hans", "Müller", "Berlin"), createPerson(2L, "Hans", "Ott", "Ulm")));
+
+            assertThat(rows).extracting(row -> tuple(row[0], row[1], row[2])).containsExactlyInAnyOrder(
+                    tuple("han", "name", "Hans"), tuple("ans", "name", "Hans"),
+                    tuple("mül", "lastname", "Müller"), tuple("üll", "lastname", "Müller"),
+                    tuple("lle", "lastname", "Müller"), tuple("ler", "lastname", "Müller"),
+                    tuple("ott", "lastname", "Ott"),
+                    tuple("677", "zipcode", "67742"), tuple("774", "zipcode", "67742"),
+                    tuple("742", "zipcode", "67742"),
+                    tuple("ber", "city", "Berlin"), tuple("erl", "city", "Berlin"), tuple("rli", "city", "Berlin"),
+                    tuple("lin", "city", "Berlin"), tuple("ulm", "city", "Ulm"));
+        }
+
+    }
+
+    @Nested
+    class ContainsPattern {
+
+        @Test
+        void shouldMatchLowercasedTermAnywhere() {
+            assertThat(PersonTrigrams.containsPattern("Müller")).isEqualTo("%müller%");
+        }
+
+        @Test
+        void shouldEscapeWildcardsAndEscapeCharacter() {
+            assertThat(PersonTrigrams.containsPattern("1%_\\")).isEqualTo("%1\\%\\_\\\\%");
+        }
+
+    }
+
+    private static Person createPerson(long id, String name, String lastname, String city) {
+        Person person = new Person(id);
+        person.setName(name);
+        person.setLastname(lastname);
+        person.setZipcode("67742");
+        person.setCity(city);
+        person.setColor(Color.BLUE);
+        return person;
+    }
+
+}
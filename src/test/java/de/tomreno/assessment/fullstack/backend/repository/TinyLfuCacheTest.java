@@ -0,0 +1,187 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+
+class TinyLfuCacheTest {
+
+    private final TinyLfuCache<String, String> objectUnderTest = new TinyLfuCache<>(100, 1000, String::length);
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenBoundIsNotPositive() {
+        Throwable thrown = catchException(() -> new TinyLfuCache<String, String>(0, 1, String::length));
+
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Nested
+    class GetAndPut {
+
+        @Test
+        void shouldReturnPutValue() {
+            boolean put = objectUnderTest.put("a", "value", objectUnderTest.generation());
+
+            assertThat(put).isTrue();
+            assertThat(objectUnderTest.get("a")).isEqualTo("value");
+            assertThat(objectUnderTest.get("b")).isNull();
+            assertThat(objectUnderTest.hitCount()).isEqualTo(1);
+            assertThat(objectUnderTest.missCount()).isEqualTo(1);
+            assertThat(objectUnderTest.putCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldReplaceValueAndWeightOfPutKey() {
+            objectUnderTest.put("a", "value", objectUnderTest.generation());
+
+            objectUnderTest.put("a", "other value", objectUnderTest.generation());
+
+            assertThat(objectUnderTest.get("a")).isEqualTo("other value");
+            assertThat(objectUnderTest.size()).isEqualTo(1);
+            assertThat(objectUnderTest.weight()).isEqualTo(11);
+        }
+
+        @Test
+        void shouldNotPutValueLoadedBeforeRemoval() {
+            long generation = objectUnderTest.generation();
+            objectUnderTest.removeIf((key, value) -> false);
+
+            boolean put = objectUnderTest.put("a", "value", generation);
+
+            assertThat(put).isFalse();
+            assertThat(objectUnderTest.get("a")).isNull();
+        }
+
+        @Test
+        void shouldNotPutValueHeavierThanMaximumWeight() {
+            TinyLfuCache<String, String> cache = new TinyLfuCache<>(100, 3, String::length);
+            cache.put("a", "abc", cache.generation());
+
+            boolean put = cache.put("a", "abcd", cache.generation());
+
+            assertThat(put).isFalse();
+            assertThat(cache.get("a")).isNull();
+            assertThat(cache.weight()).isZero();
+        }
+
+    }
+
+    @Nested
+    class Evict {
+
+        @Test
+        void shouldKeepAtMostMaximumSizeEntries() {
+            for (int i = 0; i < 1000; i++) {
+                objectUnderTest.put("key" + i, "v", objectUnderTest.generation());
+            }
+
+            assertThat(objectUnderTest.size()).isEqualTo(100);
+            assertThat(objectUnderTest.evictionCount()).isEqualTo(900);
+        }
+
+        @Test
+        void shouldKeepAtMostMaximumWeight() {
+            for (int i = 0; i < 100; i++) {
+                objectUnderTest.put("key" + i, "0123456789".repeat(3), objectUnderTest.generation());
+            }
+
+            assertThat(objectUnderTest.weight()).isLessThanOrEqualTo(1000);
+            assertThat(objectUnderTest.size()).isEqualTo(33);
+        }
+
+        @Test
+        void shouldKeepFrequentlyRequestedEntriesWhenManyOthersAreRequestedOnce() {
+            for (int i = 0; i < 50; i++) {
+                objectUnderTest.put("hot" + i, "v", objectUnderTest.generation());
+            }
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 50; i++) {
+                    objectUnderTest.get("hot" + i);
+                }
+            }
+
+            for (int i = 0; i < 10_000; i++) {
+                String key = "cold" + i;
+                if (objectUnderTest.get(key) == null) {
+                    objectUnderTest.put(key, "v", objectUnderTest.generation());
+                }
+                if (i % 4 == 0) {
+                    objectUnderTest.get("hot" + i / 4 % 50);
+                }
+            }
+
+            long hot = IntStream.range(0, 50)
+                    .filter(i -> objectUnderTest.get("hot" + i) != null)
+                    .count();
+            assertThat(hot).isEqualTo(50);
+        }
+
+    }
+
+    @Nested
+    class RemoveIf {
+
+        @Test
+        void shouldRemoveMatchingEntriesOnly() {
+            objectUnderTest.put("a", "x", objectUnderTest.generation());
+            objectUnderTest.put("b", "yy", objectUnderTest.generation());
+
+            int removed = objectUnderTest.removeIf((key, value) -> value.length() == 2);
+
+            assertThat(removed).isEqualTo(1);
+            assertThat(objectUnderTest.get("a")).isEqualTo("x");
+            assertThat(objectUnderTest.get("b")).isNull();
+            assertThat(objectUnderTest.weight()).isEqualTo(1);
+            assertThat(objectUnderTest.removalCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldRemoveAllEntriesOnClear() {
+            objectUnderTest.put("a", "x", objectUnderTest.generation());
+            objectUnderTest.get("a");
+            objectUnderTest.get("a");
+
+            objectUnderTest.clear();
+
+            assertThat(objectUnderTest.size()).isZero();
+            assertThat(objectUnderTest.weight()).isZero();
+        }
+
+    }
+
+    @Nested
+    class FrequencySketch {
+
+        @Test
+        void shouldEstimateFrequencyOfIncrementedHashes() {
+            TinyLfuCache.FrequencySketch sketch = new TinyLfuCache.FrequencySketch(64);
+
+            for (int i = 0; i < 5; i++) {
+                sketch.increment(42);
+            }
+
+            assertThat(sketch.frequency(42)).isEqualTo(5);
+            assertThat(sketch.frequency(43)).isLessThan(5);
+        }
+
+        @Test
+        void shouldHalveFrequenciesAfterSampleSizeIncrements() {
+            TinyLfuCache.FrequencySketch sketch = new TinyLfuCache.FrequencySketch(16);
+            for (int i = 0; i < 15; i++) {
+                sketch.increment(42);
+            }
+
+            for (int i = 0; i < 160; i++) {
+                sketch.increment(1000 + i);
+            }
+
+            assertThat(sketch.frequency(42)).isLessThanOrEqualTo(7);
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package de.tomreno.assessment.fullstack.backend.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private static final List<String[]> ROWS = List.of(
+            new String[]{"Hans", "Wurst", "12345", "Assessment"},
+            new String[]{"Bernd", "Hansen", "98765", "Tnemssessa"},
+            new String[]{"Sansa", "Stark", "55443", "Winterfell"},
+            new String[]{"Thomas", "Reno", "18435", "Stralsund"},
+            new String[]{"Claudia", "Hinz", "87342", "Hansestadt"},
+            new String[]{"Aaron", "Maaaas", "00000", "Aachen"}
+    );
+
+    TrigramIndex objectUnderTest;
+    List<String[]> rows;
+
+    @BeforeEach
+    void setUp() {
+        objectUnderTest = new TrigramIndex();
+        rows = new ArrayList<>();
+        for (int row = 0; row < ROWS.size(); row++) {
+            add(row, ROWS.get(row));
+        }
+    }
+
+    private TrigramIndex.View view() {
+        return objectUnderTest.view(objectUnderTest.size(), this::contains);
+    }
+
+    private void add(int row, String... fieldValues) {
+        objectUnderTest.add(row, fieldValues);
+        rows.add(fieldValues);
+    }
+
+    private IntPredicate contains(String lowercaseTerm) {
+        return row -> Stream.of(rows.get(row)).anyMatch(value -> value.toLowerCase().contains(lowercaseTerm));
+    }
+
+    @Nested
+    class Rows {
+
+        @ParameterizedTest
+        @ValueSource(strings = {"hans", "HANS", "s", "ss", "sse", "stra", "434", "5", "000", "aaaa", "aach", "n", "",
+                "xyz", "ansa", "hansen", "te", "nz8", "Wurst1"})
+        void shouldMatchContainsInAnyFieldIgnoringCase(String search) {
+            List<Integer> expected = IntStream.range(0, ROWS.size())
+                    .filter(row -> Stream.of(ROWS.get(row)).anyMatch(v -> v.toLowerCase().contains(search.toLowerCase())))
+                    .boxed().toList();
+
+            assertThat(view().rows(search).boxed().toList()).isEqualTo(expected);
+        }
+
+        @Test
+        void shouldNotMatchAcrossFieldBoundaries() {
+            assertThat(view().rows("hanswurst")).isEmpty();
+            assertThat(view().rows("st1")).isEmpty();
+        }
+
+    }
+
+    @Nested
+    class Matcher {
+
+        @Test
+        void shouldTellWhetherRowMatches() {
+            assertThat(view().matcher("ST").test(3)).isTrue();
+            assertThat(view().matcher("ST").test(0)).isTrue();
+            assertThat(view().matcher("ST").test(1)).isFalse();
+        }
+
+    }
+
+    @Nested
+    class IsIndexed {
+
+        @Test
+        void shouldUsePostingListsForTermsOfAtLeastThreeCharacters() {
+            assertThat(view().isIndexed("ha")).isFalse();
+            assertThat(view().isIndexed("han")).isTrue();
+        }
+
+    }
+
+    @Nested
+    class Add {
+
+        @Test
+        void shouldFindRowsAddedAfterwards() {
+            add(ROWS.size(), "Kunigunde", "Grundwitz", "10439", "Berlin");
+
+            assertThat(view().rows("grund").boxed().toList()).containsExactly(ROWS.size());
+            assertThat(objectUnderTest.size()).isEqualTo(ROWS.size() + 1);
+        }
+
+        @Test
+        void shouldNotExposeRowsAddedAfterView() {
+            TrigramIndex.View before = view();
+
+            add(ROWS.size(), "Kunigunde", "Hansmann", "10439", "Berlin");
+
+            assertThat(before.rows("hans").boxed().toList()).containsExactly(0, 1, 4);
+            assertThat(before.rows("ns").boxed().toList()).containsExactly(0, 1, 2, 4);
+            assertThat(before.matcher("hans").test(ROWS.size())).isFalse();
+            assertThat(view().rows("hans").boxed().toList()).containsExactly(0, 1, 4, ROWS.size());
+        }
+
+    }
+
+}
@@ -1,26 +1,53 @@
 package de.tomreno.assessment.fullstack.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.tomreno.assessment.fullstack.backend.domain.ColorDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonCursor;
 import de.tomreno.assessment.fullstack.backend.domain.person.PersonDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonImportReport;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonImportReport.RowError;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonLineFormat;
 import de.tomreno.assessment.fullstack.backend.domain.person.PersonSaveDto;
+import de.tomreno.assessment.fullstack.backend.domain.person.PersonWindowDto;
 import de.tomreno.assessment.fullstack.backend.entity.Color;
 import de.tomreno.assessment.fullstack.backend.entity.Person;
+import de.tomreno.assessment.fullstack.backend.exception.BackendCsvException;
 import de.tomreno.assessment.fullstack.backend.mapper.PersonMapper;
 import de.tomreno.assessment.fullstack.backend.repository.PersonRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchException;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -211,6 +238,76 @@ class PersonServiceTest {
 
     }
 
+    @Nested
+    class RetrievePersonSlice {
+
+        @Test
+        void shouldReturnPersonSliceOfSearchAndColor() {
+            Pageable pageable = PageRequest.of(2, 1);
+            Person person = mock(Person.class);
+            PersonDto personDto = mock(PersonDto.class);
+            when(personRepository.findSlice("hans", Color.BLUE, pageable))
+                    .thenReturn(new SliceImpl<>(List.of(person), pageable, true));
+            when(personMapper.toDto(person)).thenReturn(personDto);
+
+            Slice<PersonDto> actual = objectUnderTest.retrievePersonSlice("hans", ColorDto.BLUE, pageable);
+
+            assertThat(actual.getContent()).containsExactly(personDto);
+            assertThat(actual.hasNext()).isTrue();
+            verifyNoMoreInteractions(personRepository, personMapper);
+        }
+
+        @Test
+        void shouldReturnPersonSliceOfAllPersons() {
+            Pageable pageable = PageRequest.of(0, 20);
+            when(personRepository.findSlice(null, null, pageable)).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+            Slice<PersonDto> actual = objectUnderTest.retrievePersonSlice(null, null, pageable);
+
+            assertThat(actual.getContent()).isEmpty();
+            assertThat(actual.hasNext()).isFalse();
+            verifyNoInteractions(personMapper);
+        }
+
+    }
+
+    @Nested
+    class RetrievePersonWindow {
+
+        @Test
+        void shouldReturnFirstWindowSortedLikePageableWithCursorOfNextWindow() {
+            Sort sort = Sort.by(Sort.Direction.ASC, "name");
+            Person person = mock(Person.class);
+            PersonDto personDto = mock(PersonDto.class);
+            Map<String, Object> keys = Map.of("name", "Hans", "id", 1L);
+            when(personRepository.findWindow("hans", Color.BLUE, sort, ScrollPosition.keyset(), 1))
+                    .thenReturn(Window.from(List.of(person), index -> ScrollPosition.forward(keys), true));
+            when(personMapper.toDto(person)).thenReturn(personDto);
+
+            PersonWindowDto actual = objectUnderTest.retrievePersonWindow("hans", ColorDto.BLUE, null,
+                    PageRequest.of(3, 1, sort));
+
+            assertThat(actual.getContent()).containsExactly(personDto);
+            assertThat(PersonCursor.valueOf(actual.getNextCursor())).isEqualTo(new PersonCursor(sort, keys));
+        }
+
+        @Test
+        void shouldContinueWithSortOfCursorAndReturnNoCursorAfterLastWindow() {
+            Sort sort = Sort.by(Sort.Direction.DESC, "city");
+            Map<String, Object> keys = Map.of("city", "Berlin", "id", 1L);
+            when(personRepository.findWindow(null, null, sort, ScrollPosition.forward(keys), 20))
+                    .thenReturn(Window.from(List.of(), index -> ScrollPosition.forward(keys), false));
+
+            PersonWindowDto actual = objectUnderTest.retrievePersonWindow(null, null, new PersonCursor(sort, keys),
+                    PageRequest.of(0, 20, Sort.by("name")));
+
+            assertThat(actual.getContent()).isEmpty();
+            assertThat(actual.getNextCursor()).isNull();
+            verifyNoInteractions(personMapper);
+        }
+
+    }
+
     @Nested
     class SavePerson {
 
@@ -233,4 +330,196 @@ class PersonServiceTest {
 
     }
 
+    @Nested
+    class ImportPersons {
+
+        private PersonService importingService;
+
+        @BeforeEach
+        void setUp() {
+            importingService = new PersonService(personRepository, Mappers.getMapper(PersonMapper.class),
+                    Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+        }
+
+        @Test
+        void shouldSaveValidCsvRowsAndReportInvalidRows() throws IOException {
+            String csv = """
+                    Müller, Hans, 67742 Lauterecken, 1
+                    Petersen, Peter, 18439 Stralsund
+                    
+                    Johnson; Johnny; 88888 made up; 9
+                    Millenium,Milly,7777 made up too,4
+                    Andersson, Anders, 32132 Schweden, 2
+                    """;
+            List<Person> saved = new ArrayList<>();
+            when(personRepository.saveBatch(anyList())).thenAnswer(invocation -> {
+                saved.addAll(invocation.getArgument(0));
+                return invocation.getArgument(0);
+            });
+
+            PersonImportReport actual = importingService.importPersons(PersonLineFormat.CSV, new StringReader(csv));
+
+            assertThat(actual.getImported()).isEqualTo(2);
+            assertThat(actual.getFailed()).isEqualTo(3);
+            assertThat(actual.getErrors()).extracting(RowError::getRow, RowError::getMessage).containsExactly(
+                    tuple(2L, "Expected 4 columns, but found 3"),
+                    tuple(4L, "Color id 9 does not exist"),
+                    tuple(5L, "zipcode: Zipcode must have exactly 5 characters."));
+            assertThat(saved).extracting(Person::getId, Person::getLastname, Person::getCity, Person::getColor)
+                    .containsExactly(tuple(null, "Müller", "Lauterecken", Color.BLUE),
+                            tuple(null, "Andersson", "Schweden", Color.GREEN));
+        }
+
+        @Test
+        void shouldSaveValidNdjsonRowsAndReportInvalidRows() throws IOException {
+            String ndjson = """
+                    {"id":7,"name":"Hans","lastname":"Müller","zipcode":"67742","city":"Lauterecken","color":"BLUE"}
+                    {"name":"Peter","lastname":"Petersen","zipcode":"18439","city":"Stralsund","color":"PINK"}
+                    {"name":"Peter","lastname":"Petersen","zipcode":"18439","city":"Stralsund"
+                    """;
+            List<Person> saved = new ArrayList<>();
+            when(personRepository.saveBatch(anyList())).thenAnswer(invocation -> {
+                saved.addAll(invocation.getArgument(0));
+                return invocation.getArgument(0);
+            });
+
+            PersonImportReport actual = importingService.importPersons(PersonLineFormat.NDJSON,
+                    new StringReader(ndjson));
+
+            assertThat(actual.getImported()).isEqualTo(1);
+            assertThat(actual.getErrors()).extracting(RowError::getRow).containsExactly(2L, 3L);
+            assertThat(actual.getErrors()).extracting(RowError::getMessage).allMatch(m -> m.startsWith("Invalid JSON"));
+            assertThat(saved).extracting(Person::getId, Person::getName).containsExactly(tuple(null, "Hans"));
+        }
+
+        @Test
+        void shouldSaveRowsInBatches() throws IOException {
+            StringBuilder csv = new StringBuilder();
+            for (int i = 0; i < PersonService.IMPORT_BATCH_SIZE + 1; i++) {
+                csv.append("Müller, Hans, 67742 Lauterecken, 1\n");
+            }
+            List<Integer> batchSizes = new ArrayList<>();
+            when(personRepository.saveBatch(anyList())).thenAnswer(invocation -> {
+                batchSizes.add(invocation.<List<Person>>getArgument(0).size());
+                return invocation.getArgument(0);
+            });
+
+            PersonImportReport actual = importingService.importPersons(PersonLineFormat.CSV,
+                    new StringReader(csv.toString()));
+
+            assertThat(actual.getImported()).isEqualTo(PersonService.IMPORT_BATCH_SIZE + 1);
+            assertThat(batchSizes).containsExactly(PersonService.IMPORT_BATCH_SIZE, 1);
+        }
+
+        @Test
+        void shouldReportFailingRowsOfFailedBatch() throws IOException {
+            String csv = """
+                    Müller, Hans, 67742 Lauterecken, 1
+                    Petersen, Peter, 18439 Stralsund, 2
+                    """;
+            when(personRepository.saveBatch(anyList())).thenThrow(new BackendCsvException("Failed to save CSV entries"));
+            when(personRepository.save(any(Person.class))).thenAnswer(invocation -> invocation.getArgument(0))
+                    .thenThrow(new BackendCsvException("Failed to save CSV entry",
+                            new IllegalArgumentException("Person cannot be written as a single CSV entry")));
+
+            PersonImportReport actual = importingService.importPersons(PersonLineFormat.CSV, new StringReader(csv));
+
+            assertThat(actual.getImported()).isEqualTo(1);
+            assertThat(actual.getErrors()).extracting(RowError::getRow, RowError::getMessage)
+                    .containsExactly(tuple(2L, "Person cannot be written as a single CSV entry"));
+        }
+
+        @Test
+        void shouldReportLimitedNumberOfErrors() throws IOException {
+            String csv = "invalid\n".repeat(PersonImportReport.MAX_REPORTED_ERRORS + 1);
+
+            PersonImportReport actual = importingService.importPersons(PersonLineFormat.CSV, new StringReader(csv));
+
+            assertThat(actual.getFailed()).isEqualTo(PersonImportReport.MAX_REPORTED_ERRORS + 1);
+            assertThat(actual.getErrors()).hasSize(PersonImportReport.MAX_REPORTED_ERRORS);
+            verifyNoInteractions(personRepository);
+        }
+
+    }
+
+    @Nested
+    class ExportPersons {
+
+        private PersonService exportingService;
+
+        @BeforeEach
+        void setUp() {
+            exportingService = new PersonService(personRepository, Mappers.getMapper(PersonMapper.class),
+                    Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+        }
+
+        @Test
+        void shouldWritePersonsAsCsvLinesThatCanBeImported() throws IOException {
+            givenExportedPersons(null, null);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            exportingService.exportPersons(PersonLineFormat.CSV, null, null, out);
+
+            String csv = out.toString(StandardCharsets.UTF_8);
+            assertThat(csv).isEqualTo("""
+                    Müller,Hans,67742 Lauterecken,1
+                    Petersen,Peter,18439 Stralsund,2
+                    """);
+            when(personRepository.saveBatch(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+            assertThat(exportingService.importPersons(PersonLineFormat.CSV, new StringReader(csv)).getImported())
+                    .isEqualTo(2);
+        }
+
+        @Test
+        void shouldWritePersonsAsJsonLines() throws IOException {
+            givenExportedPersons("hans", Color.BLUE);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            exportingService.exportPersons(PersonLineFormat.NDJSON, "hans", ColorDto.BLUE, out);
+
+            assertThat(out.toString(StandardCharsets.UTF_8).lines().map(line -> {
+                try {
+                    return new ObjectMapper().readValue(line, PersonDto.class);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).extracting(PersonDto::getId, PersonDto::getName, PersonDto::getColor)
+                    .containsExactly(tuple(1L, "Hans", "blau"), tuple(2L, "Peter", "grün"));
+        }
+
+        @Test
+        void shouldPassOnFailureToWrite() throws IOException {
+            givenExportedPersons(null, null);
+            IOException failure = new IOException("Connection reset");
+            OutputStream out = mock(OutputStream.class);
+            doThrow(failure).when(out).write(any(byte[].class), anyInt(), anyInt());
+
+            Throwable thrown = catchException(() -> exportingService.exportPersons(PersonLineFormat.CSV, null, null,
+                    out));
+
+            assertThat(thrown).isSameAs(failure);
+        }
+
+        private void givenExportedPersons(String search, Color color) {
+            doAnswer(invocation -> {
+                Consumer<Person> action = invocation.getArgument(2);
+                action.accept(createPerson(1L, "Hans", "Müller", "67742", "Lauterecken", Color.BLUE));
+                action.accept(createPerson(2L, "Peter", "Petersen", "18439", "Stralsund", Color.GREEN));
+                return null;
+            }).when(personRepository).exportAll(eq(search), eq(color), any());
+        }
+
+        private static Person createPerson(long id, String name, String lastname, String zipcode, String city,
+                                           Color color) {
+            Person person = new Person(id);
+            person.setName(name);
+            person.setLastname(lastname);
+            person.setZipcode(zipcode);
+            person.setCity(city);
+            person.setColor(color);
+            return person;
+        }
+
+    }
+
 }
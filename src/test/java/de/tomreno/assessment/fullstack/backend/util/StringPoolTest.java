@@ -0,0 +1,77 @@
+package de.tomreno.assessment.fullstack.backend.util;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringPoolTest {
+
+    @Nested
+    class Intern {
+
+        @Test
+        void shouldReturnSameInstanceForEqualRanges() {
+            StringPool pool = new StringPool(16);
+            char[] chars = "Berlin, Hamburg, Berlin".toCharArray();
+
+            String first = pool.intern(chars, 0, 6);
+            String second = pool.intern(chars, 17, 23);
+
+            assertThat(first).isEqualTo("Berlin").isSameAs(second);
+            assertThat(pool.intern(chars, 8, 15)).isEqualTo("Hamburg");
+            assertThat(pool.size()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldKeepValuesWhileGrowing() {
+            StringPool pool = new StringPool(10_000);
+            String[] values = new String[1_000];
+            for (int i = 0; i < values.length; i++) {
+                char[] chars = ("value" + i).toCharArray();
+                values[i] = pool.intern(chars, 0, chars.length);
+            }
+
+            for (int i = 0; i < values.length; i++) {
+                char[] chars = ("value" + i).toCharArray();
+                assertThat(pool.intern(chars, 0, chars.length)).isSameAs(values[i]);
+            }
+            assertThat(pool.size()).isEqualTo(values.length);
+        }
+
+        @Test
+        void shouldNotPoolBeyondCapacity() {
+            StringPool pool = new StringPool(1);
+            char[] chars = "Berlin Hamburg".toCharArray();
+            pool.intern(chars, 0, 6);
+
+            String first = pool.intern(chars, 7, 14);
+            String second = pool.intern(chars, 7, 14);
+
+            assertThat(first).isEqualTo(second).isNotSameAs(second);
+            assertThat(pool.size()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldNotPoolLongValues() {
+            StringPool pool = new StringPool(16);
+            char[] chars = "x".repeat(StringPool.MAX_POOLED_LENGTH + 1).toCharArray();
+
+            String first = pool.intern(chars, 0, chars.length);
+            String second = pool.intern(chars, 0, chars.length);
+
+            assertThat(first).isEqualTo(second).isNotSameAs(second);
+            assertThat(pool.size()).isZero();
+        }
+
+        @Test
+        void shouldNotPoolWithoutCapacity() {
+            StringPool pool = new StringPool(0);
+            char[] chars = "Berlin".toCharArray();
+
+            assertThat(pool.intern(chars, 0, 6)).isEqualTo("Berlin").isNotSameAs(pool.intern(chars, 0, 6));
+        }
+
+    }
+
+}
@@ -28,6 +28,33 @@ class StringSanitizerTest {
             assertThat(actual).isEqualTo("Alphabetic-string");
         }
 
+        @Test
+        void shouldRemoveDashedPartsWithWhitespaceWithinLetters() {
+            String alphabeticString = "Anders - Ander sson-Meyer ";
+
+            String actual = StringSanitizer.sanitizeAlphabeticString(alphabeticString);
+
+            assertThat(actual).isEqualTo("Anders-Meyer");
+        }
+
+        @Test
+        void shouldKeepWhitespaceWithinLettersWithoutDashes() {
+            String alphabeticString = " Bad\tM#ünster am Stein ";
+
+            String actual = StringSanitizer.sanitizeAlphabeticString(alphabeticString);
+
+            assertThat(actual).isEqualTo("Bad\tMünster am Stein");
+        }
+
+        @Test
+        void shouldSanitizeRangeOfCharacters() {
+            char[] chars = "12, Al@pha-Beta, 34".toCharArray();
+
+            String actual = StringSanitizer.sanitizeAlphabeticString(chars, 4, 15);
+
+            assertThat(actual).isEqualTo("Alpha-Beta");
+        }
+
     }
 
     @Nested
@@ -42,6 +69,15 @@ class StringSanitizerTest {
             assertThat(actual).isEqualTo("1234567890");
         }
 
+        @Test
+        void shouldSanitizeRangeOfCharacters() {
+            char[] chars = "12, 3-4, 56".toCharArray();
+
+            String actual = StringSanitizer.sanitizeNumericString(chars, 4, 7);
+
+            assertThat(actual).isEqualTo("34");
+        }
+
     }
 
 }